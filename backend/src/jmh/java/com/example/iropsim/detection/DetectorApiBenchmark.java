@@ -0,0 +1,84 @@
+package com.example.iropsim.detection;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 检测器接口对比：装箱List&lt;Double&gt;路径 vs 原始类型窗口视图路径
+ *
+ * <p>windowSize为60秒窗口内的样本数（对应1Hz/10Hz/100Hz采样）。
+ * 建议配合 -prof gc 查看每次检测的分配量。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DetectorApiBenchmark {
+
+    private static final UUID ROBOT_ID = UUID.randomUUID();
+
+    @Param({"60", "600", "6000"})
+    private int windowSize;
+
+    private SlidingWindowBuffer buffer;
+    private MetricChannel channel;
+    private ThresholdDetector thresholdDetector;
+    private ZScoreDetector zScoreDetector;
+    private DoubleArrayWindow exactWindow;
+    private Instant now;
+
+    @Setup
+    public void setUp() {
+        buffer = new SlidingWindowBuffer();
+        thresholdDetector = new ThresholdDetector();
+        zScoreDetector = new ZScoreDetector();
+        exactWindow = new DoubleArrayWindow();
+
+        Random random = new Random(42);
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        long intervalMillis = 60_000L / windowSize;
+        for (int i = 0; i < windowSize; i++) {
+            now = start.plusMillis(i * intervalMillis);
+            buffer.addSample(ROBOT_ID, 0, Metric.CURRENT, 2.5 + random.nextGaussian() * 0.2, now);
+        }
+        channel = buffer.channel(ROBOT_ID, 0, Metric.CURRENT);
+    }
+
+    /**
+     * 原路径：每次取出装箱列表，两个检测器分别处理
+     */
+    @Benchmark
+    public void boxedList(Blackhole bh) {
+        List<Double> values = buffer.getValuesInWindow(ROBOT_ID, 0, Metric.CURRENT, now);
+        bh.consume(thresholdDetector.detect(values));
+        bh.consume(zScoreDetector.detect(values));
+    }
+
+    /**
+     * 原始类型精确路径：复制到复用数组后全量计算
+     */
+    @Benchmark
+    public void primitiveExact(Blackhole bh) {
+        WindowView window = exactWindow.copyFrom(channel, SlidingWindowBuffer.windowStartMillis(now));
+        bh.consume(thresholdDetector.detect(window));
+        bh.consume(zScoreDetector.detect(window));
+    }
+
+    /**
+     * 原始类型增量路径：直接读取通道维护的统计量
+     */
+    @Benchmark
+    public void primitiveIncremental(Blackhole bh) {
+        WindowView window = channel.window();
+        bh.consume(thresholdDetector.detect(window));
+        bh.consume(zScoreDetector.detect(window));
+    }
+}
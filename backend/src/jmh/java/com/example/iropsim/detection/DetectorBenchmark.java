@@ -0,0 +1,65 @@
+package com.example.iropsim.detection;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ThresholdDetector / ZScoreDetector 单次检测
+ *
+ * <p>分别测量装箱列表接口和原始类型窗口视图接口，窗口数据预先生成，不含取窗口的开销。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DetectorBenchmark {
+
+    @Param({"60", "600", "6000"})
+    private int windowSize;
+
+    private ThresholdDetector thresholdDetector;
+    private ZScoreDetector zScoreDetector;
+    private List<Double> boxedWindow;
+    private DoubleArrayWindow primitiveWindow;
+
+    @Setup
+    public void setUp() {
+        thresholdDetector = new ThresholdDetector();
+        zScoreDetector = new ZScoreDetector();
+
+        Random random = new Random(42);
+        double[] values = new double[windowSize];
+        boxedWindow = new ArrayList<>(windowSize);
+        for (int i = 0; i < windowSize; i++) {
+            values[i] = 2.5 + random.nextGaussian() * 0.2;
+            boxedWindow.add(values[i]);
+        }
+        primitiveWindow = new DoubleArrayWindow(values);
+    }
+
+    @Benchmark
+    public DetectionResult thresholdList() {
+        return thresholdDetector.detect(boxedWindow);
+    }
+
+    @Benchmark
+    public DetectionResult thresholdView() {
+        return thresholdDetector.detect(primitiveWindow);
+    }
+
+    @Benchmark
+    public DetectionResult zScoreList() {
+        return zScoreDetector.detect(boxedWindow);
+    }
+
+    @Benchmark
+    public DetectionResult zScoreView() {
+        return zScoreDetector.detect(primitiveWindow);
+    }
+}
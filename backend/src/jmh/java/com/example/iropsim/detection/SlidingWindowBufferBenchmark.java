@@ -0,0 +1,66 @@
+package com.example.iropsim.detection;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 滑动窗口写入与读取
+ *
+ * <p>windowSize为60秒窗口内的样本数（1Hz/10Hz/100Hz）。预先写满两倍窗口，
+ * 测量稳态下每次写入（含过期淘汰和增量统计更新）与读取的开销。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlidingWindowBufferBenchmark {
+
+    private static final UUID ROBOT_ID = UUID.randomUUID();
+
+    @Param({"60", "600", "6000"})
+    private int windowSize;
+
+    private SlidingWindowBuffer buffer;
+    private MetricChannel channel;
+    private Random random;
+    private long intervalMillis;
+    private Instant now;
+
+    @Setup
+    public void setUp() {
+        buffer = new SlidingWindowBuffer();
+        random = new Random(42);
+        intervalMillis = 60_000L / windowSize;
+        now = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < windowSize * 2; i++) {
+            now = now.plusMillis(intervalMillis);
+            buffer.addSample(ROBOT_ID, 0, Metric.CURRENT, 2.5 + random.nextGaussian() * 0.2, now);
+        }
+        channel = buffer.channel(ROBOT_ID, 0, Metric.CURRENT);
+    }
+
+    @Benchmark
+    public void addSample() {
+        now = now.plusMillis(intervalMillis);
+        buffer.addSample(ROBOT_ID, 0, Metric.CURRENT, 2.5 + random.nextGaussian() * 0.2, now);
+    }
+
+    @Benchmark
+    public void getValuesInWindow(Blackhole bh) {
+        bh.consume(buffer.getValuesInWindow(ROBOT_ID, 0, Metric.CURRENT, now));
+    }
+
+    @Benchmark
+    public void incrementalWindowStats(Blackhole bh) {
+        WindowView window = channel.window();
+        bh.consume(window.mean());
+        bh.consume(window.stdDev());
+    }
+}
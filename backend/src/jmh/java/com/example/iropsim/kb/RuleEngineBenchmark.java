@@ -0,0 +1,62 @@
+package com.example.iropsim.kb;
+
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.KbRule;
+import com.example.iropsim.entity.Robot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 规则引擎单条规则评估
+ *
+ * <p>规则为一个and条件组合（类型相等 + 分数阈值 + or子条件），与知识库中的典型规则结构一致。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleEngineBenchmark {
+
+    private static final String WHEN_EXPR = "{\"and\": ["
+            + "{\"field\": \"alarmType\", \"op\": \"equals\", \"value\": \"TEMP_ANOMALY\"},"
+            + "{\"field\": \"score\", \"op\": \"greater_than\", \"value\": 3.0},"
+            + "{\"or\": ["
+            + "  {\"field\": \"severity\", \"op\": \"equals\", \"value\": \"CRITICAL\"},"
+            + "  {\"field\": \"count\", \"op\": \"greater_than\", \"value\": 5}"
+            + "]}]}";
+
+    private RuleEngine ruleEngine;
+    private KbRule rule;
+    private AlarmEvent alarmEvent;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ruleEngine = new RuleEngine(objectMapper);
+        rule = KbRule.builder()
+                .id(UUID.randomUUID())
+                .name("overheat-critical")
+                .whenExpr(objectMapper.readTree(WHEN_EXPR))
+                .build();
+        alarmEvent = AlarmEvent.builder()
+                .id(UUID.randomUUID())
+                .robot(Robot.builder().id(UUID.randomUUID()).name("r1").model("UR5").build())
+                .jointIndex(2)
+                .alarmType(AlarmEvent.AlarmType.TEMP_ANOMALY)
+                .severity(AlarmEvent.Severity.CRITICAL)
+                .count(3)
+                .detector("Z_SCORE")
+                .score(4.2)
+                .build();
+    }
+
+    @Benchmark
+    public boolean evaluateRule() {
+        return ruleEngine.evaluateRule(rule, alarmEvent);
+    }
+}
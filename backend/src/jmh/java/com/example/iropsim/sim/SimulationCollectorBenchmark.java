@@ -0,0 +1,81 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模拟采集器单个关节样本生成
+ *
+ * <p>对比无故障与叠加两个激活故障时的开销，时间戳按100Hz推进。
+ * collectRobotFrame一次生成6轴机器人的全部关节和位姿，可与6次collectJointSample对比。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationCollectorBenchmark {
+
+    @Param({"0", "2"})
+    private int activeFaultCount;
+
+    private SimulationCollector collector;
+    private Robot robot;
+    private ScenarioRun scenarioRun;
+    private List<FaultInjection> activeFaults;
+    private Instant timestamp;
+    private int jointIndex;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        collector = new SimulationCollector(objectMapper);
+        collector.setSeed(42);
+
+        robot = Robot.builder().id(UUID.randomUUID()).name("r1").model("UR5").jointCount(6).build();
+        Scenario scenario = Scenario.builder()
+                .id(UUID.randomUUID())
+                .name("bench")
+                .baseParams(objectMapper.readTree(
+                        "{\"current_nominal\": 2.5, \"temp_nominal\": 40.0, \"vibration_nominal\": 0.08}"))
+                .build();
+        scenarioRun = ScenarioRun.builder().id(UUID.randomUUID()).scenario(scenario).seed(42L).build();
+
+        timestamp = Instant.parse("2024-01-01T00:00:00Z");
+        Instant faultEnd = timestamp.plusSeconds(86_400);
+        List<FaultInjection> faults = List.of(
+                FaultInjection.builder()
+                        .id(UUID.randomUUID())
+                        .faultType(FaultInjection.FaultType.OVERHEAT)
+                        .startTs(timestamp).endTs(faultEnd)
+                        .params(objectMapper.readTree("{\"amplitude\": 15.0}"))
+                        .build(),
+                FaultInjection.builder()
+                        .id(UUID.randomUUID())
+                        .faultType(FaultInjection.FaultType.SENSOR_DRIFT)
+                        .startTs(timestamp).endTs(faultEnd)
+                        .params(objectMapper.readTree("{\"driftRate\": 0.02}"))
+                        .build());
+        activeFaults = faults.subList(0, activeFaultCount);
+    }
+
+    @Benchmark
+    public JointSample collectJointSample() {
+        timestamp = timestamp.plusMillis(10);
+        jointIndex = (jointIndex + 1) % 6;
+        return collector.collectJointSample(robot, jointIndex, scenarioRun, timestamp, activeFaults);
+    }
+
+    @Benchmark
+    public RobotFrame collectRobotFrame() {
+        timestamp = timestamp.plusMillis(10);
+        return collector.collectRobotFrame(robot, scenarioRun, timestamp, activeFaults);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.iropsim.telemetry;
+
+import com.example.iropsim.IROpsimApplication;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.Robot;
+import com.example.iropsim.entity.ScenarioRun;
+import com.example.iropsim.repository.RobotRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JPA批量INSERT与COPY写入吞吐对比
+ *
+ * <p>每次调用写入一批1000行关节样本，吞吐单位为批/秒。启动Testcontainers PostgreSQL和不带Web的应用上下文，
+ * 需要本机Docker。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SampleBatchWriterBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"JPA", "COPY"})
+    private ScenarioRun.IngestMode mode;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private SampleBatchWriter writer;
+    private Robot robot;
+    private Instant timestamp;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        context = new SpringApplicationBuilder(IROpsimApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword())
+                .run();
+        writer = context.getBeansOfType(SampleBatchWriter.class).values().stream()
+                .filter(w -> w.getMode() == mode)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No sample writer for mode " + mode));
+        robot = context.getBean(RobotRepository.class)
+                .save(Robot.builder().name("bench-" + mode).model("UR5").build());
+        timestamp = Instant.parse("2024-01-01T00:00:00Z");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public void writeJointBatch() {
+        List<JointSample> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            timestamp = timestamp.plusMillis(1);
+            batch.add(JointSample.builder()
+                    .ts(timestamp)
+                    .robot(robot)
+                    .jointIndex(i % 6)
+                    .currentA(2.5)
+                    .vibrationRms(0.8)
+                    .temperatureC(45.0)
+                    .label(JointSample.SampleLabel.NORMAL)
+                    .build());
+        }
+        writer.writeJointSamples(batch);
+    }
+}
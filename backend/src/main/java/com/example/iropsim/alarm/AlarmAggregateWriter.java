@@ -0,0 +1,19 @@
+package com.example.iropsim.alarm;
+
+import com.example.iropsim.entity.AlarmEvent;
+
+import java.util.List;
+
+/**
+ * 告警聚合字段的批量写入
+ *
+ * <p>只写入去重索引在内存中合并的字段（lastSeenTs、count、score、severity、updatedAt），
+ * 不覆盖确认/关闭等由其他流程修改的状态。</p>
+ */
+public interface AlarmAggregateWriter {
+
+    /**
+     * @return 与alarms顺序对应的更新行数，0表示该告警的行已不存在
+     */
+    int[] writeAggregates(List<AlarmEvent> alarms);
+}
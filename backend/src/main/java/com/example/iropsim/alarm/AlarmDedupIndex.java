@@ -0,0 +1,345 @@
+package com.example.iropsim.alarm;
+
+import com.example.iropsim.detection.AlarmKey;
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.repository.AlarmEventRepository;
+import com.example.iropsim.websocket.WebSocketEventHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 告警去重索引
+ *
+ * <p>按去重键（{@link AlarmKey}）在内存中保存告警，重复命中只在内存中累加次数、更新lastSeenTs和最高分数，
+ * 不再每个异常样本执行一次{@code findByDedupKey}和{@code save}。被修改的告警标记为脏，
+ * 由独立刷新线程每隔一个刷新间隔通过{@link AlarmAggregateWriter}批量写回alarm_event并推送；
+ * 严重程度升级时立即唤醒刷新线程。</p>
+ *
+ * <p>只有某个去重键第一次命中时访问数据库：已有告警从数据库加载，不存在时由调用方创建并持久化。
+ * 在事务中新建的告警在事务提交后才放入索引，事务回滚时下次命中重新创建。
+ * 写回时更新行数为0（行已不存在）的告警移出索引，下次命中重新加载或创建。
+ * 除此之外索引大小受机器人数 × 关节数 × 指标数 × 检测器数限制，不做淘汰。</p>
+ *
+ * <p>刷新次数、写回行数、失败行数和刷新耗时通过Micrometer暴露，
+ * 可在 {@code /actuator/metrics/iropsim.alarm.dedup.*} 查看。</p>
+ */
+@Slf4j
+@Component
+public class AlarmDedupIndex {
+
+    /**
+     * 一次命中的处理结果
+     */
+    public enum Outcome {
+        CREATED, COALESCED, ESCALATED
+    }
+
+    private final Function<String, Optional<AlarmEvent>> loader;
+    private final AlarmAggregateWriter writer;
+    private final Consumer<AlarmEvent> publisher;
+    private final long flushIntervalMs;
+
+    private final Map<AlarmKey, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> dirty = new ConcurrentLinkedQueue<>();
+    private final Semaphore wakeup = new Semaphore(0);
+
+    private final Counter coalescedCounter;
+    private final Counter flushedCounter;
+    private final Counter failedCounter;
+    private final Counter evictedCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread flushThread;
+
+    @Autowired
+    public AlarmDedupIndex(AlarmEventRepository alarmEventRepository,
+                           AlarmAggregateWriter writer,
+                           WebSocketEventHandler webSocketEventHandler,
+                           MeterRegistry meterRegistry,
+                           @Value("${detection.alarm-flush-interval-ms:1000}") long flushIntervalMs) {
+        this(alarmEventRepository::findByDedupKey, writer, webSocketEventHandler::pushAlarmEvent,
+                meterRegistry, flushIntervalMs);
+    }
+
+    AlarmDedupIndex(Function<String, Optional<AlarmEvent>> loader,
+                    AlarmAggregateWriter writer,
+                    Consumer<AlarmEvent> publisher,
+                    MeterRegistry meterRegistry,
+                    long flushIntervalMs) {
+        this.loader = loader;
+        this.writer = writer;
+        this.publisher = publisher;
+        this.flushIntervalMs = flushIntervalMs;
+
+        Gauge.builder("iropsim.alarm.dedup.size", entries, Map::size)
+                .description("Alarms held in the in-memory dedup index")
+                .register(meterRegistry);
+        Gauge.builder("iropsim.alarm.dedup.dirty", dirty, ConcurrentLinkedQueue::size)
+                .description("Alarms with aggregated updates waiting to be flushed")
+                .register(meterRegistry);
+        this.coalescedCounter = meterRegistry.counter("iropsim.alarm.dedup.coalesced");
+        this.flushedCounter = meterRegistry.counter("iropsim.alarm.dedup.flushed");
+        this.failedCounter = meterRegistry.counter("iropsim.alarm.dedup.failed");
+        this.evictedCounter = meterRegistry.counter("iropsim.alarm.dedup.evicted");
+        this.flushTimer = meterRegistry.timer("iropsim.alarm.dedup.flush");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flushThread = new Thread(this::flushLoop, "alarm-dedup-flusher");
+        flushThread.setDaemon(true);
+        flushThread.start();
+        log.info("Alarm dedup flusher started (flushIntervalMs={})", flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        wakeup.release();
+        if (flushThread != null) {
+            try {
+                flushThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 写回停止前最后一批合并的更新
+        flush();
+        log.info("Alarm dedup flusher stopped");
+    }
+
+    /**
+     * 记录一次异常命中
+     *
+     * @param creator 去重键在数据库中也不存在时调用，负责创建、持久化并推送新告警
+     */
+    public Outcome record(AlarmKey key, Instant ts, AlarmEvent.Severity severity, double score,
+                          Supplier<AlarmEvent> creator) {
+        Entry entry;
+        boolean escalated;
+        while (true) {
+            entry = entries.computeIfAbsent(key, Entry::new);
+            synchronized (entry) {
+                if (entry.removed) {
+                    // 并发写回时该项已被移出索引，重新取得新项
+                    continue;
+                }
+                if (entry.alarm == null) {
+                    // 冷路径：该键首次命中，此时才生成可读去重键；创建失败时保持未加载，下次命中重试
+                    Optional<AlarmEvent> existing = loader.apply(key.toDedupKey());
+                    if (existing.isEmpty()) {
+                        publishAfterCommit(entry, creator.get());
+                        return Outcome.CREATED;
+                    }
+                    entry.alarm = existing.get();
+                }
+
+                AlarmEvent alarm = entry.alarm;
+                alarm.setLastSeenTs(ts);
+                alarm.setCount(alarm.getCount() + 1);
+                alarm.setScore(Math.max(alarm.getScore(), score));
+                // 严重程度只升不降
+                escalated = severity.compareTo(alarm.getSeverity()) > 0;
+                if (escalated) {
+                    alarm.setSeverity(severity);
+                }
+                markDirty(entry);
+                break;
+            }
+        }
+        coalescedCounter.increment();
+        if (escalated) {
+            wakeup.release();
+            return Outcome.ESCALATED;
+        }
+        return Outcome.COALESCED;
+    }
+
+    /**
+     * 新建告警在当前事务提交后才放入索引，避免事务回滚后索引持有不存在的行；不在事务中时立即放入
+     */
+    private void publishAfterCommit(Entry entry, AlarmEvent created) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entry.alarm = created;
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (entry) {
+                    if (entry.alarm == null && !entry.removed) {
+                        entry.alarm = created;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 确认/关闭等流程修改告警状态后同步到索引，避免之后推送的告警带着旧状态
+     */
+    public void updateStatus(AlarmEvent alarm, AlarmEvent.Status status) {
+        AlarmKey key = AlarmKey.of(alarm);
+        Entry entry = key != null ? entries.get(key) : null;
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry.alarm != null) {
+                entry.alarm.setStatus(status);
+            }
+        }
+    }
+
+    /**
+     * 当前等待写回的告警数
+     */
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    /**
+     * 写回全部脏告警；写回失败的告警重新标记，下次刷新重试，更新行数为0的告警移出索引
+     */
+    synchronized void flush() {
+        List<Entry> batch = new ArrayList<>();
+        List<AlarmEvent> snapshots = new ArrayList<>();
+        Instant now = Instant.now();
+        Entry entry;
+        while ((entry = dirty.poll()) != null) {
+            synchronized (entry) {
+                entry.dirty = false;
+                if (entry.removed) {
+                    continue;
+                }
+                entry.alarm.setUpdatedAt(now);
+                snapshots.add(snapshot(entry.alarm));
+            }
+            batch.add(entry);
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int[] updated;
+        try {
+            updated = writer.writeAggregates(snapshots);
+        } catch (Exception e) {
+            failedCounter.increment(snapshots.size());
+            log.error("Failed to flush {} aggregated alarm update(s): {}", snapshots.size(), e.getMessage());
+            for (Entry failed : batch) {
+                synchronized (failed) {
+                    markDirty(failed);
+                }
+            }
+            return;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        int written = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Entry flushed = batch.get(i);
+            if (updated[i] == 0) {
+                evict(flushed);
+                continue;
+            }
+            written++;
+            synchronized (flushed) {
+                publisher.accept(flushed.alarm);
+            }
+        }
+        flushedCounter.increment(written);
+        log.debug("Flushed {} aggregated alarm update(s)", written);
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                // 等待一个刷新间隔，严重程度升级时提前唤醒
+                wakeup.tryAcquire(flushIntervalMs, TimeUnit.MILLISECONDS);
+                wakeup.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            flush();
+        }
+    }
+
+    /**
+     * 行已不存在（如创建事务在入索引后回滚或告警被删除），移出索引，下次命中重新加载或创建
+     */
+    private void evict(Entry entry) {
+        synchronized (entry) {
+            entries.remove(entry.key, entry);
+            entry.removed = true;
+            log.warn("Alarm {} no longer exists in alarm_event, evicted from dedup index ({} hit(s) dropped)",
+                    entry.key, entry.alarm.getCount());
+            entry.alarm = null;
+        }
+        evictedCounter.increment();
+    }
+
+    private void markDirty(Entry entry) {
+        if (!entry.dirty) {
+            entry.dirty = true;
+            dirty.add(entry);
+        }
+    }
+
+    /**
+     * 写回用的聚合字段快照，写库期间检测线程可继续修改原告警
+     */
+    private static AlarmEvent snapshot(AlarmEvent alarm) {
+        return AlarmEvent.builder()
+                .id(alarm.getId())
+                .dedupKey(alarm.getDedupKey())
+                .lastSeenTs(alarm.getLastSeenTs())
+                .count(alarm.getCount())
+                .score(alarm.getScore())
+                .severity(alarm.getSeverity())
+                .updatedAt(alarm.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * 索引项，alarm为null表示尚未加载，removed表示已移出索引，字段由项自身的锁保护
+     */
+    private static final class Entry {
+        final AlarmKey key;
+        AlarmEvent alarm;
+        boolean dirty;
+        boolean removed;
+
+        Entry(AlarmKey key) {
+            this.key = key;
+        }
+    }
+}
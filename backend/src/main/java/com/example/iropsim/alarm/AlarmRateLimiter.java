@@ -0,0 +1,100 @@
+package com.example.iropsim.alarm;
+
+import com.example.iropsim.entity.AlarmEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 告警频率限制
+ *
+ * <p>同一机器人同一告警类型在滑动窗口内最多放行{@code limit}个新告警，超出的告警标记为抑制。
+ * 每个(robot, alarmType)保存最近放行的{@code limit}个时间戳组成的环形数组，
+ * 判定只比较环中最早的时间戳，O(1)且不查询数据库。</p>
+ *
+ * <p>只在内存中计数，服务重启后窗口清空。</p>
+ */
+@Component
+public class AlarmRateLimiter {
+
+    private static final int ALARM_TYPES = AlarmEvent.AlarmType.values().length;
+
+    private final int limit;
+    private final long windowMs;
+    private final LongSupplier clock;
+
+    // 机器人 -> 按告警类型序号索引的时间戳环
+    private final Map<UUID, Ring[]> rings = new ConcurrentHashMap<>();
+
+    private final Counter suppressedCounter;
+
+    @Autowired
+    public AlarmRateLimiter(@Value("${detection.alarm-suppression.limit:3}") int limit,
+                            @Value("${detection.alarm-suppression.window:60s}") Duration window,
+                            MeterRegistry meterRegistry) {
+        this(limit, window, System::currentTimeMillis, meterRegistry);
+    }
+
+    AlarmRateLimiter(int limit, Duration window, LongSupplier clock, MeterRegistry meterRegistry) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("detection.alarm-suppression.limit must be positive: " + limit);
+        }
+        this.limit = limit;
+        this.windowMs = window.toMillis();
+        this.clock = clock;
+        this.suppressedCounter = meterRegistry.counter("iropsim.alarm.suppressed");
+    }
+
+    /**
+     * 申请放行一个新告警
+     *
+     * @return 窗口内已放行{@code limit}个同类告警时返回false，调用方应将告警标记为抑制
+     */
+    public boolean tryAcquire(UUID robotId, AlarmEvent.AlarmType alarmType) {
+        Ring[] byType = rings.computeIfAbsent(robotId, id -> newRings());
+        boolean acquired = byType[alarmType.ordinal()].tryAcquire(clock.getAsLong());
+        if (!acquired) {
+            suppressedCounter.increment();
+        }
+        return acquired;
+    }
+
+    private Ring[] newRings() {
+        Ring[] byType = new Ring[ALARM_TYPES];
+        for (int i = 0; i < ALARM_TYPES; i++) {
+            byType[i] = new Ring(limit);
+        }
+        return byType;
+    }
+
+    private final class Ring {
+        private final long[] timestamps;
+        private int head;
+        private int size;
+
+        Ring(int capacity) {
+            this.timestamps = new long[capacity];
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            // 环满时head指向最早放行的时间戳
+            if (size == timestamps.length && now - timestamps[head] < windowMs) {
+                return false;
+            }
+            timestamps[head] = now;
+            head = (head + 1) % timestamps.length;
+            if (size < timestamps.length) {
+                size++;
+            }
+            return true;
+        }
+    }
+}
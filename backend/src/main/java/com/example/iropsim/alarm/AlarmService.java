@@ -7,7 +7,6 @@ import com.example.iropsim.repository.AlarmAckRepository;
 import com.example.iropsim.repository.AlarmEventRepository;
 import com.example.iropsim.repository.UserRepository;
 import com.example.iropsim.websocket.WebSocketEventHandler;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -32,7 +31,8 @@ public class AlarmService {
     private final UserRepository userRepository;
     private final AuditLogService auditLogService;
     private final WebSocketEventHandler webSocketEventHandler;
-    private final ObjectMapper objectMapper;
+    private final AlarmDedupIndex alarmDedupIndex;
+    private final AlarmRateLimiter alarmRateLimiter;
 
     /**
      * 确认告警
@@ -56,6 +56,7 @@ public class AlarmService {
         alarmEvent.setStatus(AlarmEvent.Status.ACKED);
         alarmEvent.setUpdatedAt(Instant.now());
         alarmEventRepository.save(alarmEvent);
+        alarmDedupIndex.updateStatus(alarmEvent, AlarmEvent.Status.ACKED);
 
         // 创建确认记录
         AlarmAck alarmAck = AlarmAck.builder()
@@ -89,6 +90,7 @@ public class AlarmService {
         alarmEvent.setStatus(AlarmEvent.Status.CLOSED);
         alarmEvent.setUpdatedAt(Instant.now());
         alarmEventRepository.save(alarmEvent);
+        alarmDedupIndex.updateStatus(alarmEvent, AlarmEvent.Status.CLOSED);
 
         // 推送更新
         webSocketEventHandler.pushAlarmEvent(alarmEvent);
@@ -98,48 +100,16 @@ public class AlarmService {
 
     /**
      * 检查是否应该抑制告警
-     * 抑制策略：同robot同alarm_type在60秒内超过3次更新时抑制
+     * 抑制策略：同robot同alarm_type在60秒内已放行3个告警时抑制，计数在内存中完成，不查询数据库
      */
     public boolean shouldSuppressAlarm(AlarmEvent alarmEvent) {
-        // 查询最近60秒内的类似告警
-        Instant oneMinuteAgo = Instant.now().minusSeconds(60);
-        long recentCount = alarmEventRepository.countByRobotAndAlarmTypeAndTimeRange(
-                alarmEvent.getRobot().getId(),
-                alarmEvent.getAlarmType(),
-                oneMinuteAgo,
-                Instant.now()
-        );
-
-        // 如果最近60秒内有超过3个相同类型的告警，则抑制
-        boolean shouldSuppress = recentCount >= 3;
+        boolean shouldSuppress = !alarmRateLimiter.tryAcquire(alarmEvent.getRobot().getId(), alarmEvent.getAlarmType());
 
         if (shouldSuppress) {
-            log.warn("Suppressing alarm {} due to high frequency ({} alarms in last 60 seconds)",
-                    alarmEvent.getId(), recentCount);
+            log.debug("Suppressing {} alarm {} due to high frequency",
+                    alarmEvent.getAlarmType(), alarmEvent.getDedupKey());
         }
 
         return shouldSuppress;
     }
-
-    /**
-     * 更新告警的抑制状态
-     */
-    @Transactional
-    public void updateAlarmSuppression(AlarmEvent alarmEvent, boolean suppressed) {
-        // 这里可以扩展alarm_event表，添加suppressed字段
-        // 目前先通过evidence字段记录抑制状态
-        try {
-            com.fasterxml.jackson.databind.JsonNode evidenceNode = alarmEvent.getEvidence();
-            java.util.Map<String, Object> evidenceMap = new java.util.HashMap<>();
-            if (evidenceNode != null && !evidenceNode.isNull()) {
-                evidenceMap = objectMapper.convertValue(evidenceNode, java.util.Map.class);
-            }
-            evidenceMap.put("suppressed", suppressed);
-            evidenceMap.put("suppressedAt", Instant.now().toString());
-            alarmEvent.setEvidence(objectMapper.valueToTree(evidenceMap));
-            alarmEventRepository.save(alarmEvent);
-        } catch (Exception e) {
-            log.warn("Failed to update alarm suppression evidence: {}", e.getMessage());
-        }
-    }
 }
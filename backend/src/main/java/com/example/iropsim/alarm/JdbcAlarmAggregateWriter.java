@@ -0,0 +1,38 @@
+package com.example.iropsim.alarm;
+
+import com.example.iropsim.entity.AlarmEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于JDBC批量UPDATE的告警聚合写入器，一次刷新只有一次批量往返
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcAlarmAggregateWriter implements AlarmAggregateWriter {
+
+    private static final String UPDATE_AGGREGATES_SQL =
+            "UPDATE alarm_event SET last_seen_ts = ?, count = ?, score = ?, severity = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] writeAggregates(List<AlarmEvent> alarms) {
+        List<Object[]> args = new ArrayList<>(alarms.size());
+        for (AlarmEvent alarm : alarms) {
+            args.add(new Object[]{
+                    Timestamp.from(alarm.getLastSeenTs()),
+                    alarm.getCount(),
+                    alarm.getScore(),
+                    alarm.getSeverity().name(),
+                    Timestamp.from(alarm.getUpdatedAt()),
+                    alarm.getId()});
+        }
+        return jdbcTemplate.batchUpdate(UPDATE_AGGREGATES_SQL, args);
+    }
+}
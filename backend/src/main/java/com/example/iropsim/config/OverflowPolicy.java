@@ -0,0 +1,17 @@
+package com.example.iropsim.config;
+
+/**
+ * 有界队列满时的背压策略
+ *
+ * <p>样本写库队列（{@code ingest.overflow-policy}）和检测队列（{@code detection.overflow-policy}）共用。</p>
+ */
+public enum OverflowPolicy {
+    /**
+     * 提交线程等待队列腾出空间，不丢数据
+     */
+    BLOCK,
+    /**
+     * 丢弃本次提交的样本并计数
+     */
+    DROP
+}
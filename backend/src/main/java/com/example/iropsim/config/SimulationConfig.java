@@ -1,10 +1,12 @@
 package com.example.iropsim.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * 仿真配置
@@ -12,9 +14,47 @@ import java.util.concurrent.ScheduledExecutorService;
 @Configuration
 public class SimulationConfig {
 
+    /**
+     * 仿真/回放tick专用线程池
+     *
+     * <p>{@link com.example.iropsim.sim.TickScheduler}为每个运行占用一个线程循环等待理想时刻，
+     * 该线程只负责tick调度和数据生成；样本落库交给{@link com.example.iropsim.telemetry.SampleIngestService}，
+     * 异常检测和告警写库交给{@link com.example.iropsim.detection.DetectionPipeline}的检测线程。
+     * 平台线程模式下线程数随运行数增长，空闲线程60秒后回收；开启虚拟线程（Java 21）后每个运行一个虚拟线程，
+     * 大量并发运行不再占用同等数量的平台线程。</p>
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService simulationTickExecutor(@Value("${simulation.threads.virtual:false}") boolean virtual) {
+        return SimulationThreads.perTaskExecutor(SimulationThreads.factory("simulation-tick", virtual), virtual);
+    }
+
+    /**
+     * 设备轮询等长期阻塞后台线程的线程工厂，开启虚拟线程时创建虚拟线程
+     */
     @Bean
-    public ScheduledExecutorService scheduledExecutor() {
-        // 使用固定大小的线程池来执行仿真任务
-        return Executors.newScheduledThreadPool(10);
+    public ThreadFactory simulationThreadFactory(@Value("${simulation.threads.virtual:false}") boolean virtual) {
+        return SimulationThreads.factory("simulation-io", virtual);
+    }
+
+    /**
+     * 多机器人并行生成数据的工作线程池
+     *
+     * <p>一次仿真tick内各机器人的数据生成互不依赖，按CPU核数拆分执行。</p>
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool simulationWorkerPool(@Value("${simulation.worker-parallelism:0}") int parallelism) {
+        int size = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(size);
+    }
+
+    /**
+     * 批量离线检测的工作线程池
+     *
+     * <p>与仿真tick使用的线程池分开，批量评测占满CPU时不影响在线仿真的数据生成。</p>
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool evaluationWorkerPool(@Value("${evaluation.worker-parallelism:0}") int parallelism) {
+        int size = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(size);
     }
 }
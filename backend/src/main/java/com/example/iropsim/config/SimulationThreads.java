@@ -0,0 +1,88 @@
+package com.example.iropsim.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 仿真相关线程的创建工具
+ *
+ * <p>项目默认以Java 17编译运行，虚拟线程API（Java 21）通过反射调用，
+ * 在Java 17上请求虚拟线程时记录警告并退回平台线程。</p>
+ */
+@Slf4j
+public final class SimulationThreads {
+
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR =
+            findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+    private SimulationThreads() {
+    }
+
+    /**
+     * 当前JVM是否支持虚拟线程
+     */
+    public static boolean virtualThreadsSupported() {
+        return OF_VIRTUAL != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * 创建按前缀编号命名的线程工厂
+     *
+     * @param prefix  线程名前缀，线程名为prefix-序号
+     * @param virtual 是否创建虚拟线程，JVM不支持时退回平台守护线程
+     */
+    public static ThreadFactory factory(String prefix, boolean virtual) {
+        if (virtual) {
+            if (virtualThreadsSupported()) {
+                return virtualFactory(prefix);
+            }
+            log.warn("Virtual threads requested for {} but not supported by Java {}, using platform threads",
+                    prefix, Runtime.version().feature());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 每个任务一个线程的执行器：虚拟线程时不做池化，平台线程时复用空闲线程
+     */
+    public static ExecutorService perTaskExecutor(ThreadFactory threadFactory, boolean virtual) {
+        if (virtual && virtualThreadsSupported()) {
+            try {
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create virtual thread executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    private static ThreadFactory virtualFactory(String prefix) {
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix + "-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create virtual thread factory", e);
+        }
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
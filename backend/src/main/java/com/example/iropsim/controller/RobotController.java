@@ -5,8 +5,9 @@ import com.example.iropsim.entity.JointSample;
 import com.example.iropsim.entity.PoseSample;
 import com.example.iropsim.entity.Robot;
 import com.example.iropsim.repository.JointSampleRepository;
-import com.example.iropsim.repository.PoseSampleRepository;
 import com.example.iropsim.repository.RobotRepository;
+import com.example.iropsim.telemetry.LatestSampleCache;
+import com.example.iropsim.telemetry.TelemetryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -37,7 +38,8 @@ public class RobotController {
 
     private final RobotRepository robotRepository;
     private final JointSampleRepository jointSampleRepository;
-    private final PoseSampleRepository poseSampleRepository;
+    private final TelemetryService telemetryService;
+    private final LatestSampleCache latestSampleCache;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR') or hasRole('VIEWER')")
@@ -153,6 +155,7 @@ public class RobotController {
 
         // 执行删除操作（JPA会自动处理级联删除）
         robotRepository.delete(robot);
+        latestSampleCache.evict(id);
 
         // 记录删除审计日志
         log.info("Deleted robot: {}", robot.getName());
@@ -237,20 +240,9 @@ public class RobotController {
         Robot robot = robotRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Robot not found: " + id));
 
-        // 获取最新的关节数据（每个关节最近一条）
-        List<JointSample> latestJointSamples = new ArrayList<>();
-        for (int jointIndex = 0; jointIndex < robot.getJointCount(); jointIndex++) {
-            List<JointSample> jointSamples = jointSampleRepository
-                    .findTopByRobotIdAndJointIndexOrderByTsDesc(id, jointIndex, 1);
-            if (!jointSamples.isEmpty()) {
-                latestJointSamples.add(jointSamples.get(0));
-            }
-        }
-
-        // 获取最新的位姿数据
-        List<PoseSample> poseSamples = poseSampleRepository
-                .findTopByRobotIdOrderByTsDesc(id, 1);
-        PoseSample latestPoseSample = poseSamples.isEmpty() ? null : poseSamples.get(0);
+        // 获取最新的关节数据（每个关节最近一条）和位姿数据，由最新值缓存提供
+        List<JointSample> latestJointSamples = telemetryService.getLatestJointSamples(robot.getId());
+        PoseSample latestPoseSample = telemetryService.getLatestPoseSample(robot.getId());
 
         TelemetryData telemetryData = new TelemetryData();
         telemetryData.setRobotId(id.toString());
@@ -1,20 +1,32 @@
 package com.example.iropsim.controller;
 
 import com.example.iropsim.common.ApiResponse;
+import com.example.iropsim.detection.DetectorConfig;
 import com.example.iropsim.entity.FaultInjection;
 import com.example.iropsim.entity.Scenario;
 import com.example.iropsim.entity.ScenarioRun;
 import com.example.iropsim.repository.FaultInjectionRepository;
+import com.example.iropsim.repository.RobotRepository;
 import com.example.iropsim.repository.ScenarioRepository;
 import com.example.iropsim.repository.ScenarioRunRepository;
+import com.example.iropsim.sim.BatchEvaluationRequest;
+import com.example.iropsim.sim.BatchEvaluationResult;
+import com.example.iropsim.sim.BatchEvaluationService;
 import com.example.iropsim.sim.FaultInjectionRequest;
+import com.example.iropsim.sim.HeadlessReplayResult;
+import com.example.iropsim.sim.HeadlessReplayService;
+import com.example.iropsim.sim.ReplayStatus;
+import com.example.iropsim.sim.TickStats;
 import com.example.iropsim.sim.ScenarioRunRequest;
 import com.example.iropsim.sim.SimulationEngine;
 import com.example.iropsim.sim.EvaluationReport;
+import com.example.iropsim.sim.EvaluationExporter;
+import com.example.iropsim.sim.ColumnarExporter;
 import com.example.iropsim.sim.DataCollectorService;
 import com.example.iropsim.entity.FaultTemplate;
 import com.example.iropsim.repository.FaultTemplateRepository;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -26,10 +38,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 仿真控制器
@@ -45,7 +61,12 @@ public class SimulationController {
     private final ScenarioRunRepository scenarioRunRepository;
     private final FaultInjectionRepository faultInjectionRepository;
     private final FaultTemplateRepository faultTemplateRepository;
+    private final RobotRepository robotRepository;
     private final SimulationEngine simulationEngine;
+    private final HeadlessReplayService headlessReplayService;
+    private final BatchEvaluationService batchEvaluationService;
+    private final EvaluationExporter evaluationExporter;
+    private final ColumnarExporter columnarExporter;
     private final ObjectMapper objectMapper;
 
     private final List<DataCollectorService> dataCollectors;
@@ -66,6 +87,15 @@ public class SimulationController {
         Scenario scenario = scenarioRepository.findById(request.getScenarioId())
                 .orElseThrow(() -> new IllegalArgumentException("Scenario not found: " + request.getScenarioId()));
 
+        // 校验参与运行的机器人
+        Set<UUID> robotIds = new LinkedHashSet<>();
+        if (request.getRobotIds() != null) {
+            robotIds.addAll(request.getRobotIds());
+            if (robotRepository.findAllById(robotIds).size() != robotIds.size()) {
+                throw new IllegalArgumentException("One or more robots not found: " + robotIds);
+            }
+        }
+
         // 创建ScenarioRun实体
         ScenarioRun scenarioRun = ScenarioRun.builder()
                 .scenario(scenario)
@@ -73,6 +103,9 @@ public class SimulationController {
                 .seed(request.getSeed() != null ? request.getSeed() : System.currentTimeMillis())
                 .rateHz(request.getRateHz())
                 .status(ScenarioRun.RunStatus.CREATED)
+                .robotIds(robotIds)
+                .ingestMode(request.getIngestMode() != null ?
+                        ScenarioRun.IngestMode.valueOf(request.getIngestMode().toUpperCase()) : ScenarioRun.IngestMode.JPA)
                 .createdAt(Instant.now())
                 .build();
 
@@ -114,6 +147,13 @@ public class SimulationController {
         return ResponseEntity.ok(ApiResponse.success(scenarioRun));
     }
 
+    @GetMapping("/runs/{id}/tick-stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR') or hasRole('VIEWER')")
+    @Operation(summary = "获取tick调度统计", description = "获取运行中仿真的实际频率、丢失tick数和抖动；回放按录制时间戳调度，没有tick统计，请使用 /runs/{id}/replay/status")
+    public ResponseEntity<ApiResponse<TickStats>> getTickStats(@PathVariable UUID id) {
+        return ResponseEntity.ok(ApiResponse.success(simulationEngine.getTickStats(id)));
+    }
+
     @GetMapping("/runs/{id}/faults")
     @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR') or hasRole('VIEWER')")
     @Operation(summary = "获取故障注入列表", description = "获取指定仿真运行的所有故障注入")
@@ -142,6 +182,7 @@ public class SimulationController {
                 .build();
 
         faultInjection = faultInjectionRepository.save(faultInjection);
+        simulationEngine.registerFaultInjection(id, faultInjection);
         log.info("Added fault injection to scenario run {}: {}", id, faultInjection.getFaultType());
 
         return ResponseEntity.ok(ApiResponse.success("故障注入添加成功", faultInjection));
@@ -164,6 +205,53 @@ public class SimulationController {
         return ResponseEntity.ok(ApiResponse.success("回放停止成功"));
     }
 
+    @GetMapping("/runs/{id}/replay/status")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR') or hasRole('VIEWER')")
+    @Operation(summary = "获取回放状态", description = "获取运行中回放的倍速、暂停状态、当前位置和调度延迟")
+    public ResponseEntity<ApiResponse<ReplayStatus>> getReplayStatus(@PathVariable UUID id) {
+        return ResponseEntity.ok(ApiResponse.success(simulationEngine.getReplayStatus(id)));
+    }
+
+    @PostMapping("/runs/{id}/replay/speed")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    @Operation(summary = "修改回放倍速", description = "修改运行中回放的倍速，从当前位置起按新倍速推进")
+    public ResponseEntity<ApiResponse<ReplayStatus>> setReplaySpeed(@PathVariable UUID id,
+                                                                    @RequestParam double speed) {
+        return ResponseEntity.ok(ApiResponse.success(simulationEngine.setReplaySpeed(id, speed)));
+    }
+
+    @PostMapping("/runs/{id}/replay/pause")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    @Operation(summary = "暂停回放", description = "暂停运行中的回放，保留当前位置")
+    public ResponseEntity<ApiResponse<ReplayStatus>> pauseReplay(@PathVariable UUID id) {
+        return ResponseEntity.ok(ApiResponse.success(simulationEngine.pauseReplay(id)));
+    }
+
+    @PostMapping("/runs/{id}/replay/resume")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    @Operation(summary = "继续回放", description = "从暂停位置继续回放")
+    public ResponseEntity<ApiResponse<ReplayStatus>> resumeReplay(@PathVariable UUID id) {
+        return ResponseEntity.ok(ApiResponse.success(simulationEngine.resumeReplay(id)));
+    }
+
+    @PostMapping("/runs/{id}/replay/seek")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    @Operation(summary = "回放跳转", description = "将运行中的回放跳转到指定的录制时刻")
+    public ResponseEntity<ApiResponse<ReplayStatus>> seekReplay(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant ts) {
+        return ResponseEntity.ok(ApiResponse.success(simulationEngine.seekReplay(id, ts)));
+    }
+
+    @PostMapping("/runs/{id}/replay/headless")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    @Operation(summary = "全速离线回放", description = "不推送、不落库地全速回放录制数据，返回指定检测参数下的告警集合和耗时")
+    public ResponseEntity<ApiResponse<HeadlessReplayResult>> headlessReplay(
+            @PathVariable UUID id,
+            @RequestBody(required = false) DetectorConfig detectorConfig) {
+        return ResponseEntity.ok(ApiResponse.success(headlessReplayService.replay(id, detectorConfig)));
+    }
+
     @GetMapping("/fault-templates")
     @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR') or hasRole('VIEWER')")
     @Operation(summary = "获取故障模板列表", description = "获取所有可用的故障注入模板")
@@ -191,34 +279,69 @@ public class SimulationController {
         return ResponseEntity.ok(ApiResponse.success(report));
     }
 
-    @GetMapping("/runs/{id}/export/csv")
+    @PostMapping("/evaluations/batch")
     @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
-    @Operation(summary = "导出CSV评测数据", description = "导出仿真运行的样本数据和告警数据为CSV格式")
-    public ResponseEntity<byte[]> exportEvaluationCsv(@PathVariable UUID id) {
-        byte[] csvData = simulationEngine.exportEvaluationCsv(id);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.TEXT_PLAIN);
-        headers.setContentDispositionFormData("attachment", "evaluation_report_" + id + ".csv");
+    @Operation(summary = "批量离线检测", description = "按运行和时间片并行重新检测录制数据，对比多组检测参数的评测结果")
+    public ResponseEntity<ApiResponse<BatchEvaluationResult>> batchEvaluate(@RequestBody BatchEvaluationRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(batchEvaluationService.evaluate(request)));
+    }
 
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(csvData);
+    @GetMapping("/runs/{id}/export/csv")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    @Operation(summary = "导出CSV评测数据", description = "按时间顺序流式导出仿真运行的样本数据，gzip=true时输出gzip压缩文件")
+    public ResponseEntity<StreamingResponseBody> exportEvaluationCsv(@PathVariable UUID id,
+                                                                     @RequestParam(defaultValue = "false") boolean gzip) {
+        evaluationExporter.requireRun(id);
+        return exportResponse("evaluation_report_" + id + ".csv", MediaType.TEXT_PLAIN, gzip,
+                out -> evaluationExporter.writeCsv(id, out));
     }
 
     @GetMapping("/runs/{id}/export/json")
     @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
-    @Operation(summary = "导出JSON评测数据", description = "导出仿真运行的完整评测数据为JSON格式")
-    public ResponseEntity<byte[]> exportEvaluationJson(@PathVariable UUID id) {
-        byte[] jsonData = simulationEngine.exportEvaluationJson(id);
+    @Operation(summary = "导出JSON评测数据", description = "流式导出仿真运行的完整评测数据，gzip=true时输出gzip压缩文件")
+    public ResponseEntity<StreamingResponseBody> exportEvaluationJson(@PathVariable UUID id,
+                                                                      @RequestParam(defaultValue = "false") boolean gzip) {
+        ScenarioRun scenarioRun = evaluationExporter.requireRun(id);
+        return exportResponse("evaluation_report_" + id + ".json", MediaType.APPLICATION_JSON, gzip,
+                out -> evaluationExporter.writeJson(scenarioRun, out));
+    }
+
+    @GetMapping("/runs/{id}/export/arrow/{table}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+    @Operation(summary = "导出列式遥测数据",
+            description = "将运行的joint_sample/pose_sample/alarm_event按列流式导出为Arrow IPC流，compression可选zstd/lz4/none")
+    public ResponseEntity<StreamingResponseBody> exportColumnar(@PathVariable UUID id, @PathVariable String table,
+                                                                @RequestParam(defaultValue = "zstd") String compression) {
+        ColumnarExporter.Table exportTable = ColumnarExporter.Table.parse(table);
+        ColumnarExporter.Compression codec = ColumnarExporter.Compression.parse(compression);
+        evaluationExporter.requireRun(id);
+        return exportResponse(exportTable.fileName() + "_" + id + ".arrows",
+                MediaType.parseMediaType("application/vnd.apache.arrow.stream"), false,
+                out -> columnarExporter.write(id, exportTable, codec, out));
+    }
 
+    /**
+     * 以分块传输返回导出数据，写出过程在异步线程中执行
+     */
+    static ResponseEntity<StreamingResponseBody> exportResponse(String filename, MediaType contentType, boolean gzip,
+                                                                StreamingResponseBody body) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setContentDispositionFormData("attachment", "evaluation_report_" + id + ".json");
+        if (gzip) {
+            headers.setContentType(MediaType.parseMediaType("application/gzip"));
+            headers.setContentDispositionFormData("attachment", filename + ".gz");
+        } else {
+            headers.setContentType(contentType);
+            headers.setContentDispositionFormData("attachment", filename);
+        }
 
+        StreamingResponseBody stream = !gzip ? body : out -> {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+            body.writeTo(gzipOut);
+            gzipOut.finish();
+        };
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(jsonData);
+                .body(stream);
     }
 
     // ==================== 数据源管理接口 ====================
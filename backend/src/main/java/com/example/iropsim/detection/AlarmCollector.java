@@ -0,0 +1,91 @@
+package com.example.iropsim.detection;
+
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.JointSample;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 离线检测的内存告警聚合
+ *
+ * <p>按与在线检测相同的去重键合并：首次命中创建告警，重复命中更新lastSeenTs、次数和最高分数，
+ * 严重程度与在线去重索引一致只升不降。不写库、不推送，也不做频率抑制。非线程安全，每个检测分区使用独立实例。</p>
+ */
+public class AlarmCollector implements SampleDetector.AnomalyListener {
+
+    private final Map<AlarmKey, DetectedAlarm> alarms = new HashMap<>();
+    private long anomalyCount;
+
+    @Override
+    public void onAnomaly(JointSample jointSample, Metric metric, DetectorType detectorType, DetectionResult result) {
+        anomalyCount++;
+        AlarmKey key = AlarmKey.of(jointSample, metric, detectorType);
+        DetectedAlarm alarm = alarms.get(key);
+        if (alarm != null) {
+            alarm.setLastSeenTs(jointSample.getTs());
+            alarm.setCount(alarm.getCount() + 1);
+            alarm.setScore(Math.max(alarm.getScore(), result.getScore()));
+            alarm.setSeverity(max(alarm.getSeverity(), AlarmEvent.Severity.valueOf(result.getSeverity())));
+            return;
+        }
+
+        alarm = new DetectedAlarm();
+        alarm.setDedupKey(key.toDedupKey());
+        alarm.setRobotId(jointSample.getRobot().getId());
+        alarm.setJointIndex(jointSample.getJointIndex());
+        alarm.setAlarmType(metric.getAlarmType());
+        alarm.setDetector(detectorType.name());
+        alarm.setSeverity(AlarmEvent.Severity.valueOf(result.getSeverity()));
+        alarm.setFirstSeenTs(jointSample.getTs());
+        alarm.setLastSeenTs(jointSample.getTs());
+        alarm.setCount(1);
+        alarm.setScore(result.getScore());
+        alarms.put(key, alarm);
+    }
+
+    /**
+     * 合并紧接在本分区之后的时间段的检测结果
+     *
+     * <p>同一去重键保留较早分区的首次时间，次数累加，最后时间取较晚分区，分数和严重程度取最大值，
+     * 按时间顺序依次合并的结果与单次顺序检测一致。</p>
+     */
+    public void mergeLater(AlarmCollector later) {
+        anomalyCount += later.anomalyCount;
+        for (Map.Entry<AlarmKey, DetectedAlarm> entry : later.alarms.entrySet()) {
+            DetectedAlarm next = entry.getValue();
+            DetectedAlarm alarm = alarms.get(entry.getKey());
+            if (alarm == null) {
+                alarms.put(entry.getKey(), next);
+                continue;
+            }
+            alarm.setLastSeenTs(next.getLastSeenTs());
+            alarm.setCount(alarm.getCount() + next.getCount());
+            alarm.setScore(Math.max(alarm.getScore(), next.getScore()));
+            alarm.setSeverity(max(alarm.getSeverity(), next.getSeverity()));
+        }
+    }
+
+    private static AlarmEvent.Severity max(AlarmEvent.Severity a, AlarmEvent.Severity b) {
+        return b.compareTo(a) > 0 ? b : a;
+    }
+
+    /**
+     * 检测器返回异常的总次数（合并前）
+     */
+    public long getAnomalyCount() {
+        return anomalyCount;
+    }
+
+    /**
+     * 合并后的告警，按首次出现时间排序
+     */
+    public List<DetectedAlarm> getAlarms() {
+        List<DetectedAlarm> result = new ArrayList<>(alarms.values());
+        result.sort(Comparator.comparing(DetectedAlarm::getFirstSeenTs).thenComparing(DetectedAlarm::getDedupKey));
+        return result;
+    }
+}
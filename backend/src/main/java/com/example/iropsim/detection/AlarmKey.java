@@ -0,0 +1,96 @@
+package com.example.iropsim.detection;
+
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.JointSample;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * 告警去重键：机器人-关节-指标-检测器
+ *
+ * <p>检测热路径和去重索引以该类型作为哈希键，只保存机器人UUID引用、关节号和两个枚举，
+ * 不格式化字符串；落库用的可读去重键由{@link #toDedupKey()}在创建或加载告警时生成。</p>
+ */
+public final class AlarmKey {
+
+    private final UUID robotId;
+    private final int jointIndex;
+    private final Metric metric;
+    private final DetectorType detector;
+    private final int hash;
+
+    public AlarmKey(UUID robotId, int jointIndex, Metric metric, DetectorType detector) {
+        this.robotId = robotId;
+        this.jointIndex = jointIndex;
+        this.metric = metric;
+        this.detector = detector;
+        this.hash = ((robotId.hashCode() * 31 + jointIndex) * 31 + metric.ordinal()) * 31 + detector.ordinal();
+    }
+
+    public static AlarmKey of(JointSample jointSample, Metric metric, DetectorType detector) {
+        return new AlarmKey(jointSample.getRobot().getId(), jointSample.getJointIndex(), metric, detector);
+    }
+
+    /**
+     * 已落库告警对应的去重键，位姿告警或未知检测器返回null
+     */
+    public static AlarmKey of(AlarmEvent alarm) {
+        Metric metric = Metric.forAlarmType(alarm.getAlarmType());
+        DetectorType detector = DetectorType.fromName(alarm.getDetector());
+        if (metric == null || detector == null || alarm.getJointIndex() == null) {
+            return null;
+        }
+        return new AlarmKey(alarm.getRobot().getId(), alarm.getJointIndex(), metric, detector);
+    }
+
+    public UUID getRobotId() {
+        return robotId;
+    }
+
+    public int getJointIndex() {
+        return jointIndex;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public DetectorType getDetector() {
+        return detector;
+    }
+
+    /**
+     * 落库用的去重键字符串，格式与历史数据一致
+     */
+    public String toDedupKey() {
+        return robotId + "-" + jointIndex + "-" + metric.name().toLowerCase(Locale.ROOT)
+                + "-" + detector.name().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AlarmKey)) {
+            return false;
+        }
+        AlarmKey other = (AlarmKey) o;
+        return hash == other.hash
+                && jointIndex == other.jointIndex
+                && metric == other.metric
+                && detector == other.detector
+                && robotId.equals(other.robotId);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toDedupKey();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.iropsim.detection;
 
+import com.example.iropsim.alarm.AlarmDedupIndex;
 import com.example.iropsim.alarm.AlarmService;
 import com.example.iropsim.entity.*;
 import com.example.iropsim.repository.AlarmEventRepository;
@@ -7,8 +8,10 @@ import com.example.iropsim.repository.RobotRepository;
 import com.example.iropsim.websocket.WebSocketEventHandler;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,25 +33,29 @@ public class AnomalyDetectionService {
     private final RobotRepository robotRepository;
     private final WebSocketEventHandler webSocketEventHandler;
     private final AlarmService alarmService;
+    private final AlarmDedupIndex alarmDedupIndex;
     private final ObjectMapper objectMapper;
 
+    // 增量检测模式：使用通道维护的窗口统计量，关闭后回退为每次复制窗口全量计算
+    @Value("${detection.incremental:true}")
+    private boolean incrementalDetection;
+
+    // 写入滑动窗口并执行检测的核心逻辑，异常交给createOrUpdateAlarm
+    private SampleDetector sampleDetector;
+
+    @PostConstruct
+    void initSampleDetector() {
+        sampleDetector = new SampleDetector(slidingWindowBuffer, thresholdDetector, zScoreDetector,
+                DetectorConfig.defaults().getMinWindowSize(), incrementalDetection);
+    }
+
     /**
      * 处理新的传感器样本并执行异常检测
      */
     @Transactional
     public void processSample(JointSample jointSample) {
-        String robotId = jointSample.getRobot().getId().toString();
-        int jointIndex = jointSample.getJointIndex();
-
-        // 添加到滑动窗口
-        slidingWindowBuffer.addSample(robotId, jointIndex, jointSample.getCurrentA(), jointSample.getTs());
-        slidingWindowBuffer.addSample(robotId, jointIndex, jointSample.getVibrationRms(), jointSample.getTs());
-        slidingWindowBuffer.addSample(robotId, jointIndex, jointSample.getTemperatureC(), jointSample.getTs());
-
-        // 对每个指标执行检测
-        detectAnomaly(jointSample, "CURRENT", jointSample.getCurrentA());
-        detectAnomaly(jointSample, "VIBRATION", jointSample.getVibrationRms());
-        detectAnomaly(jointSample, "TEMPERATURE", jointSample.getTemperatureC());
+        // 按指标分别写入滑动窗口并执行检测，各指标窗口互不干扰
+        sampleDetector.process(jointSample, this::createOrUpdateAlarm);
     }
 
     /**
@@ -71,91 +78,51 @@ public class AnomalyDetectionService {
     }
 
     /**
-     * 执行异常检测
+     * 创建或更新告警事件
+     *
+     * <p>已知去重键的重复命中只在去重索引中合并，由索引按刷新间隔批量写回；
+     * 只有数据库中也不存在的告警才在当前事务中创建。</p>
      */
-    private void detectAnomaly(JointSample jointSample, String metricType, double value) {
-        String robotId = jointSample.getRobot().getId().toString();
-        int jointIndex = jointSample.getJointIndex();
+    private void createOrUpdateAlarm(JointSample jointSample, Metric metric,
+                                   DetectorType detectorType, DetectionResult detectionResult) {
+        AlarmKey key = AlarmKey.of(jointSample, metric, detectorType);
+        AlarmEvent.Severity severity = AlarmEvent.Severity.valueOf(detectionResult.getSeverity());
 
-        // 获取滑动窗口内的历史数据
-        List<Double> historicalValues = slidingWindowBuffer.getValuesInWindow(robotId, jointIndex, jointSample.getTs());
+        AlarmDedupIndex.Outcome outcome = alarmDedupIndex.record(key, jointSample.getTs(), severity,
+                detectionResult.getScore(),
+                () -> createAlarm(jointSample, metric, detectorType, key, severity, detectionResult));
 
-        if (historicalValues.size() < 10) {
-            return; // 数据不足，跳过检测
-        }
-
-        // 使用阈值检测器
-        DetectionResult thresholdResult = thresholdDetector.detect(historicalValues);
-        if (thresholdResult.isAnomaly()) {
-            createOrUpdateAlarm(jointSample, metricType, "THRESHOLD", thresholdResult);
-        }
-
-        // 使用Z-Score检测器
-        DetectionResult zScoreResult = zScoreDetector.detect(historicalValues);
-        if (zScoreResult.isAnomaly()) {
-            createOrUpdateAlarm(jointSample, metricType, "Z_SCORE", zScoreResult);
+        if (outcome != AlarmDedupIndex.Outcome.CREATED) {
+            log.debug("Alarm event {}: {} - score: {}", outcome, key, detectionResult.getScore());
         }
     }
 
     /**
-     * 创建或更新告警事件
+     * 创建新告警：检查频率抑制、落库并推送
      */
-    private void createOrUpdateAlarm(JointSample jointSample, String metricType,
-                                   String detectorType, DetectionResult detectionResult) {
-        String robotId = jointSample.getRobot().getId().toString();
-        int jointIndex = jointSample.getJointIndex();
-
-        // 生成去重键
-        String dedupKey = String.format("%s-%d-%s-%s",
-            robotId, jointIndex, metricType.toLowerCase(), detectorType.toLowerCase());
-
-        // 查找现有告警
-        Optional<AlarmEvent> existingAlarm = alarmEventRepository.findByDedupKey(dedupKey);
-
-        AlarmEvent alarmEvent;
-        boolean isNew = false;
-
-        if (existingAlarm.isPresent()) {
-            // 更新现有告警
-            alarmEvent = existingAlarm.get();
-            alarmEvent.setLastSeenTs(jointSample.getTs());
-            alarmEvent.setCount(alarmEvent.getCount() + 1);
-            alarmEvent.setScore(Math.max(alarmEvent.getScore(), detectionResult.getScore()));
-            alarmEvent.setUpdatedAt(Instant.now());
-        } else {
-            // 创建新告警
-            isNew = true;
-            String alarmType = getAlarmType(metricType);
-
-            alarmEvent = AlarmEvent.builder()
-                    .firstSeenTs(jointSample.getTs())
-                    .lastSeenTs(jointSample.getTs())
-                    .robot(jointSample.getRobot())
-                    .jointIndex(jointIndex)
-                    .alarmType(AlarmEvent.AlarmType.valueOf(alarmType))
-                    .severity(AlarmEvent.Severity.valueOf(detectionResult.getSeverity()))
-                    .status(AlarmEvent.Status.OPEN)
-                    .dedupKey(dedupKey)
-                    .count(1)
-                    .detector(detectorType)
-                    .score(detectionResult.getScore())
-                    .evidence(objectMapper.valueToTree(detectionResult.getEvidence()))
-                    .scenarioRun(jointSample.getScenarioRun())
-                    .createdAt(Instant.now())
-                    .updatedAt(Instant.now())
-                    .build();
-        }
-
-        // 检查是否应该抑制告警
-        boolean shouldSuppress = false;
-        if (isNew) {
-            shouldSuppress = alarmService.shouldSuppressAlarm(alarmEvent);
-        }
-
-        // 如果需要抑制，更新告警状态
-        if (shouldSuppress) {
-            alarmService.updateAlarmSuppression(alarmEvent, true);
-        }
+    private AlarmEvent createAlarm(JointSample jointSample, Metric metric, DetectorType detectorType, AlarmKey key,
+                                   AlarmEvent.Severity severity, DetectionResult detectionResult) {
+        AlarmEvent alarmEvent = AlarmEvent.builder()
+                .firstSeenTs(jointSample.getTs())
+                .lastSeenTs(jointSample.getTs())
+                .robot(jointSample.getRobot())
+                .jointIndex(jointSample.getJointIndex())
+                .alarmType(metric.getAlarmType())
+                .severity(severity)
+                .status(AlarmEvent.Status.OPEN)
+                .dedupKey(key.toDedupKey())
+                .count(1)
+                .detector(detectorType.name())
+                .score(detectionResult.getScore())
+                .evidence(objectMapper.valueToTree(detectionResult.getEvidence()))
+                .scenarioRun(jointSample.getScenarioRun())
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+
+        // 检查是否应该抑制告警，抑制状态随告警一次写入
+        boolean shouldSuppress = alarmService.shouldSuppressAlarm(alarmEvent);
+        alarmEvent.setSuppressed(shouldSuppress);
 
         alarmEvent = alarmEventRepository.save(alarmEvent);
 
@@ -164,24 +131,12 @@ public class AnomalyDetectionService {
             webSocketEventHandler.pushAlarmEvent(alarmEvent);
         }
 
-        log.info("Alarm event {}: {} - {} - score: {} - suppressed: {}",
-            isNew ? "created" : "updated",
+        log.info("Alarm event created: {} - {} - score: {} - suppressed: {}",
             alarmEvent.getAlarmType(),
             alarmEvent.getSeverity(),
             alarmEvent.getScore(),
             shouldSuppress);
-    }
-
-    /**
-     * 根据指标类型获取告警类型
-     */
-    private String getAlarmType(String metricType) {
-        switch (metricType) {
-            case "CURRENT": return "CURRENT_ANOMALY";
-            case "VIBRATION": return "VIB_ANOMALY";
-            case "TEMPERATURE": return "TEMP_ANOMALY";
-            default: return "UNKNOWN_ANOMALY";
-        }
+        return alarmEvent;
     }
 
     private String convertEvidenceToString(Object evidence) {
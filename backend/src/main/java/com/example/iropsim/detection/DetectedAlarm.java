@@ -0,0 +1,29 @@
+package com.example.iropsim.detection;
+
+import com.example.iropsim.entity.AlarmEvent;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 离线检测得到的告警（不落库）
+ *
+ * <p>字段与{@link AlarmEvent}对应，按去重键合并后的结果。</p>
+ */
+@Data
+@NoArgsConstructor
+public class DetectedAlarm {
+
+    private String dedupKey;
+    private UUID robotId;
+    private int jointIndex;
+    private AlarmEvent.AlarmType alarmType;
+    private String detector;
+    private AlarmEvent.Severity severity;
+    private Instant firstSeenTs;
+    private Instant lastSeenTs;
+    private int count;
+    private double score;
+}
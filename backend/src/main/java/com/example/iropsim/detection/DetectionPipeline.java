@@ -0,0 +1,247 @@
+package com.example.iropsim.detection;
+
+import com.example.iropsim.config.OverflowPolicy;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 异步检测流水线
+ *
+ * <p>仿真tick和回放线程只把样本放入检测队列，由独立检测线程调用{@link AnomalyDetectionService}，
+ * 告警写库变慢时不再拖慢下一次数据生成。队列按机器人分区，同一机器人的样本始终进入同一分区、
+ * 由同一线程按提交顺序处理，各关节滑动窗口的样本顺序与同步检测一致；不同机器人并行检测。</p>
+ *
+ * <p>背压策略（{@link OverflowPolicy}）与{@link com.example.iropsim.telemetry.SampleIngestService}相同：BLOCK时提交线程等待，
+ * DROP时丢弃本次样本并计数。</p>
+ *
+ * <p>队列深度、排队延迟（lag）、单帧检测耗时和入队/处理/丢弃/失败数量通过Micrometer暴露，
+ * 可在 {@code /actuator/metrics/iropsim.detection.*} 查看。</p>
+ */
+@Slf4j
+@Service
+public class DetectionPipeline {
+
+    private final Consumer<JointSample> jointProcessor;
+    private final Consumer<PoseSample> poseProcessor;
+    private final Partition[] partitions;
+    private final OverflowPolicy overflowPolicy;
+    private final long pollIntervalMs;
+
+    private final Counter enqueuedCounter;
+    private final Counter processedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer blockedTimer;
+    private final Timer lagTimer;
+    private final Timer processTimer;
+
+    private volatile boolean running;
+
+    @Autowired
+    public DetectionPipeline(AnomalyDetectionService anomalyDetectionService,
+                             MeterRegistry meterRegistry,
+                             @Value("${detection.worker-parallelism:0}") int parallelism,
+                             @Value("${detection.queue-capacity:10000}") int queueCapacity,
+                             @Value("${detection.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy) {
+        this(anomalyDetectionService::processSample, anomalyDetectionService::processSample, meterRegistry,
+                parallelism, queueCapacity, overflowPolicy, 200);
+    }
+
+    DetectionPipeline(Consumer<JointSample> jointProcessor,
+                      Consumer<PoseSample> poseProcessor,
+                      MeterRegistry meterRegistry,
+                      int parallelism,
+                      int queueCapacity,
+                      OverflowPolicy overflowPolicy,
+                      long pollIntervalMs) {
+        this.jointProcessor = jointProcessor;
+        this.poseProcessor = poseProcessor;
+        this.overflowPolicy = overflowPolicy;
+        this.pollIntervalMs = pollIntervalMs;
+
+        int size = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        // 总容量平均分给各分区
+        int partitionCapacity = Math.max(1, (queueCapacity + size - 1) / size);
+        this.partitions = new Partition[size];
+        for (int i = 0; i < size; i++) {
+            partitions[i] = new Partition(i, partitionCapacity);
+        }
+
+        Gauge.builder("iropsim.detection.queue.depth", this, DetectionPipeline::getQueueDepth)
+                .description("Robot frames waiting for anomaly detection")
+                .register(meterRegistry);
+        this.enqueuedCounter = meterRegistry.counter("iropsim.detection.samples.enqueued");
+        this.processedCounter = meterRegistry.counter("iropsim.detection.samples.processed");
+        this.droppedCounter = meterRegistry.counter("iropsim.detection.samples.dropped");
+        this.failedCounter = meterRegistry.counter("iropsim.detection.samples.failed");
+        this.blockedTimer = meterRegistry.timer("iropsim.detection.enqueue.blocked");
+        this.lagTimer = Timer.builder("iropsim.detection.lag")
+                .description("Time a robot frame waits in the detection queue")
+                .register(meterRegistry);
+        this.processTimer = meterRegistry.timer("iropsim.detection.process");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (Partition partition : partitions) {
+            partition.thread = new Thread(partition::processLoop, "anomaly-detector-" + partition.index);
+            partition.thread.setDaemon(true);
+            partition.thread.start();
+        }
+        log.info("Detection pipeline started (parallelism={}, overflowPolicy={})", partitions.length, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        // 检测线程最多在一个轮询间隔后感知停止标志，并处理完分区中剩余的样本
+        for (Partition partition : partitions) {
+            if (partition.thread == null) {
+                continue;
+            }
+            try {
+                partition.thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("Detection pipeline stopped, {} frame(s) left in queue", getQueueDepth());
+    }
+
+    /**
+     * 提交一个机器人同一时刻的样本
+     *
+     * @param robotId 分区依据，同一机器人的样本按提交顺序检测
+     * @param jointSamples 各关节样本
+     * @param poseSample 位姿样本，可为null
+     */
+    public void submit(UUID robotId, List<JointSample> jointSamples, PoseSample poseSample) {
+        DetectionItem item = new DetectionItem(jointSamples, poseSample, System.nanoTime());
+        int sampleCount = item.sampleCount();
+        BlockingQueue<DetectionItem> queue = partitions[Math.floorMod(robotId.hashCode(), partitions.length)].queue;
+
+        if (!queue.offer(item)) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                droppedCounter.increment(sampleCount);
+                log.debug("Detection queue full, dropped {} sample(s) of robot {}", sampleCount, robotId);
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                queue.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCounter.increment(sampleCount);
+                return;
+            } finally {
+                blockedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+        enqueuedCounter.increment(sampleCount);
+    }
+
+    /**
+     * 当前各分区排队等待检测的帧数之和
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Partition partition : partitions) {
+            depth += partition.queue.size();
+        }
+        return depth;
+    }
+
+    private void process(DetectionItem item) {
+        lagTimer.record(System.nanoTime() - item.enqueuedNanos, TimeUnit.NANOSECONDS);
+        long start = System.nanoTime();
+        for (JointSample jointSample : item.jointSamples) {
+            try {
+                jointProcessor.accept(jointSample);
+                processedCounter.increment();
+            } catch (Exception e) {
+                failedCounter.increment();
+                log.error("Failed to detect anomalies for joint sample of robot {}: {}",
+                        jointSample.getRobot().getId(), e.getMessage());
+            }
+        }
+        if (item.poseSample != null) {
+            try {
+                poseProcessor.accept(item.poseSample);
+                processedCounter.increment();
+            } catch (Exception e) {
+                // 位姿检测失败只记录错误，不影响关节检测
+                failedCounter.increment();
+                log.error("Failed to process pose sample for robot {}: {}",
+                        item.poseSample.getRobot().getId(), e.getMessage());
+            }
+        }
+        processTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 检测分区：一个有界队列和独占的检测线程
+     */
+    private final class Partition {
+        final int index;
+        final BlockingQueue<DetectionItem> queue;
+        Thread thread;
+
+        Partition(int index, int capacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void processLoop() {
+            while (running || !queue.isEmpty()) {
+                DetectionItem item;
+                try {
+                    item = queue.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    // 关闭时被中断，继续把剩余样本处理完
+                    item = queue.poll();
+                }
+                if (item != null) {
+                    process(item);
+                }
+            }
+        }
+    }
+
+    /**
+     * 队列元素：一个机器人同一时刻的样本
+     */
+    private static class DetectionItem {
+        final List<JointSample> jointSamples;
+        final PoseSample poseSample;
+        final long enqueuedNanos;
+
+        DetectionItem(List<JointSample> jointSamples, PoseSample poseSample, long enqueuedNanos) {
+            this.jointSamples = jointSamples;
+            this.poseSample = poseSample;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+
+        int sampleCount() {
+            return jointSamples.size() + (poseSample != null ? 1 : 0);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 /**
  * 异常检测器接口
+ * 每次检测都需要装箱的值列表，热路径请使用{@link PrimitiveDetector}
  */
 public interface Detector<T> {
 
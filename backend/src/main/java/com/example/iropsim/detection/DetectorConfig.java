@@ -0,0 +1,46 @@
+package com.example.iropsim.detection;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 检测器参数
+ *
+ * <p>默认值与在线检测使用的参数一致，离线回放时可传入候选参数评估检测器改动。</p>
+ */
+@Data
+@NoArgsConstructor
+public class DetectorConfig {
+
+    // 阈值检测的上下阈值
+    private double thresholdLower = 3.0;
+    private double thresholdUpper = 80.0;
+
+    // Z-Score检测阈值
+    private double zScoreThreshold = 3.0;
+
+    // 窗口内样本数少于该值时跳过检测
+    private int minWindowSize = 10;
+
+    private boolean thresholdEnabled = true;
+    private boolean zScoreEnabled = true;
+
+    public static DetectorConfig defaults() {
+        return new DetectorConfig();
+    }
+
+    /**
+     * 校验参数，不合法时抛出IllegalArgumentException
+     */
+    public void validate() {
+        if (thresholdLower >= thresholdUpper) {
+            throw new IllegalArgumentException("thresholdLower must be less than thresholdUpper");
+        }
+        if (!(zScoreThreshold > 0)) {
+            throw new IllegalArgumentException("zScoreThreshold must be positive");
+        }
+        if (minWindowSize < 1) {
+            throw new IllegalArgumentException("minWindowSize must be at least 1");
+        }
+    }
+}
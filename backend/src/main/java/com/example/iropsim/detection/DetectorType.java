@@ -0,0 +1,24 @@
+package com.example.iropsim.detection;
+
+/**
+ * 告警检测器类型，名称即告警的detector字段值
+ */
+public enum DetectorType {
+
+    THRESHOLD,
+    Z_SCORE;
+
+    private static final DetectorType[] VALUES = values();
+
+    /**
+     * 按detector字段值解析，未知值返回null
+     */
+    public static DetectorType fromName(String name) {
+        for (DetectorType type : VALUES) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.iropsim.detection;
+
+/**
+ * 基于double[]片段的窗口视图
+ * 可重复使用：每个处理线程持有一个实例，每次检测前重新指向新的数据片段
+ */
+public final class DoubleArrayWindow implements WindowView {
+
+    private double[] values = new double[0];
+    private int from;
+    private int length;
+
+    public DoubleArrayWindow() {
+    }
+
+    public DoubleArrayWindow(double[] values) {
+        wrap(values, 0, values.length);
+    }
+
+    /**
+     * 指向values[from, from + length)
+     */
+    public DoubleArrayWindow wrap(double[] values, int from, int length) {
+        if (from < 0 || length < 0 || from + length > values.length) {
+            throw new IllegalArgumentException("Invalid slice [" + from + ", " + (from + length)
+                    + ") of array length " + values.length);
+        }
+        this.values = values;
+        this.from = from;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * 把通道窗口内的数据复制到自身数组（容量不足时扩容）
+     */
+    public DoubleArrayWindow copyFrom(MetricChannel channel, long windowStartMillis) {
+        int required = channel.size();
+        if (values.length < required) {
+            values = new double[Math.max(required, values.length * 2)];
+        }
+        from = 0;
+        length = channel.copyWindow(windowStartMillis, values);
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    @Override
+    public double valueAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + length);
+        }
+        return values[from + index];
+    }
+}
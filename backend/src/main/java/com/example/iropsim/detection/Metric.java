@@ -0,0 +1,61 @@
+package com.example.iropsim.detection;
+
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.JointSample;
+
+/**
+ * 关节检测指标
+ * 每个指标在滑动窗口中拥有独立通道，互不干扰
+ */
+public enum Metric {
+
+    CURRENT(AlarmEvent.AlarmType.CURRENT_ANOMALY),
+    VIBRATION(AlarmEvent.AlarmType.VIB_ANOMALY),
+    TEMPERATURE(AlarmEvent.AlarmType.TEMP_ANOMALY);
+
+    private static final Metric[] VALUES = values();
+
+    private final AlarmEvent.AlarmType alarmType;
+
+    Metric(AlarmEvent.AlarmType alarmType) {
+        this.alarmType = alarmType;
+    }
+
+    /**
+     * 该指标异常对应的告警类型
+     */
+    public AlarmEvent.AlarmType getAlarmType() {
+        return alarmType;
+    }
+
+    /**
+     * 从关节样本中取出该指标的值
+     */
+    public double extract(JointSample sample) {
+        switch (this) {
+            case CURRENT: return sample.getCurrentA();
+            case VIBRATION: return sample.getVibrationRms();
+            case TEMPERATURE: return sample.getTemperatureC();
+            default: throw new IllegalStateException("Unknown metric: " + this);
+        }
+    }
+
+    /**
+     * 告警类型对应的指标，没有对应指标（如位姿告警）时返回null
+     */
+    public static Metric forAlarmType(AlarmEvent.AlarmType alarmType) {
+        for (Metric metric : VALUES) {
+            if (metric.alarmType == alarmType) {
+                return metric;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 缓存的枚举数组，避免每次调用values()复制
+     */
+    public static Metric[] all() {
+        return VALUES;
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.iropsim.detection;
+
+/**
+ * 单个(robot, joint, metric)通道的环形缓冲区
+ *
+ * <p>值和时间戳分别保存在预分配的double[]/long[]环形数组中（容量为2的幂，写满时翻倍），
+ * 写入时按样本时间淘汰超出保留时长的旧数据。读取方法直接在数组上计算，不产生装箱和临时集合。</p>
+ *
+ * <p>时间戳假定按写入顺序非递减，窗口起点用二分查找定位。
+ * 所有公开方法在通道自身上同步，同一通道的读写通常来自同一个机器人的处理线程，锁基本无竞争。</p>
+ *
+ * <p>通道同时维护以最新样本为终点的检测窗口的增量统计（Welford算法）：
+ * 样本进入窗口时累加，滑出窗口时扣除，均值/方差读取为O(1)，与窗口长度和采样率无关。
+ * 为抑制长期运行的浮点误差累积，每滑出{@value #RECOMPUTE_INTERVAL}个样本按窗口精确重算一次。</p>
+ */
+public class MetricChannel {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 64;
+
+    static final int RECOMPUTE_INTERVAL = 4096;
+
+    private final long windowMillis;
+    private final long retentionMillis;
+
+    private double[] values;
+    private long[] timestamps;
+    private int mask;
+    private int head;
+    private int size;
+
+    // 增量窗口统计：windowOffset为窗口首个样本相对head的逻辑下标
+    private int windowOffset;
+    private int windowCount;
+    private double windowMean;
+    private double windowM2;
+    private int removalsSinceRecompute;
+
+    private final WindowView window = new IncrementalWindow();
+
+    public MetricChannel(long windowMillis, long retentionMillis) {
+        this(windowMillis, retentionMillis, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public MetricChannel(long windowMillis, long retentionMillis, int initialCapacity) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("windowMillis must be positive");
+        }
+        if (retentionMillis < windowMillis) {
+            throw new IllegalArgumentException("retentionMillis must not be shorter than windowMillis");
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, initialCapacity) - 1) << 1;
+        this.windowMillis = windowMillis;
+        this.retentionMillis = retentionMillis;
+        this.values = new double[capacity];
+        this.timestamps = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 追加样本，并淘汰早于 (timestampMillis - 保留时长) 的数据
+     */
+    public synchronized void add(double value, long timestampMillis) {
+        evictBefore(timestampMillis - retentionMillis);
+        if (size == values.length) {
+            grow();
+        }
+        int tail = (head + size) & mask;
+        values[tail] = value;
+        timestamps[tail] = timestampMillis;
+        size++;
+
+        addToWindow(value);
+        slideWindow(timestampMillis - windowMillis);
+    }
+
+    /**
+     * 增量窗口内的样本数（时间戳晚于 最新样本时间 - 窗口长度）
+     */
+    public synchronized int windowCount() {
+        return windowCount;
+    }
+
+    /**
+     * 增量窗口均值
+     */
+    public synchronized double windowMean() {
+        return windowCount > 0 ? windowMean : 0.0;
+    }
+
+    /**
+     * 增量窗口总体方差
+     */
+    public synchronized double windowVariance() {
+        return windowCount > 0 ? Math.max(0.0, windowM2 / windowCount) : 0.0;
+    }
+
+    /**
+     * 增量窗口总体标准差
+     */
+    public synchronized double windowStdDev() {
+        return Math.sqrt(windowVariance());
+    }
+
+    /**
+     * 增量窗口视图，均值/标准差直接取维护好的统计量。视图随通道更新，不是快照
+     */
+    public WindowView window() {
+        return window;
+    }
+
+    /**
+     * 最新写入的值，通道为空时抛出异常
+     */
+    public synchronized double latestValue() {
+        if (size == 0) {
+            throw new IllegalStateException("Channel is empty");
+        }
+        return values[(head + size - 1) & mask];
+    }
+
+    /**
+     * 当前保存的样本数（含窗口外但尚未淘汰的数据）
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 按逻辑下标读取值，0为最旧的样本
+     */
+    public synchronized double valueAt(int index) {
+        checkIndex(index);
+        return values[(head + index) & mask];
+    }
+
+    /**
+     * 按逻辑下标读取时间戳（毫秒）
+     */
+    public synchronized long timestampAt(int index) {
+        checkIndex(index);
+        return timestamps[(head + index) & mask];
+    }
+
+    /**
+     * 窗口起点：第一个时间戳晚于windowStartMillis的逻辑下标，没有则返回size()
+     */
+    public synchronized int windowStart(long windowStartMillis) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[(head + mid) & mask] > windowStartMillis) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 时间戳晚于windowStartMillis的样本数
+     */
+    public synchronized int countInWindow(long windowStartMillis) {
+        return size - windowStart(windowStartMillis);
+    }
+
+    /**
+     * 把窗口内的值按时间顺序复制到dst，超出dst长度时只保留最新的部分
+     *
+     * @return 复制的样本数
+     */
+    public synchronized int copyWindow(long windowStartMillis, double[] dst) {
+        int from = windowStart(windowStartMillis);
+        int count = Math.min(size - from, dst.length);
+        from = size - count;
+        for (int i = 0; i < count; i++) {
+            dst[i] = values[(head + from + i) & mask];
+        }
+        return count;
+    }
+
+    /**
+     * 计算窗口内的统计信息，一次遍历，不分配中间集合
+     */
+    public synchronized SlidingWindowBuffer.BufferStats stats(long windowStartMillis) {
+        int from = windowStart(windowStartMillis);
+        int count = size - from;
+        if (count == 0) {
+            return new SlidingWindowBuffer.BufferStats(0, 0.0, 0.0, 0.0, 0.0);
+        }
+        double sum = 0.0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < size; i++) {
+            double v = values[(head + i) & mask];
+            sum += v;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        double mean = sum / count;
+        double squares = 0.0;
+        for (int i = from; i < size; i++) {
+            double d = values[(head + i) & mask] - mean;
+            squares += d * d;
+        }
+        return new SlidingWindowBuffer.BufferStats(count, mean, Math.sqrt(squares / count), min, max);
+    }
+
+    private void evictBefore(long cutoffMillis) {
+        while (size > 0 && timestamps[head] < cutoffMillis) {
+            if (windowOffset == 0) {
+                // 保留时长不短于窗口，正常情况下被淘汰的样本早已滑出窗口
+                removeFromWindow(values[head]);
+            } else {
+                windowOffset--;
+            }
+            head = (head + 1) & mask;
+            size--;
+        }
+    }
+
+    private void slideWindow(long windowStartMillis) {
+        while (windowOffset < size && timestamps[(head + windowOffset) & mask] <= windowStartMillis) {
+            removeFromWindow(values[(head + windowOffset) & mask]);
+            windowOffset++;
+        }
+        if (removalsSinceRecompute >= RECOMPUTE_INTERVAL) {
+            recomputeWindow();
+        }
+    }
+
+    private void addToWindow(double value) {
+        windowCount++;
+        double delta = value - windowMean;
+        windowMean += delta / windowCount;
+        windowM2 += delta * (value - windowMean);
+    }
+
+    private void removeFromWindow(double value) {
+        removalsSinceRecompute++;
+        if (windowCount <= 1) {
+            windowCount = 0;
+            windowMean = 0.0;
+            windowM2 = 0.0;
+            return;
+        }
+        windowCount--;
+        double delta = value - windowMean;
+        windowMean -= delta / windowCount;
+        windowM2 -= delta * (value - windowMean);
+    }
+
+    /**
+     * 按窗口内样本精确重算统计量
+     */
+    private void recomputeWindow() {
+        windowCount = 0;
+        windowMean = 0.0;
+        windowM2 = 0.0;
+        for (int i = windowOffset; i < size; i++) {
+            addToWindow(values[(head + i) & mask]);
+        }
+        removalsSinceRecompute = 0;
+    }
+
+    private void grow() {
+        int capacity = values.length << 1;
+        double[] newValues = new double[capacity];
+        long[] newTimestamps = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            newValues[i] = values[(head + i) & mask];
+            newTimestamps[i] = timestamps[(head + i) & mask];
+        }
+        values = newValues;
+        timestamps = newTimestamps;
+        mask = capacity - 1;
+        head = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * 增量窗口视图
+     */
+    private class IncrementalWindow implements WindowView {
+
+        @Override
+        public int size() {
+            return windowCount();
+        }
+
+        @Override
+        public double valueAt(int index) {
+            synchronized (MetricChannel.this) {
+                if (index < 0 || index >= windowCount) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + windowCount);
+                }
+                return values[(head + windowOffset + index) & mask];
+            }
+        }
+
+        @Override
+        public double latest() {
+            return latestValue();
+        }
+
+        @Override
+        public double mean() {
+            return windowMean();
+        }
+
+        @Override
+        public double stdDev() {
+            return windowStdDev();
+        }
+    }
+}
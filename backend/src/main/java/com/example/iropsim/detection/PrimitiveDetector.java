@@ -0,0 +1,20 @@
+package com.example.iropsim.detection;
+
+/**
+ * 基于原始类型窗口视图的异常检测器接口
+ * 直接读取{@link WindowView}，检测过程中不装箱、不复制窗口数据
+ */
+public interface PrimitiveDetector {
+
+    /**
+     * 执行异常检测
+     * @param window 待检测的窗口，最后一个值为最新样本
+     * @return 检测结果
+     */
+    DetectionResult detect(WindowView window);
+
+    /**
+     * 获取检测器类型
+     */
+    String getType();
+}
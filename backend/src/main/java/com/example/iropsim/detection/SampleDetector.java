@@ -0,0 +1,104 @@
+package com.example.iropsim.detection;
+
+import com.example.iropsim.entity.JointSample;
+
+import java.util.UUID;
+
+/**
+ * 单个关节样本的检测核心
+ *
+ * <p>将样本各指标写入滑动窗口，再在各指标窗口上执行阈值和Z-Score检测，检测到异常时回调监听器。
+ * 在线检测（{@link AnomalyDetectionService}）与离线回放共用该逻辑：在线检测共享全局滑动窗口，
+ * 离线回放为每次运行创建独立实例，窗口状态互不影响。</p>
+ */
+public class SampleDetector {
+
+    /**
+     * 异常回调
+     */
+    @FunctionalInterface
+    public interface AnomalyListener {
+        void onAnomaly(JointSample jointSample, Metric metric, DetectorType detectorType, DetectionResult result);
+    }
+
+    private final SlidingWindowBuffer slidingWindowBuffer;
+    private final ThresholdDetector thresholdDetector;
+    private final ZScoreDetector zScoreDetector;
+    private final int minWindowSize;
+    private final boolean incremental;
+
+    // 精确模式下每个处理线程复用的窗口数组
+    private final ThreadLocal<DoubleArrayWindow> exactWindows = ThreadLocal.withInitial(DoubleArrayWindow::new);
+
+    /**
+     * @param thresholdDetector 为null时不执行阈值检测
+     * @param zScoreDetector    为null时不执行Z-Score检测
+     * @param incremental       使用通道维护的窗口统计量，false时每次复制窗口全量计算
+     */
+    public SampleDetector(SlidingWindowBuffer slidingWindowBuffer, ThresholdDetector thresholdDetector,
+                          ZScoreDetector zScoreDetector, int minWindowSize, boolean incremental) {
+        this.slidingWindowBuffer = slidingWindowBuffer;
+        this.thresholdDetector = thresholdDetector;
+        this.zScoreDetector = zScoreDetector;
+        this.minWindowSize = minWindowSize;
+        this.incremental = incremental;
+    }
+
+    /**
+     * 按参数创建使用独立滑动窗口的检测核心
+     */
+    public static SampleDetector create(DetectorConfig config) {
+        config.validate();
+        ThresholdDetector threshold = config.isThresholdEnabled()
+                ? new ThresholdDetector(new ThresholdDetector.ThresholdConfig(
+                        config.getThresholdLower(), config.getThresholdUpper(), 0.8, 3.0))
+                : null;
+        ZScoreDetector zScore = config.isZScoreEnabled() ? new ZScoreDetector(config.getZScoreThreshold()) : null;
+        return new SampleDetector(new SlidingWindowBuffer(), threshold, zScore, config.getMinWindowSize(), true);
+    }
+
+    /**
+     * 写入样本并检测，各指标窗口互不干扰
+     */
+    public void process(JointSample jointSample, AnomalyListener listener) {
+        UUID robotId = jointSample.getRobot().getId();
+        int jointIndex = jointSample.getJointIndex();
+
+        for (Metric metric : Metric.all()) {
+            slidingWindowBuffer.addSample(robotId, jointIndex, metric, metric.extract(jointSample), jointSample.getTs());
+        }
+        for (Metric metric : Metric.all()) {
+            detect(jointSample, robotId, jointIndex, metric, listener);
+        }
+    }
+
+    private void detect(JointSample jointSample, UUID robotId, int jointIndex, Metric metric,
+                        AnomalyListener listener) {
+        MetricChannel channel = slidingWindowBuffer.channel(robotId, jointIndex, metric);
+        WindowView window = incremental
+                // 增量模式：直接使用通道维护的窗口统计量，不复制窗口数据
+                ? channel.window()
+                // 精确模式：复制到线程复用的数组后全量计算
+                : exactWindows.get().copyFrom(channel, SlidingWindowBuffer.windowStartMillis(jointSample.getTs()));
+
+        if (window.size() < minWindowSize) {
+            return; // 数据不足，跳过检测
+        }
+
+        // 阈值检测结果
+        if (thresholdDetector != null) {
+            DetectionResult thresholdResult = thresholdDetector.detect(window);
+            if (thresholdResult.isAnomaly()) {
+                listener.onAnomaly(jointSample, metric, DetectorType.THRESHOLD, thresholdResult);
+            }
+        }
+
+        // Z-Score检测结果
+        if (zScoreDetector != null) {
+            DetectionResult zScoreResult = zScoreDetector.detect(window);
+            if (zScoreResult.isAnomaly()) {
+                listener.onAnomaly(jointSample, metric, DetectorType.Z_SCORE, zScoreResult);
+            }
+        }
+    }
+}
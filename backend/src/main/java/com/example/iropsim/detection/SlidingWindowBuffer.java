@@ -3,13 +3,16 @@ package com.example.iropsim.detection;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * 滑动窗口缓冲区
- * 按(robotId, jointIndex)维度维护最近一段时间的样本数据
+ * 按(robotId, jointIndex, metric)维度维护最近一段时间的样本数据，
+ * 每个维度对应一个{@link MetricChannel}环形数组通道
  */
 @Slf4j
 @Component
@@ -18,95 +21,137 @@ public class SlidingWindowBuffer {
     // 窗口大小（秒）
     private static final int WINDOW_SIZE_SECONDS = 60;
 
-    // 缓冲区：robotId -> jointIndex -> 时间排序的样本列表
-    private final Map<String, Map<Integer, Deque<TimestampedValue>>> buffers = new ConcurrentHashMap<>();
+    private static final long WINDOW_SIZE_MILLIS = WINDOW_SIZE_SECONDS * 1000L;
+
+    // 保留双倍窗口时间
+    private static final long RETENTION_MILLIS = WINDOW_SIZE_MILLIS * 2;
+
+    // 缓冲区：robotId -> jointIndex -> 各指标通道，按UUID查找，检测热路径不必为每个样本生成字符串
+    private final Map<UUID, Map<Integer, JointChannels>> buffers = new ConcurrentHashMap<>();
 
     /**
-     * 添加样本到缓冲区
+     * 添加指定指标的样本到缓冲区
      */
-    public void addSample(String robotId, int jointIndex, double value, Instant timestamp) {
-        String key = robotId;
-        buffers.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
-               .computeIfAbsent(jointIndex, k -> new LinkedList<>())
-               .addLast(new TimestampedValue(value, timestamp));
-
-        // 清理过期数据
-        cleanupExpiredData(key, jointIndex);
+    public void addSample(UUID robotId, int jointIndex, Metric metric, double value, Instant timestamp) {
+        channel(robotId, jointIndex, metric).add(value, timestamp.toEpochMilli());
     }
 
     /**
-     * 获取指定时间窗口内的样本值
+     * 添加样本到缓冲区（不区分指标）
+     *
+     * <p>等同于metric为null，所有值进入同一个不分指标的通道。同一关节有多个指标时
+     * 请使用{@link #addSample(UUID, int, Metric, double, Instant)}，否则不同指标会混入同一窗口。</p>
      */
-    public List<Double> getValuesInWindow(String robotId, int jointIndex, Instant currentTime) {
-        String key = robotId;
-        Map<Integer, Deque<TimestampedValue>> robotBuffers = buffers.get(key);
-        if (robotBuffers == null) {
-            return Collections.emptyList();
-        }
-
-        Deque<TimestampedValue> jointBuffer = robotBuffers.get(jointIndex);
-        if (jointBuffer == null) {
-            return Collections.emptyList();
-        }
+    public void addSample(UUID robotId, int jointIndex, double value, Instant timestamp) {
+        addSample(robotId, jointIndex, null, value, timestamp);
+    }
 
-        Instant windowStart = currentTime.minusSeconds(WINDOW_SIZE_SECONDS);
+    /**
+     * 获取通道，不存在时创建。检测热路径可直接在通道上读取，避免装箱
+     */
+    public MetricChannel channel(UUID robotId, int jointIndex, Metric metric) {
+        return buffers.computeIfAbsent(robotId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(jointIndex, k -> new JointChannels())
+                .get(metric);
+    }
 
-        List<Double> values = new ArrayList<>();
-        for (TimestampedValue tv : jointBuffer) {
-            if (tv.timestamp.isAfter(windowStart)) {
-                values.add(tv.value);
-            }
+    /**
+     * 获取已存在的通道，不存在时返回null
+     */
+    public MetricChannel findChannel(UUID robotId, int jointIndex, Metric metric) {
+        Map<Integer, JointChannels> robotBuffers = buffers.get(robotId);
+        if (robotBuffers == null) {
+            return null;
         }
+        JointChannels jointChannels = robotBuffers.get(jointIndex);
+        return jointChannels != null ? jointChannels.find(metric) : null;
+    }
 
-        return values;
+    /**
+     * 窗口起点（毫秒），窗口内样本的时间戳须晚于该值
+     */
+    public static long windowStartMillis(Instant currentTime) {
+        return currentTime.toEpochMilli() - WINDOW_SIZE_MILLIS;
     }
 
     /**
-     * 获取缓冲区统计信息
+     * 检测窗口长度，从中途开始检测时须先写入该时长的历史样本预热窗口
      */
-    public BufferStats getBufferStats(String robotId, int jointIndex) {
-        List<Double> values = getValuesInWindow(robotId, jointIndex, Instant.now());
-        if (values.isEmpty()) {
-            return new BufferStats(0, 0.0, 0.0, 0.0, 0.0);
-        }
+    public static Duration windowDuration() {
+        return Duration.ofMillis(WINDOW_SIZE_MILLIS);
+    }
 
-        double sum = values.stream().mapToDouble(Double::doubleValue).sum();
-        double mean = sum / values.size();
-        double variance = values.stream()
-                .mapToDouble(v -> Math.pow(v - mean, 2))
-                .sum() / values.size();
-        double stdDev = Math.sqrt(variance);
+    /**
+     * 获取指定指标在时间窗口内的样本值
+     */
+    public List<Double> getValuesInWindow(UUID robotId, int jointIndex, Metric metric, Instant currentTime) {
+        return toList(findChannel(robotId, jointIndex, metric), currentTime);
+    }
 
-        return new BufferStats(values.size(), mean, stdDev, Collections.min(values), Collections.max(values));
+    /**
+     * 获取指定时间窗口内的样本值（不区分指标），读取{@link #addSample(UUID, int, double, Instant)}写入的通道
+     */
+    public List<Double> getValuesInWindow(UUID robotId, int jointIndex, Instant currentTime) {
+        return getValuesInWindow(robotId, jointIndex, null, currentTime);
     }
 
     /**
-     * 清理过期数据
+     * 获取指定指标的缓冲区统计信息
      */
-    private void cleanupExpiredData(String robotId, int jointIndex) {
-        Map<Integer, Deque<TimestampedValue>> robotBuffers = buffers.get(robotId);
-        if (robotBuffers == null) return;
+    public BufferStats getBufferStats(UUID robotId, int jointIndex, Metric metric) {
+        return stats(findChannel(robotId, jointIndex, metric));
+    }
 
-        Deque<TimestampedValue> jointBuffer = robotBuffers.get(jointIndex);
-        if (jointBuffer == null) return;
+    /**
+     * 获取缓冲区统计信息（不区分指标）
+     */
+    public BufferStats getBufferStats(UUID robotId, int jointIndex) {
+        return getBufferStats(robotId, jointIndex, null);
+    }
 
-        Instant cutoff = Instant.now().minusSeconds(WINDOW_SIZE_SECONDS * 2); // 保留双倍窗口时间
+    private static BufferStats stats(MetricChannel channel) {
+        if (channel == null) {
+            return new BufferStats(0, 0.0, 0.0, 0.0, 0.0);
+        }
+        return channel.stats(windowStartMillis(Instant.now()));
+    }
 
-        while (!jointBuffer.isEmpty() && jointBuffer.peekFirst().timestamp.isBefore(cutoff)) {
-            jointBuffer.removeFirst();
+    private static List<Double> toList(MetricChannel channel, Instant currentTime) {
+        if (channel == null) {
+            return Collections.emptyList();
+        }
+        double[] window = new double[channel.size()];
+        int count = channel.copyWindow(windowStartMillis(currentTime), window);
+        List<Double> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(window[i]);
         }
+        return values;
     }
 
     /**
-     * 时间戳值包装类
+     * 单个关节的各指标通道，下标为Metric序号，最后一个为不区分指标的旧通道
      */
-    private static class TimestampedValue {
-        final double value;
-        final Instant timestamp;
+    private static class JointChannels {
+        private final AtomicReferenceArray<MetricChannel> channels =
+                new AtomicReferenceArray<>(Metric.all().length + 1);
+
+        MetricChannel get(Metric metric) {
+            int slot = slot(metric);
+            MetricChannel channel = channels.get(slot);
+            if (channel == null) {
+                channels.compareAndSet(slot, null, new MetricChannel(WINDOW_SIZE_MILLIS, RETENTION_MILLIS));
+                channel = channels.get(slot);
+            }
+            return channel;
+        }
+
+        MetricChannel find(Metric metric) {
+            return channels.get(slot(metric));
+        }
 
-        TimestampedValue(double value, Instant timestamp) {
-            this.value = value;
-            this.timestamp = timestamp;
+        private static int slot(Metric metric) {
+            return metric != null ? metric.ordinal() : Metric.all().length;
         }
     }
 
@@ -13,18 +13,35 @@ import java.util.Map;
  * 支持静态阈值和动态阈值检测
  */
 @Component
-public class ThresholdDetector implements Detector<Double> {
+public class ThresholdDetector implements Detector<Double>, PrimitiveDetector {
+
+    // 默认阈值配置（离线回放可通过DetectorConfig传入候选阈值）
+    private final ThresholdConfig config;
+
+    public ThresholdDetector() {
+        this(new ThresholdConfig(3.0, 80.0, 0.8, 3.0));
+    }
+
+    public ThresholdDetector(ThresholdConfig config) {
+        this.config = config;
+    }
 
     @Override
     public DetectionResult detect(List<Double> values) {
-        if (values.isEmpty()) {
+        return detect(WindowView.of(values));
+    }
+
+    /**
+     * 在窗口视图上检测，只读取最新值和样本数
+     */
+    @Override
+    public DetectionResult detect(WindowView window) {
+        int windowSize = window.size();
+        if (windowSize == 0) {
             return new DetectionResult(false, 0.0, "INFO", Map.of("reason", "No data available"));
         }
 
-        double latestValue = values.get(values.size() - 1);
-
-        // 默认阈值配置（可以从配置或数据库中读取）
-        ThresholdConfig config = new ThresholdConfig(3.0, 80.0, 0.8, 3.0); // 示例配置
+        double latestValue = window.latest();
 
         // 检查是否超过阈值
         boolean isHigh = latestValue > config.upperThreshold;
@@ -39,7 +56,7 @@ public class ThresholdDetector implements Detector<Double> {
 
             ThresholdEvidence evidence = new ThresholdEvidence(
                 latestValue, config.upperThreshold, config.lowerThreshold,
-                isHigh, isLow, deviation, values.size()
+                isHigh, isLow, deviation, windowSize
             );
 
             return new DetectionResult(true, deviation, severity, evidence);
@@ -0,0 +1,76 @@
+package com.example.iropsim.detection;
+
+import java.util.List;
+
+/**
+ * 检测窗口只读视图
+ * 按时间顺序访问窗口内的原始double值，不装箱；实现方可以直接提供已维护好的统计量
+ */
+public interface WindowView {
+
+    /**
+     * 窗口内样本数
+     */
+    int size();
+
+    /**
+     * 按下标读取值，0为最旧的样本
+     */
+    double valueAt(int index);
+
+    /**
+     * 最新样本值
+     */
+    default double latest() {
+        return valueAt(size() - 1);
+    }
+
+    /**
+     * 窗口均值，默认逐个累加计算
+     */
+    default double mean() {
+        int n = size();
+        if (n == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            sum += valueAt(i);
+        }
+        return sum / n;
+    }
+
+    /**
+     * 窗口总体标准差，默认两遍计算
+     */
+    default double stdDev() {
+        int n = size();
+        if (n == 0) {
+            return 0.0;
+        }
+        double mean = mean();
+        double squares = 0.0;
+        for (int i = 0; i < n; i++) {
+            double d = valueAt(i) - mean;
+            squares += d * d;
+        }
+        return Math.sqrt(squares / n);
+    }
+
+    /**
+     * 把装箱列表适配为窗口视图，不复制数据，供旧的{@link Detector}接口使用
+     */
+    static WindowView of(List<Double> values) {
+        return new WindowView() {
+            @Override
+            public int size() {
+                return values.size();
+            }
+
+            @Override
+            public double valueAt(int index) {
+                return values.get(index);
+            }
+        };
+    }
+}
@@ -6,60 +6,71 @@ import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Z-Score检测器
  * 使用统计方法检测异常值：z = (x - μ) / σ
  */
 @Component
-public class ZScoreDetector implements Detector<Double> {
+public class ZScoreDetector implements Detector<Double>, PrimitiveDetector {
 
-    // Z-Score阈值
+    // 默认Z-Score阈值
     private static final double Z_THRESHOLD = 3.0;
 
+    private final double zThreshold;
+
+    public ZScoreDetector() {
+        this(Z_THRESHOLD);
+    }
+
+    public ZScoreDetector(double zThreshold) {
+        this.zThreshold = zThreshold;
+    }
+
     @Override
     public DetectionResult detect(List<Double> values) {
-        if (values.size() < 10) { // 需要足够的数据进行统计
+        return detect(WindowView.of(values));
+    }
+
+    /**
+     * 在窗口视图上检测；对增量窗口，均值/标准差为O(1)读取
+     */
+    @Override
+    public DetectionResult detect(WindowView window) {
+        int sampleCount = window.size();
+        if (sampleCount < 10) { // 需要足够的数据进行统计
             return new DetectionResult(false, 0.0, "INFO",
                 ZScoreEvidence.builder()
                     .reason("Insufficient data for statistical analysis")
-                    .sampleCount(values.size())
+                    .sampleCount(sampleCount)
                     .build());
         }
+        return evaluate(window.latest(), window.mean(), window.stdDev(), sampleCount);
+    }
 
-        // 计算均值和标准差
-        double sum = values.stream().mapToDouble(Double::doubleValue).sum();
-        double mean = sum / values.size();
-
-        double variance = values.stream()
-                .mapToDouble(v -> Math.pow(v - mean, 2))
-                .sum() / values.size();
-        double stdDev = Math.sqrt(variance);
-
+    private DetectionResult evaluate(double latestValue, double mean, double stdDev, int sampleCount) {
         if (stdDev == 0) {
             return new DetectionResult(false, 0.0, "INFO",
                 ZScoreEvidence.builder()
                     .reason("No variance in data")
                     .mean(mean)
                     .stdDev(stdDev)
-                    .sampleCount(values.size())
+                    .sampleCount(sampleCount)
                     .build());
         }
 
         // 计算最新值的Z-Score
-        double latestValue = values.get(values.size() - 1);
         double zScore = Math.abs((latestValue - mean) / stdDev);
 
-        boolean isAnomaly = zScore > Z_THRESHOLD;
+        boolean isAnomaly = zScore > zThreshold;
 
         ZScoreEvidence evidence = ZScoreEvidence.builder()
                 .latestValue(latestValue)
                 .mean(mean)
                 .stdDev(stdDev)
                 .zScore(zScore)
-                .threshold(Z_THRESHOLD)
-                .sampleCount(values.size())
+                .threshold(zThreshold)
+                .sampleCount(sampleCount)
                 .isAnomaly(isAnomaly)
                 .build();
 
@@ -63,6 +63,10 @@ public class AlarmEvent {
     @Column(nullable = false)
     private Double score;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean suppressed = false;
+
     @Convert(converter = JsonNodeConverter.class)
     @Column(columnDefinition = "jsonb")
     private JsonNode evidence;
@@ -18,7 +18,8 @@ import java.util.UUID;
 public class JointSample {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "joint_sample_seq")
+    @SequenceGenerator(name = "joint_sample_seq", sequenceName = "joint_sample_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
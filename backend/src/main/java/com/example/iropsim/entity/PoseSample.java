@@ -18,7 +18,8 @@ import java.util.UUID;
 public class PoseSample {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pose_sample_seq")
+    @SequenceGenerator(name = "pose_sample_seq", sequenceName = "pose_sample_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
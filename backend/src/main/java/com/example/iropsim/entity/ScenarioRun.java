@@ -1,12 +1,17 @@
 package com.example.iropsim.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
@@ -41,6 +46,11 @@ public class ScenarioRun {
     @Builder.Default
     private RunStatus status = RunStatus.CREATED;
 
+    @Column(name = "ingest_mode", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private IngestMode ingestMode = IngestMode.JPA;
+
     @Column(name = "started_at")
     private Instant startedAt;
 
@@ -50,6 +60,21 @@ public class ScenarioRun {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    /**
+     * 本次运行驱动的机器人集合，为空时驱动全部机器人
+     *
+     * <p>懒加载，列表查询不为每个运行单独查询集合；需要时通过带实体图的查询加载。
+     * 不参与序列化和toString，避免在事务外访问未加载的集合。</p>
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "scenario_run_robot", joinColumns = @JoinColumn(name = "scenario_run_id"))
+    @Column(name = "robot_id", nullable = false)
+    @Builder.Default
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<UUID> robotIds = new LinkedHashSet<>();
+
     public enum RunMode {
         REALTIME, REPLAY
     }
@@ -57,4 +82,12 @@ public class ScenarioRun {
     public enum RunStatus {
         CREATED, RUNNING, STOPPED, FINISHED
     }
+
+    /**
+     * 样本落库方式
+     */
+    public enum IngestMode {
+        JPA,  // JPA批量INSERT
+        COPY  // PostgreSQL COPY流式写入
+    }
 }
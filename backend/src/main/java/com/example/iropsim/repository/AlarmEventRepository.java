@@ -38,11 +38,7 @@ public interface AlarmEventRepository extends JpaRepository<AlarmEvent, UUID> {
 
     List<AlarmEvent> findByRobotIdAndStatus(UUID robotId, AlarmEvent.Status status);
 
-    @Query("SELECT COUNT(ae) FROM AlarmEvent ae WHERE ae.robot.id = :robotId " +
-           "AND ae.alarmType = :alarmType AND ae.lastSeenTs >= :from AND ae.lastSeenTs <= :to")
-    long countByRobotAndAlarmTypeAndTimeRange(
-            @Param("robotId") UUID robotId,
-            @Param("alarmType") AlarmEvent.AlarmType alarmType,
-            @Param("from") Instant from,
-            @Param("to") Instant to);
+    @Query("SELECT ae FROM AlarmEvent ae JOIN FETCH ae.robot WHERE ae.scenarioRun.id = :scenarioRunId " +
+           "ORDER BY ae.firstSeenTs, ae.id")
+    List<AlarmEvent> findByScenarioRunIdOrderByFirstSeenTs(@Param("scenarioRunId") UUID scenarioRunId);
 }
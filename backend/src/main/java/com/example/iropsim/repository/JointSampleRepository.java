@@ -38,6 +38,28 @@ public interface JointSampleRepository extends JpaRepository<JointSample, Long>
 
     List<JointSample> findByScenarioRunOrderByTs(ScenarioRun scenarioRun);
 
+    @Query("SELECT MIN(js.ts) FROM JointSample js WHERE js.scenarioRun.id = :scenarioRunId")
+    Instant findFirstTsByScenarioRunId(@Param("scenarioRunId") UUID scenarioRunId);
+
+    @Query("SELECT MAX(js.ts) FROM JointSample js WHERE js.scenarioRun.id = :scenarioRunId")
+    Instant findLastTsByScenarioRunId(@Param("scenarioRunId") UUID scenarioRunId);
+
+    @Query("SELECT js FROM JointSample js JOIN FETCH js.robot WHERE js.scenarioRun.id = :scenarioRunId " +
+           "AND js.ts >= :from ORDER BY js.ts, js.id")
+    List<JointSample> findReplayChunkFrom(
+            @Param("scenarioRunId") UUID scenarioRunId,
+            @Param("from") Instant from,
+            Pageable pageable);
+
+    // ts >= :ts 是可走索引的下界，(scenario_run_id, ts, id)索引从游标位置开始范围扫描；OR只在同一时刻内过滤
+    @Query("SELECT js FROM JointSample js JOIN FETCH js.robot WHERE js.scenarioRun.id = :scenarioRunId " +
+           "AND js.ts >= :ts AND (js.ts > :ts OR js.id > :id) ORDER BY js.ts, js.id")
+    List<JointSample> findReplayChunkAfter(
+            @Param("scenarioRunId") UUID scenarioRunId,
+            @Param("ts") Instant ts,
+            @Param("id") Long id,
+            Pageable pageable);
+
     @Query("SELECT js FROM JointSample js WHERE js.robot.id = :robotId AND js.jointIndex = :jointIndex " +
            "ORDER BY js.ts DESC LIMIT :limit")
     List<JointSample> findTopByRobotIdAndJointIndexOrderByTsDesc(
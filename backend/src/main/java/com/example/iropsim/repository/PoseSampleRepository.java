@@ -28,6 +28,22 @@ public interface PoseSampleRepository extends JpaRepository<PoseSample, Long> {
 
     List<PoseSample> findByScenarioRunOrderByTs(ScenarioRun scenarioRun);
 
+    @Query("SELECT ps FROM PoseSample ps JOIN FETCH ps.robot WHERE ps.scenarioRun.id = :scenarioRunId " +
+           "AND ps.ts >= :from ORDER BY ps.ts, ps.id")
+    List<PoseSample> findReplayChunkFrom(
+            @Param("scenarioRunId") UUID scenarioRunId,
+            @Param("from") Instant from,
+            Pageable pageable);
+
+    // ts >= :ts 是可走索引的下界，(scenario_run_id, ts, id)索引从游标位置开始范围扫描；OR只在同一时刻内过滤
+    @Query("SELECT ps FROM PoseSample ps JOIN FETCH ps.robot WHERE ps.scenarioRun.id = :scenarioRunId " +
+           "AND ps.ts >= :ts AND (ps.ts > :ts OR ps.id > :id) ORDER BY ps.ts, ps.id")
+    List<PoseSample> findReplayChunkAfter(
+            @Param("scenarioRunId") UUID scenarioRunId,
+            @Param("ts") Instant ts,
+            @Param("id") Long id,
+            Pageable pageable);
+
     @Query("SELECT ps FROM PoseSample ps WHERE ps.robot.id = :robotId " +
            "ORDER BY ps.ts DESC LIMIT :limit")
     List<PoseSample> findTopByRobotIdOrderByTsDesc(
@@ -1,11 +1,23 @@
 package com.example.iropsim.repository;
 
 import com.example.iropsim.entity.ScenarioRun;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ScenarioRunRepository extends JpaRepository<ScenarioRun, UUID> {
+
+    /**
+     * 同时加载场景和驱动的机器人集合，供启动仿真使用
+     */
+    @EntityGraph(attributePaths = {"scenario", "robotIds"})
+    Optional<ScenarioRun> findWithScenarioById(UUID id);
+
+    @EntityGraph(attributePaths = "scenario")
+    List<ScenarioRun> findWithScenarioByStatusNot(ScenarioRun.RunStatus status);
 }
@@ -0,0 +1,161 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.AlarmEvent;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * 按时间推进的告警区间扫描
+ *
+ * <p>把关节告警看作区间[firstSeenTs, lastSeenTs]，随样本时间单调推进：首次时间不晚于当前时刻的告警按序进入
+ * 所属机器人关节的活跃列表，最后时间早于当前时刻的告警经lastSeenTs最小堆移出。样本流与告警各只遍历一次，
+ * 总代价O((n + m) log m)，查询某关节当前活跃告警不需要逐行查库或遍历全部告警。</p>
+ *
+ * <p>没有关节号的告警（位姿告警）不参与扫描。非线程安全。</p>
+ *
+ * @param <T> 告警类型，字段通过{@link Fields}读取，落库告警和离线检测告警共用同一扫描
+ */
+public class AlarmIntervalSweep<T> {
+
+    /**
+     * 告警区间字段的读取方式
+     */
+    public interface Fields<T> {
+        UUID robotId(T alarm);
+
+        /**
+         * 关节号，位姿告警为null
+         */
+        Integer jointIndex(T alarm);
+
+        Instant firstSeenTs(T alarm);
+
+        Instant lastSeenTs(T alarm);
+    }
+
+    /**
+     * 落库告警的字段
+     */
+    public static final Fields<AlarmEvent> ALARM_EVENT_FIELDS = new Fields<>() {
+        @Override
+        public UUID robotId(AlarmEvent alarm) {
+            return alarm.getRobot().getId();
+        }
+
+        @Override
+        public Integer jointIndex(AlarmEvent alarm) {
+            return alarm.getJointIndex();
+        }
+
+        @Override
+        public Instant firstSeenTs(AlarmEvent alarm) {
+            return alarm.getFirstSeenTs();
+        }
+
+        @Override
+        public Instant lastSeenTs(AlarmEvent alarm) {
+            return alarm.getLastSeenTs();
+        }
+    };
+
+    private final Fields<T> fields;
+    private final List<T> alarms = new ArrayList<>();
+    private final PriorityQueue<T> expiring;
+    // 机器人 -> 关节号 -> 活跃告警（按首次时间排序）
+    private final Map<UUID, List<List<T>>> active = new HashMap<>();
+
+    private int next;
+    private Instant current;
+
+    /**
+     * 落库告警的扫描
+     *
+     * @param alarms 告警，顺序不限
+     */
+    public static AlarmIntervalSweep<AlarmEvent> of(List<AlarmEvent> alarms) {
+        return new AlarmIntervalSweep<>(alarms, ALARM_EVENT_FIELDS);
+    }
+
+    /**
+     * @param alarms 告警，顺序不限
+     * @param fields 告警区间字段的读取方式
+     */
+    public AlarmIntervalSweep(List<T> alarms, Fields<T> fields) {
+        this.fields = fields;
+        this.expiring = new PriorityQueue<>(Comparator.comparing(fields::lastSeenTs));
+        for (T alarm : alarms) {
+            if (fields.jointIndex(alarm) != null) {
+                this.alarms.add(alarm);
+            }
+        }
+        this.alarms.sort(Comparator.comparing(fields::firstSeenTs));
+    }
+
+    /**
+     * 推进到指定时刻，时间不能回退
+     */
+    public void advanceTo(Instant ts) {
+        if (current != null && ts.isBefore(current)) {
+            throw new IllegalArgumentException("Samples must be in time order: " + ts + " after " + current);
+        }
+        current = ts;
+
+        while (next < alarms.size() && !fields.firstSeenTs(alarms.get(next)).isAfter(ts)) {
+            T alarm = alarms.get(next++);
+            jointAlarms(fields.robotId(alarm), fields.jointIndex(alarm), true).add(alarm);
+            expiring.add(alarm);
+        }
+        while (!expiring.isEmpty() && fields.lastSeenTs(expiring.peek()).isBefore(ts)) {
+            T alarm = expiring.poll();
+            removeSame(jointAlarms(fields.robotId(alarm), fields.jointIndex(alarm), false), alarm);
+        }
+    }
+
+    /**
+     * 当前时刻机器人关节上的活跃告警，按首次时间排序
+     *
+     * @return 内部列表，调用方不得修改，下次推进后内容会变化
+     */
+    public List<T> activeAt(UUID robotId, int jointIndex) {
+        return jointAlarms(robotId, jointIndex, false);
+    }
+
+    /**
+     * 按引用移除，避免实体equals比较全部字段
+     */
+    private static <T> void removeSame(List<T> alarms, T alarm) {
+        for (int i = 0; i < alarms.size(); i++) {
+            if (alarms.get(i) == alarm) {
+                alarms.remove(i);
+                return;
+            }
+        }
+    }
+
+    private List<T> jointAlarms(UUID robotId, int jointIndex, boolean create) {
+        List<List<T>> joints = active.get(robotId);
+        if (joints == null) {
+            if (!create) {
+                return List.of();
+            }
+            joints = new ArrayList<>();
+            active.put(robotId, joints);
+        }
+        if (jointIndex >= joints.size()) {
+            if (!create) {
+                return List.of();
+            }
+            while (joints.size() <= jointIndex) {
+                joints.add(new ArrayList<>(4));
+            }
+        }
+        return joints.get(jointIndex);
+    }
+}
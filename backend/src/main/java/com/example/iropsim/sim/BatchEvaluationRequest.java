@@ -0,0 +1,20 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.detection.DetectorConfig;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 批量离线检测请求
+ */
+@Data
+public class BatchEvaluationRequest {
+
+    // 参与评测的运行，为空时评测所有未在运行中的运行
+    private List<UUID> scenarioRunIds;
+
+    // 待对比的检测参数组，为空时使用默认参数
+    private List<DetectorConfig> detectorConfigs;
+}
@@ -0,0 +1,46 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.detection.DetectorConfig;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量离线检测结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchEvaluationResult {
+
+    // 并行度与分区数
+    private int parallelism;
+    private int partitions;
+
+    // 处理量与耗时
+    private int runs;
+    private long jointSamples;
+    private long elapsedMillis;
+    private double samplesPerSecond;
+
+    // 每组检测参数一项，顺序与请求一致
+    private List<ConfigEvaluation> configs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConfigEvaluation {
+        private DetectorConfig detectorConfig;
+        // 全部运行合计的告警统计
+        private EvaluationReport.AlarmStatistics alarmStats;
+        // 全部运行合计的检测器评分
+        private EvaluationReport.DetectorPerformance detectorPerformance;
+        // 各运行的评测报告
+        private List<EvaluationReport> reports;
+    }
+}
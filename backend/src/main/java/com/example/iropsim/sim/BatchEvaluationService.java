@@ -0,0 +1,444 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.detection.AlarmCollector;
+import com.example.iropsim.detection.DetectedAlarm;
+import com.example.iropsim.detection.DetectorConfig;
+import com.example.iropsim.detection.SampleDetector;
+import com.example.iropsim.detection.SlidingWindowBuffer;
+import com.example.iropsim.entity.FaultInjection;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.ScenarioRun;
+import com.example.iropsim.repository.FaultInjectionRepository;
+import com.example.iropsim.repository.JointSampleRepository;
+import com.example.iropsim.repository.ScenarioRunRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+/**
+ * 批量离线检测
+ *
+ * <p>将多个录制运行按运行和时间片切分为互不依赖的分区，提交到专用ForkJoinPool并行检测。
+ * 每个分区只扫描一次样本，同时送入每组候选参数各自独立的检测核心（独立滑动窗口），
+ * 非首个时间片先用前一个窗口长度的样本预热窗口再开始计入告警，因此切片后的结果与整段顺序检测一致。
+ * 各分区结果按时间顺序合并为每个运行、每组参数一份评测报告。</p>
+ *
+ * <p>合并后每个运行再扫描一次样本，用{@link DetectionScorer}为每组参数的告警评分，
+ * 参数扫描的精确率、召回率和检测延迟与在线评测报告按同一规则计算。</p>
+ */
+@Slf4j
+@Service
+public class BatchEvaluationService {
+
+    private static final SampleDetector.AnomalyListener IGNORE = (sample, metric, detectorType, result) -> { };
+
+    private final RunCatalog runCatalog;
+    private final ReplayDataSource replayDataSource;
+    private final ForkJoinPool evaluationWorkerPool;
+    private final Duration sliceDuration;
+
+    @Autowired
+    public BatchEvaluationService(ScenarioRunRepository scenarioRunRepository,
+                                  JointSampleRepository jointSampleRepository,
+                                  FaultInjectionRepository faultInjectionRepository,
+                                  ReplayDataSource replayDataSource,
+                                  @Qualifier("evaluationWorkerPool") ForkJoinPool evaluationWorkerPool,
+                                  @Value("${evaluation.slice-duration:10m}") Duration sliceDuration) {
+        this(new RepositoryRunCatalog(scenarioRunRepository, jointSampleRepository, faultInjectionRepository),
+                replayDataSource, evaluationWorkerPool, sliceDuration);
+    }
+
+    BatchEvaluationService(RunCatalog runCatalog,
+                           ReplayDataSource replayDataSource,
+                           ForkJoinPool evaluationWorkerPool,
+                           Duration sliceDuration) {
+        this.runCatalog = runCatalog;
+        this.replayDataSource = replayDataSource;
+        this.evaluationWorkerPool = evaluationWorkerPool;
+        this.sliceDuration = sliceDuration;
+    }
+
+    /**
+     * 按请求的运行和参数组执行批量检测
+     */
+    public BatchEvaluationResult evaluate(BatchEvaluationRequest request) {
+        List<DetectorConfig> configs = request.getDetectorConfigs() == null || request.getDetectorConfigs().isEmpty()
+                ? List.of(DetectorConfig.defaults())
+                : request.getDetectorConfigs();
+        configs.forEach(DetectorConfig::validate);
+
+        List<ScenarioRun> runs = resolveRuns(request.getScenarioRunIds());
+
+        long startNanos = System.nanoTime();
+        List<RunEvaluation> evaluations = evaluateRuns(runs, configs);
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        List<BatchEvaluationResult.ConfigEvaluation> configResults = new ArrayList<>(configs.size());
+        for (int i = 0; i < configs.size(); i++) {
+            List<EvaluationReport> reports = new ArrayList<>(evaluations.size());
+            List<DetectedAlarm> allAlarms = new ArrayList<>();
+            List<DetectionScorer> scorers = new ArrayList<>(evaluations.size());
+            List<List<FaultInjection>> faults = new ArrayList<>(evaluations.size());
+            for (RunEvaluation evaluation : evaluations) {
+                reports.add(buildReport(evaluation, i));
+                allAlarms.addAll(evaluation.alarms[i].getAlarms());
+                scorers.add(evaluation.scorers[i]);
+                faults.add(evaluation.faults);
+            }
+            configResults.add(BatchEvaluationResult.ConfigEvaluation.builder()
+                    .detectorConfig(configs.get(i))
+                    .alarmStats(alarmStatistics(allAlarms))
+                    .detectorPerformance(DetectionScorer.combine(scorers, faults))
+                    .reports(reports)
+                    .build());
+        }
+
+        int partitions = evaluations.stream().mapToInt(e -> e.partitions.size()).sum();
+        long totalSamples = evaluations.stream()
+                .flatMap(e -> e.partitions.stream())
+                .mapToLong(r -> r.samples)
+                .sum();
+        double elapsedSeconds = elapsedNanos / 1e9;
+        log.info("Batch evaluation of {} runs ({} partitions, {} configs) processed {} joint samples in {} ms",
+                evaluations.size(), partitions, configs.size(), totalSamples, elapsedNanos / 1_000_000);
+
+        return BatchEvaluationResult.builder()
+                .parallelism(evaluationWorkerPool.getParallelism())
+                .partitions(partitions)
+                .runs(evaluations.size())
+                .jointSamples(totalSamples)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .samplesPerSecond(elapsedSeconds > 0 ? totalSamples / elapsedSeconds : 0.0)
+                .configs(configResults)
+                .build();
+    }
+
+    /**
+     * 切分并行检测各运行，按时间顺序合并分区告警后为每组参数评分，顺序与runs一致，没有录制数据的运行不在结果中
+     */
+    List<RunEvaluation> evaluateRuns(List<ScenarioRun> runs, List<DetectorConfig> configs) {
+        // 按运行和时间片切分
+        List<Partition> partitions = new ArrayList<>();
+        for (ScenarioRun run : runs) {
+            Instant first = runCatalog.firstSampleTs(run.getId());
+            Instant last = runCatalog.lastSampleTs(run.getId());
+            if (first == null) {
+                continue; // 没有录制数据
+            }
+            int index = 0;
+            for (Instant[] slice : slices(first, last, sliceDuration, SlidingWindowBuffer.windowDuration())) {
+                partitions.add(new Partition(run.getId(), index++, slice[0], slice[1], slice[2]));
+            }
+        }
+
+        List<ForkJoinTask<PartitionResult>> tasks = new ArrayList<>(partitions.size());
+        for (Partition partition : partitions) {
+            tasks.add(evaluationWorkerPool.submit(() -> detect(partition, configs)));
+        }
+        List<PartitionResult> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<PartitionResult> task : tasks) {
+            results.add(task.join());
+        }
+
+        // 同一运行的分区按时间顺序合并
+        Map<UUID, List<PartitionResult>> byRun = results.stream()
+                .sorted(Comparator.comparingInt(r -> r.partition.sliceIndex))
+                .collect(Collectors.groupingBy(r -> r.partition.runId, LinkedHashMap::new, Collectors.toList()));
+
+        // 每个运行一次扫描，为每组参数的合并告警评分
+        List<RunEvaluation> evaluations = new ArrayList<>(byRun.size());
+        List<ForkJoinTask<RunEvaluation>> scoringTasks = new ArrayList<>(byRun.size());
+        for (ScenarioRun run : runs) {
+            List<PartitionResult> runResults = byRun.get(run.getId());
+            if (runResults == null) {
+                continue;
+            }
+            AlarmCollector[] merged = new AlarmCollector[configs.size()];
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] = mergeRun(runResults, i);
+            }
+            RunEvaluation evaluation = new RunEvaluation(run, runResults, merged, runCatalog.faults(run.getId()));
+            scoringTasks.add(evaluationWorkerPool.submit(() -> score(evaluation)));
+        }
+        for (ForkJoinTask<RunEvaluation> task : scoringTasks) {
+            evaluations.add(task.join());
+        }
+        return evaluations;
+    }
+
+    private List<ScenarioRun> resolveRuns(List<UUID> runIds) {
+        if (runIds == null || runIds.isEmpty()) {
+            return runCatalog.findFinishedRuns();
+        }
+        List<ScenarioRun> runs = new ArrayList<>(runIds.size());
+        for (UUID runId : new LinkedHashSet<>(runIds)) {
+            ScenarioRun run = runCatalog.findRun(runId)
+                    .orElseThrow(() -> new IllegalArgumentException("Scenario run not found: " + runId));
+            if (run.getStatus() == ScenarioRun.RunStatus.RUNNING) {
+                throw new IllegalStateException("Simulation is currently running, cannot evaluate: " + runId);
+            }
+            runs.add(run);
+        }
+        return runs;
+    }
+
+    /**
+     * 将[first, last]切分为时间片，每项为{预热起点, 起点, 终点(不含)}
+     *
+     * <p>首个时间片无需预热，预热起点等于起点；最后一个时间片的终点为last之后1纳秒。</p>
+     */
+    static List<Instant[]> slices(Instant first, Instant last, Duration sliceDuration, Duration warmup) {
+        if (sliceDuration.isZero() || sliceDuration.isNegative()) {
+            throw new IllegalArgumentException("Slice duration must be positive: " + sliceDuration);
+        }
+        Instant end = last.plusNanos(1);
+        List<Instant[]> slices = new ArrayList<>();
+        Instant from = first;
+        while (from.isBefore(end)) {
+            Instant to = from.plus(sliceDuration);
+            if (!to.isBefore(end)) {
+                to = end;
+            }
+            Instant warmupFrom = from.equals(first) ? from : from.minus(warmup);
+            if (warmupFrom.isBefore(first)) {
+                warmupFrom = first;
+            }
+            slices.add(new Instant[]{warmupFrom, from, to});
+            from = to;
+        }
+        return slices;
+    }
+
+    /**
+     * 检测一个分区：一次扫描送入每组参数的检测核心
+     */
+    private PartitionResult detect(Partition partition, List<DetectorConfig> configs) {
+        SampleDetector[] detectors = new SampleDetector[configs.size()];
+        AlarmCollector[] collectors = new AlarmCollector[configs.size()];
+        for (int i = 0; i < detectors.length; i++) {
+            detectors[i] = SampleDetector.create(configs.get(i));
+            collectors[i] = new AlarmCollector();
+        }
+
+        PartitionResult result = new PartitionResult(partition, collectors);
+        ReplayCursor<JointSample> cursor = replayDataSource.jointSamples(partition.runId, partition.warmupFrom);
+        while (cursor.hasNext()) {
+            JointSample jointSample = cursor.next();
+            Instant ts = jointSample.getTs();
+            if (!ts.isBefore(partition.to)) {
+                break;
+            }
+            // 预热段只写入窗口，不计入告警
+            boolean inSlice = !ts.isBefore(partition.from);
+            for (int i = 0; i < detectors.length; i++) {
+                detectors[i].process(jointSample, inSlice ? collectors[i] : IGNORE);
+            }
+            if (inSlice) {
+                if (result.firstTs == null) {
+                    result.firstTs = ts;
+                }
+                result.lastTs = ts;
+                result.samples++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按时间顺序合并一个运行各分区中指定参数组的告警
+     */
+    private static AlarmCollector mergeRun(List<PartitionResult> runResults, int configIndex) {
+        AlarmCollector merged = runResults.get(0).collectors[configIndex];
+        for (int j = 1; j < runResults.size(); j++) {
+            merged.mergeLater(runResults.get(j).collectors[configIndex]);
+        }
+        return merged;
+    }
+
+    /**
+     * 按时间顺序扫描一个运行的全部样本，为每组参数的告警评分
+     */
+    private RunEvaluation score(RunEvaluation evaluation) {
+        ReplayCursor<JointSample> cursor = replayDataSource.jointSamples(evaluation.run.getId(), Instant.EPOCH);
+        while (cursor.hasNext()) {
+            JointSample jointSample = cursor.next();
+            for (DetectionScorer scorer : evaluation.scorers) {
+                scorer.accept(jointSample);
+            }
+        }
+        return evaluation;
+    }
+
+    /**
+     * 生成一个运行在一组参数下的评测报告
+     */
+    private static EvaluationReport buildReport(RunEvaluation evaluation, int configIndex) {
+        List<PartitionResult> runResults = evaluation.partitions;
+        long samples = runResults.stream().mapToLong(r -> r.samples).sum();
+        Instant firstTs = runResults.get(0).firstTs;
+        Instant lastTs = runResults.get(runResults.size() - 1).lastTs;
+
+        ScenarioRun run = evaluation.run;
+        DetectionScorer scorer = evaluation.scorers[configIndex];
+        Duration span = firstTs != null && lastTs != null ? Duration.between(firstTs, lastTs) : null;
+        List<EvaluationReport.FaultInjectionSummary> faultSummaries = evaluation.faults.stream()
+                .map(fault -> SimulationEngine.createFaultInjectionSummary(fault, scorer.detectionDelay(fault)))
+                .toList();
+
+        return EvaluationReport.builder()
+                .scenarioRunId(run.getId().toString())
+                .scenarioName(run.getScenario() != null ? run.getScenario().getName() : null)
+                .startTime(firstTs)
+                .endTime(lastTs)
+                .duration(span)
+                .samplingRateHz(run.getRateHz())
+                .sampleStats(EvaluationReport.SampleStatistics.builder()
+                        .totalJointSamples((int) samples)
+                        .timeSpan(span)
+                        .build())
+                .alarmStats(alarmStatistics(evaluation.alarms[configIndex].getAlarms()))
+                .detectorPerformance(scorer.result(evaluation.faults))
+                .faultInjections(faultSummaries)
+                .build();
+    }
+
+    private static EvaluationReport.AlarmStatistics alarmStatistics(List<DetectedAlarm> alarms) {
+        return EvaluationReport.AlarmStatistics.builder()
+                .totalAlarms(alarms.size())
+                .alarmsByType(alarms.stream().collect(Collectors.groupingBy(
+                        a -> a.getAlarmType().toString(), Collectors.summingInt(a -> 1))))
+                .alarmsBySeverity(alarms.stream().collect(Collectors.groupingBy(
+                        a -> a.getSeverity().toString(), Collectors.summingInt(a -> 1))))
+                .alarmsByDetector(alarms.stream().collect(Collectors.groupingBy(
+                        DetectedAlarm::getDetector, Collectors.summingInt(a -> 1))))
+                .build();
+    }
+
+    /**
+     * 检测分区：一个运行的一个时间片
+     */
+    private static final class Partition {
+        final UUID runId;
+        final int sliceIndex;
+        final Instant warmupFrom;
+        final Instant from;
+        final Instant to;
+
+        Partition(UUID runId, int sliceIndex, Instant warmupFrom, Instant from, Instant to) {
+            this.runId = runId;
+            this.sliceIndex = sliceIndex;
+            this.warmupFrom = warmupFrom;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    private static final class PartitionResult {
+        final Partition partition;
+        final AlarmCollector[] collectors;
+        long samples;
+        Instant firstTs;
+        Instant lastTs;
+
+        PartitionResult(Partition partition, AlarmCollector[] collectors) {
+            this.partition = partition;
+            this.collectors = collectors;
+        }
+    }
+
+    /**
+     * 一个运行合并后的告警与评分，数组按参数组顺序
+     */
+    static final class RunEvaluation {
+        final ScenarioRun run;
+        final List<PartitionResult> partitions;
+        final AlarmCollector[] alarms;
+        final DetectionScorer[] scorers;
+        final List<FaultInjection> faults;
+
+        RunEvaluation(ScenarioRun run, List<PartitionResult> partitions, AlarmCollector[] alarms,
+                      List<FaultInjection> faults) {
+            this.run = run;
+            this.partitions = partitions;
+            this.alarms = alarms;
+            this.faults = faults;
+            this.scorers = new DetectionScorer[alarms.length];
+            for (int i = 0; i < alarms.length; i++) {
+                scorers[i] = DetectionScorer.forDetectedAlarms(alarms[i].getAlarms());
+            }
+        }
+    }
+
+    /**
+     * 批量检测所需的运行元数据
+     */
+    interface RunCatalog {
+        Optional<ScenarioRun> findRun(UUID runId);
+
+        /**
+         * 全部未在运行中的运行
+         */
+        List<ScenarioRun> findFinishedRuns();
+
+        Instant firstSampleTs(UUID runId);
+
+        Instant lastSampleTs(UUID runId);
+
+        List<FaultInjection> faults(UUID runId);
+    }
+
+    private static final class RepositoryRunCatalog implements RunCatalog {
+        private final ScenarioRunRepository scenarioRunRepository;
+        private final JointSampleRepository jointSampleRepository;
+        private final FaultInjectionRepository faultInjectionRepository;
+
+        RepositoryRunCatalog(ScenarioRunRepository scenarioRunRepository,
+                             JointSampleRepository jointSampleRepository,
+                             FaultInjectionRepository faultInjectionRepository) {
+            this.scenarioRunRepository = scenarioRunRepository;
+            this.jointSampleRepository = jointSampleRepository;
+            this.faultInjectionRepository = faultInjectionRepository;
+        }
+
+        @Override
+        public Optional<ScenarioRun> findRun(UUID runId) {
+            return scenarioRunRepository.findWithScenarioById(runId);
+        }
+
+        @Override
+        public List<ScenarioRun> findFinishedRuns() {
+            return scenarioRunRepository.findWithScenarioByStatusNot(ScenarioRun.RunStatus.RUNNING);
+        }
+
+        @Override
+        public Instant firstSampleTs(UUID runId) {
+            return jointSampleRepository.findFirstTsByScenarioRunId(runId);
+        }
+
+        @Override
+        public Instant lastSampleTs(UUID runId) {
+            return jointSampleRepository.findLastTsByScenarioRunId(runId);
+        }
+
+        @Override
+        public List<FaultInjection> faults(UUID runId) {
+            return faultInjectionRepository.findByScenarioRunId(runId);
+        }
+    }
+}
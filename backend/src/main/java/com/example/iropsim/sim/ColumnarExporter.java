@@ -0,0 +1,363 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.repository.AlarmEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionCodec;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.compression.NoCompressionCodec;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 运行遥测的列式导出（Arrow IPC流格式）
+ *
+ * <p>每张表导出为一个Arrow IPC流：样本按(ts, id)键集分块从数据库读出，每读满一批写成一个record batch，
+ * 各指标为独立的原始类型列（float64/int16/timestamp[us, UTC]），列缓冲区按批使用ZSTD或LZ4压缩。
+ * 内存中只保留一个批次的列向量，多GB的运行也以固定内存导出。pyarrow、polars等可直接按列加载。</p>
+ */
+@Slf4j
+@Component
+public class ColumnarExporter {
+
+    /**
+     * 可导出的表
+     */
+    public enum Table {
+        JOINT_SAMPLE, POSE_SAMPLE, ALARM_EVENT;
+
+        public static Table parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export table: " + value);
+            }
+        }
+
+        public String fileName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 列缓冲区压缩方式
+     */
+    public enum Compression {
+        ZSTD(CompressionUtil.CodecType.ZSTD, CommonsCompressionFactory.INSTANCE),
+        LZ4(CompressionUtil.CodecType.LZ4_FRAME, CommonsCompressionFactory.INSTANCE),
+        // CommonsCompressionFactory只支持LZ4_FRAME和ZSTD，不压缩时使用Arrow自带的工厂
+        NONE(CompressionUtil.CodecType.NO_COMPRESSION, NoCompressionCodec.Factory.INSTANCE);
+
+        private final CompressionUtil.CodecType codecType;
+        private final CompressionCodec.Factory codecFactory;
+
+        Compression(CompressionUtil.CodecType codecType, CompressionCodec.Factory codecFactory) {
+            this.codecType = codecType;
+            this.codecFactory = codecFactory;
+        }
+
+        public static Compression parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export compression: " + value);
+            }
+        }
+    }
+
+    private static final String UTC = "UTC";
+
+    static final Schema JOINT_SAMPLE_SCHEMA = new Schema(List.of(
+            timestampField("ts", false),
+            utf8Field("robot_id", false),
+            new Field("joint_index", FieldType.notNullable(new ArrowType.Int(16, true)), null),
+            float64Field("current_a"),
+            float64Field("vibration_rms"),
+            float64Field("temperature_c"),
+            utf8Field("label", true)));
+
+    static final Schema POSE_SAMPLE_SCHEMA = new Schema(List.of(
+            timestampField("ts", false),
+            utf8Field("robot_id", false),
+            float64Field("x"),
+            float64Field("y"),
+            float64Field("z"),
+            float64Field("rx"),
+            float64Field("ry"),
+            float64Field("rz"),
+            utf8Field("label", true)));
+
+    static final Schema ALARM_EVENT_SCHEMA = new Schema(List.of(
+            utf8Field("id", false),
+            utf8Field("robot_id", false),
+            new Field("joint_index", FieldType.nullable(new ArrowType.Int(32, true)), null),
+            utf8Field("alarm_type", false),
+            utf8Field("severity", false),
+            utf8Field("status", false),
+            utf8Field("detector", false),
+            float64Field("score"),
+            new Field("count", FieldType.notNullable(new ArrowType.Int(32, true)), null),
+            timestampField("first_seen_ts", false),
+            timestampField("last_seen_ts", false),
+            utf8Field("dedup_key", false)));
+
+    private final ReplayDataSource replayDataSource;
+    private final Function<UUID, List<AlarmEvent>> alarmLoader;
+    private final int batchRows;
+    private final long memoryLimit;
+
+    @Autowired
+    public ColumnarExporter(ReplayDataSource replayDataSource,
+                            AlarmEventRepository alarmEventRepository,
+                            @Value("${export.columnar.batch-rows:65536}") int batchRows,
+                            @Value("${export.columnar.memory-limit-mb:256}") long memoryLimitMb) {
+        this(replayDataSource, alarmEventRepository::findByScenarioRunIdOrderByFirstSeenTs, batchRows, memoryLimitMb);
+    }
+
+    ColumnarExporter(ReplayDataSource replayDataSource,
+                     Function<UUID, List<AlarmEvent>> alarmLoader,
+                     int batchRows,
+                     long memoryLimitMb) {
+        if (batchRows <= 0) {
+            throw new IllegalArgumentException("Columnar batch rows must be positive: " + batchRows);
+        }
+        this.replayDataSource = replayDataSource;
+        this.alarmLoader = alarmLoader;
+        this.batchRows = batchRows;
+        this.memoryLimit = memoryLimitMb * 1024 * 1024;
+    }
+
+    /**
+     * 将运行的一张表写为Arrow IPC流
+     */
+    public void write(UUID runId, Table table, Compression compression, OutputStream out) throws IOException {
+        Schema schema = switch (table) {
+            case JOINT_SAMPLE -> JOINT_SAMPLE_SCHEMA;
+            case POSE_SAMPLE -> POSE_SAMPLE_SCHEMA;
+            case ALARM_EVENT -> ALARM_EVENT_SCHEMA;
+        };
+        try (BufferAllocator allocator = new RootAllocator(memoryLimit);
+             VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+             ArrowStreamWriter writer = new ArrowStreamWriter(root, new DictionaryProvider.MapDictionaryProvider(),
+                     Channels.newChannel(out), IpcOption.DEFAULT, compression.codecFactory,
+                     compression.codecType)) {
+            writer.start();
+            long rows = switch (table) {
+                case JOINT_SAMPLE -> writeJointSamples(runId, root, writer);
+                case POSE_SAMPLE -> writePoseSamples(runId, root, writer);
+                case ALARM_EVENT -> writeAlarmEvents(runId, root, writer);
+            };
+            writer.end();
+            log.info("Exported {} {} rows for run: {} as Arrow IPC ({})", rows, table.fileName(), runId, compression);
+        }
+    }
+
+    private long writeJointSamples(UUID runId, VectorSchemaRoot root, ArrowStreamWriter writer) throws IOException {
+        TimeStampMicroTZVector ts = (TimeStampMicroTZVector) root.getVector("ts");
+        VarCharVector robotId = (VarCharVector) root.getVector("robot_id");
+        SmallIntVector jointIndex = (SmallIntVector) root.getVector("joint_index");
+        Float8Vector current = (Float8Vector) root.getVector("current_a");
+        Float8Vector vibration = (Float8Vector) root.getVector("vibration_rms");
+        Float8Vector temperature = (Float8Vector) root.getVector("temperature_c");
+        VarCharVector label = (VarCharVector) root.getVector("label");
+        RobotIdBytes robotIds = new RobotIdBytes();
+
+        ReplayCursor<JointSample> cursor = replayDataSource.jointSamples(runId, Instant.EPOCH);
+        long total = 0;
+        int row = 0;
+        root.allocateNew();
+        while (cursor.hasNext()) {
+            JointSample sample = cursor.next();
+            ts.setSafe(row, epochMicros(sample.getTs()));
+            robotId.setSafe(row, robotIds.get(sample.getRobot().getId()));
+            jointIndex.setSafe(row, sample.getJointIndex());
+            setDouble(current, row, sample.getCurrentA());
+            setDouble(vibration, row, sample.getVibrationRms());
+            setDouble(temperature, row, sample.getTemperatureC());
+            setEnum(label, row, sample.getLabel());
+            if (++row == batchRows) {
+                total += flush(root, writer, row);
+                row = 0;
+            }
+        }
+        return total + flush(root, writer, row);
+    }
+
+    private long writePoseSamples(UUID runId, VectorSchemaRoot root, ArrowStreamWriter writer) throws IOException {
+        TimeStampMicroTZVector ts = (TimeStampMicroTZVector) root.getVector("ts");
+        VarCharVector robotId = (VarCharVector) root.getVector("robot_id");
+        Float8Vector x = (Float8Vector) root.getVector("x");
+        Float8Vector y = (Float8Vector) root.getVector("y");
+        Float8Vector z = (Float8Vector) root.getVector("z");
+        Float8Vector rx = (Float8Vector) root.getVector("rx");
+        Float8Vector ry = (Float8Vector) root.getVector("ry");
+        Float8Vector rz = (Float8Vector) root.getVector("rz");
+        VarCharVector label = (VarCharVector) root.getVector("label");
+        RobotIdBytes robotIds = new RobotIdBytes();
+
+        ReplayCursor<PoseSample> cursor = replayDataSource.poseSamples(runId, Instant.EPOCH);
+        long total = 0;
+        int row = 0;
+        root.allocateNew();
+        while (cursor.hasNext()) {
+            PoseSample sample = cursor.next();
+            ts.setSafe(row, epochMicros(sample.getTs()));
+            robotId.setSafe(row, robotIds.get(sample.getRobot().getId()));
+            setDouble(x, row, sample.getX());
+            setDouble(y, row, sample.getY());
+            setDouble(z, row, sample.getZ());
+            setDouble(rx, row, sample.getRx());
+            setDouble(ry, row, sample.getRy());
+            setDouble(rz, row, sample.getRz());
+            setEnum(label, row, sample.getLabel());
+            if (++row == batchRows) {
+                total += flush(root, writer, row);
+                row = 0;
+            }
+        }
+        return total + flush(root, writer, row);
+    }
+
+    private long writeAlarmEvents(UUID runId, VectorSchemaRoot root, ArrowStreamWriter writer) throws IOException {
+        VarCharVector id = (VarCharVector) root.getVector("id");
+        VarCharVector robotId = (VarCharVector) root.getVector("robot_id");
+        IntVector jointIndex = (IntVector) root.getVector("joint_index");
+        VarCharVector alarmType = (VarCharVector) root.getVector("alarm_type");
+        VarCharVector severity = (VarCharVector) root.getVector("severity");
+        VarCharVector status = (VarCharVector) root.getVector("status");
+        VarCharVector detector = (VarCharVector) root.getVector("detector");
+        Float8Vector score = (Float8Vector) root.getVector("score");
+        IntVector count = (IntVector) root.getVector("count");
+        TimeStampMicroTZVector firstSeen = (TimeStampMicroTZVector) root.getVector("first_seen_ts");
+        TimeStampMicroTZVector lastSeen = (TimeStampMicroTZVector) root.getVector("last_seen_ts");
+        VarCharVector dedupKey = (VarCharVector) root.getVector("dedup_key");
+        RobotIdBytes robotIds = new RobotIdBytes();
+
+        // 单个运行的告警经去重合并，数量远小于样本，一次查询读出
+        List<AlarmEvent> alarms = alarmLoader.apply(runId);
+        long total = 0;
+        int row = 0;
+        root.allocateNew();
+        for (AlarmEvent alarm : alarms) {
+            id.setSafe(row, utf8(alarm.getId().toString()));
+            robotId.setSafe(row, robotIds.get(alarm.getRobot().getId()));
+            if (alarm.getJointIndex() != null) {
+                jointIndex.setSafe(row, alarm.getJointIndex());
+            } else {
+                jointIndex.setNull(row);
+            }
+            setEnum(alarmType, row, alarm.getAlarmType());
+            setEnum(severity, row, alarm.getSeverity());
+            setEnum(status, row, alarm.getStatus());
+            detector.setSafe(row, utf8(alarm.getDetector()));
+            setDouble(score, row, alarm.getScore());
+            count.setSafe(row, alarm.getCount());
+            firstSeen.setSafe(row, epochMicros(alarm.getFirstSeenTs()));
+            lastSeen.setSafe(row, epochMicros(alarm.getLastSeenTs()));
+            dedupKey.setSafe(row, utf8(alarm.getDedupKey()));
+            if (++row == batchRows) {
+                total += flush(root, writer, row);
+                row = 0;
+            }
+        }
+        return total + flush(root, writer, row);
+    }
+
+    /**
+     * 写出当前批次并复用列缓冲区；空表只输出schema，不写空批次
+     */
+    private static int flush(VectorSchemaRoot root, ArrowStreamWriter writer, int rows) throws IOException {
+        if (rows == 0) {
+            return 0;
+        }
+        root.setRowCount(rows);
+        writer.writeBatch();
+        for (FieldVector vector : root.getFieldVectors()) {
+            vector.reset();
+        }
+        return rows;
+    }
+
+    static long epochMicros(Instant ts) {
+        return Math.addExact(Math.multiplyExact(ts.getEpochSecond(), 1_000_000L), ts.getNano() / 1_000);
+    }
+
+    private static void setDouble(Float8Vector vector, int row, Double value) {
+        if (value != null) {
+            vector.setSafe(row, value);
+        } else {
+            vector.setNull(row);
+        }
+    }
+
+    private static void setEnum(VarCharVector vector, int row, Enum<?> value) {
+        if (value != null) {
+            vector.setSafe(row, utf8(value.name()));
+        } else {
+            vector.setNull(row);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Field timestampField(String name, boolean nullable) {
+        ArrowType type = new ArrowType.Timestamp(TimeUnit.MICROSECOND, UTC);
+        return new Field(name, nullable ? FieldType.nullable(type) : FieldType.notNullable(type), null);
+    }
+
+    private static Field utf8Field(String name, boolean nullable) {
+        return new Field(name, nullable ? FieldType.nullable(ArrowType.Utf8.INSTANCE)
+                : FieldType.notNullable(ArrowType.Utf8.INSTANCE), null);
+    }
+
+    private static Field float64Field(String name) {
+        return new Field(name, FieldType.nullable(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)), null);
+    }
+
+    /**
+     * 运行内机器人数很少，缓存每个机器人ID的UTF-8字节，避免每行重复编码
+     */
+    private static final class RobotIdBytes {
+        private final Map<UUID, byte[]> cache = new HashMap<>();
+
+        byte[] get(UUID robotId) {
+            return cache.computeIfAbsent(robotId, id -> utf8(id.toString()));
+        }
+    }
+}
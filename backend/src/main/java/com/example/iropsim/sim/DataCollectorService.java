@@ -5,9 +5,12 @@ import com.example.iropsim.entity.JointSample;
 import com.example.iropsim.entity.PoseSample;
 import com.example.iropsim.entity.Robot;
 import com.example.iropsim.entity.ScenarioRun;
+import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * 数据采集服务接口 - 策略模式核心接口
@@ -86,6 +89,47 @@ public interface DataCollectorService {
     PoseSample collectPoseSample(Robot robot, ScenarioRun scenarioRun,
                                 Instant timestamp, List<FaultInjection> activeFaults);
 
+    /**
+     * 一次生成机器人在当前时刻的全部关节数据和位姿数据
+     *
+     * <p>仿真tick按机器人调用该方法。默认实现逐个关节调用{@link #collectJointSample}，
+     * 实现类可以覆盖，把与关节无关的参数解析和三角函数计算在一帧内只做一次。</p>
+     *
+     * <p>关节采集失败时抛出异常；位姿采集失败只记录日志，返回帧的位姿为null。</p>
+     *
+     * @param robot 机器人实体
+     * @param scenarioRun 场景运行实例
+     * @param timestamp 数据时间戳
+     * @param activeFaults 当前激活的故障注入列表
+     * @return 关节数据（按关节序号）与位姿数据
+     */
+    default RobotFrame collectRobotFrame(Robot robot, ScenarioRun scenarioRun,
+                                         Instant timestamp, List<FaultInjection> activeFaults) {
+        List<JointSample> jointSamples = new ArrayList<>(robot.getJointCount());
+        for (int jointIndex = 0; jointIndex < robot.getJointCount(); jointIndex++) {
+            jointSamples.add(collectJointSample(robot, jointIndex, scenarioRun, timestamp, activeFaults));
+        }
+
+        PoseSample poseSample = null;
+        try {
+            poseSample = collectPoseSample(robot, scenarioRun, timestamp, activeFaults);
+        } catch (RuntimeException e) {
+            LoggerFactory.getLogger(getClass()).error("Failed to collect pose sample for robot {}: {}",
+                    robot.getId(), e.getMessage());
+        }
+        return new RobotFrame(jointSamples, poseSample);
+    }
+
+    /**
+     * 释放某次运行的缓存状态
+     *
+     * <p>运行启动前和结束后由仿真引擎调用，默认无操作。</p>
+     *
+     * @param runId 场景运行ID
+     */
+    default void releaseRun(UUID runId) {
+    }
+
     /**
      * 获取当前数据源类型
      *
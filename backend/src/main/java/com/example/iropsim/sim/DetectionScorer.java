@@ -0,0 +1,296 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.detection.DetectedAlarm;
+import com.example.iropsim.detection.DetectorType;
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.FaultInjection;
+import com.example.iropsim.entity.JointSample;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * 检测器评分
+ *
+ * <p>以关节样本标签为真值，用{@link AlarmIntervalSweep}在一次按时间排序的扫描中把样本与告警区间对齐：
+ * 样本时刻该机器人关节上存在某检测器的活跃告警即为该检测器的预测正例。
+ * 总代价O((n + m) log m)，n为样本数，m为告警数，不对每个样本重新查找告警。</p>
+ *
+ * <p>检测延迟：对每个故障在该检测器按首次时间排序的告警中二分查找窗口[startTs, endTs]内的首个告警。</p>
+ *
+ * <p>落库告警（{@link AlarmEvent}）和批量离线检测的告警（{@link DetectedAlarm}）按相同区间规则评分，
+ * 在线报告与参数扫描的精确率、召回率和检测延迟可直接比较。</p>
+ *
+ * <p>样本须按时间升序传入{@link #accept}。非线程安全，每次评测使用独立实例。</p>
+ */
+public class DetectionScorer {
+
+    // 下标为DetectorType序号
+    private static final DetectorType[] DETECTORS = DetectorType.values();
+
+    private static final int TP = 0;
+    private static final int FP = 1;
+    private static final int TN = 2;
+    private static final int FN = 3;
+
+    // 各检测器全部告警的首次出现时间（升序），用于故障检测延迟
+    private final List<List<Instant>> firstSeenByDetector = new ArrayList<>(DETECTORS.length);
+
+    private final AlarmIntervalSweep<Interval> sweep;
+    private final long[][] confusion = new long[DETECTORS.length][4];
+    private final boolean[] predicted = new boolean[DETECTORS.length];
+
+    /**
+     * @param alarms 运行内的告警，顺序不限；未知检测器的告警不参与评分
+     */
+    public DetectionScorer(List<AlarmEvent> alarms) {
+        this(alarms.stream().map(alarm -> Interval.of(alarm.getRobot().getId(), alarm.getJointIndex(),
+                alarm.getDetector(), alarm.getFirstSeenTs(), alarm.getLastSeenTs())));
+    }
+
+    /**
+     * 离线检测告警的评分
+     *
+     * @param alarms 运行内某组参数检测出的告警，顺序不限；未知检测器的告警不参与评分
+     */
+    public static DetectionScorer forDetectedAlarms(List<DetectedAlarm> alarms) {
+        return new DetectionScorer(alarms.stream().map(alarm -> Interval.of(alarm.getRobotId(), alarm.getJointIndex(),
+                alarm.getDetector(), alarm.getFirstSeenTs(), alarm.getLastSeenTs())));
+    }
+
+    private DetectionScorer(Stream<Interval> intervals) {
+        List<Interval> sorted = intervals
+                .filter(interval -> interval.detector >= 0)
+                .sorted(Comparator.comparing(Interval::getFirstSeenTs))
+                .toList();
+
+        for (int d = 0; d < DETECTORS.length; d++) {
+            firstSeenByDetector.add(new ArrayList<>());
+        }
+        for (Interval interval : sorted) {
+            firstSeenByDetector.get(interval.detector).add(interval.firstSeenTs);
+        }
+        sweep = new AlarmIntervalSweep<>(sorted, Interval.FIELDS);
+    }
+
+    /**
+     * 按时间顺序计入一个关节样本
+     */
+    public void accept(JointSample sample) {
+        sweep.advanceTo(sample.getTs());
+
+        Arrays.fill(predicted, false);
+        for (Interval interval : sweep.activeAt(sample.getRobot().getId(), sample.getJointIndex())) {
+            predicted[interval.detector] = true;
+        }
+
+        boolean actual = sample.getLabel() != null && sample.getLabel() != JointSample.SampleLabel.NORMAL;
+        for (int d = 0; d < DETECTORS.length; d++) {
+            int cell = predicted[d] ? (actual ? TP : FP) : (actual ? FN : TN);
+            confusion[d][cell]++;
+        }
+    }
+
+    /**
+     * 故障开始到任一检测器首次告警的延迟，故障窗口内没有告警时为null
+     */
+    public Duration detectionDelay(FaultInjection fault) {
+        Instant earliest = null;
+        for (int d = 0; d < DETECTORS.length; d++) {
+            Instant detected = firstDetection(fault, d);
+            if (detected != null && (earliest == null || detected.isBefore(earliest))) {
+                earliest = detected;
+            }
+        }
+        return earliest != null ? Duration.between(fault.getStartTs(), earliest) : null;
+    }
+
+    /**
+     * 汇总已计入样本的评分和各故障的检测延迟
+     */
+    public EvaluationReport.DetectorPerformance result(List<FaultInjection> faults) {
+        return combine(List.of(this), List.of(faults));
+    }
+
+    /**
+     * 合并多个运行的评分：混淆矩阵逐项相加，检测延迟按各运行自己的故障计算后合并为一个分布
+     *
+     * @param scorers 各运行的评分
+     * @param faults 与scorers一一对应的各运行故障
+     */
+    public static EvaluationReport.DetectorPerformance combine(List<DetectionScorer> scorers,
+                                                               List<List<FaultInjection>> faults) {
+        if (scorers.size() != faults.size()) {
+            throw new IllegalArgumentException("Expected faults for each of " + scorers.size() + " scorers");
+        }
+        Map<String, EvaluationReport.DetectorScore> scores = new LinkedHashMap<>();
+        for (int d = 0; d < DETECTORS.length; d++) {
+            long[] c = new long[4];
+            List<Duration> delays = new ArrayList<>();
+            int faultCount = 0;
+            for (int r = 0; r < scorers.size(); r++) {
+                DetectionScorer scorer = scorers.get(r);
+                for (int cell = 0; cell < c.length; cell++) {
+                    c[cell] += scorer.confusion[d][cell];
+                }
+                for (FaultInjection fault : faults.get(r)) {
+                    Instant detected = scorer.firstDetection(fault, d);
+                    if (detected != null) {
+                        delays.add(Duration.between(fault.getStartTs(), detected));
+                    }
+                }
+                faultCount += faults.get(r).size();
+            }
+            scores.put(DETECTORS[d].name(), EvaluationReport.DetectorScore.builder()
+                    .truePositives(c[TP])
+                    .falsePositives(c[FP])
+                    .trueNegatives(c[TN])
+                    .falseNegatives(c[FN])
+                    .accuracy(ratio(c[TP] + c[TN], c[TP] + c[FP] + c[TN] + c[FN]))
+                    .precision(ratio(c[TP], c[TP] + c[FP]))
+                    .recall(ratio(c[TP], c[TP] + c[FN]))
+                    .detectedFaults(delays.size())
+                    .missedFaults(faultCount - delays.size())
+                    .detectionDelay(distribution(delays))
+                    .build());
+        }
+
+        List<Duration> earliest = new ArrayList<>();
+        for (int r = 0; r < scorers.size(); r++) {
+            for (FaultInjection fault : faults.get(r)) {
+                Duration delay = scorers.get(r).detectionDelay(fault);
+                if (delay != null) {
+                    earliest.add(delay);
+                }
+            }
+        }
+
+        EvaluationReport.DetectorScore threshold = scores.get(DetectorType.THRESHOLD.name());
+        EvaluationReport.DetectorScore zScore = scores.get(DetectorType.Z_SCORE.name());
+        return EvaluationReport.DetectorPerformance.builder()
+                .thresholdAccuracy(threshold.getAccuracy())
+                .thresholdPrecision(threshold.getPrecision())
+                .thresholdRecall(threshold.getRecall())
+                .zScoreAccuracy(zScore.getAccuracy())
+                .zScorePrecision(zScore.getPrecision())
+                .zScoreRecall(zScore.getRecall())
+                .avgDetectionDelay(distribution(earliest).getMean())
+                .detectors(scores)
+                .build();
+    }
+
+    /**
+     * 指定检测器在故障窗口[startTs, endTs]内的首个告警时间
+     */
+    private Instant firstDetection(FaultInjection fault, int detector) {
+        List<Instant> firstSeen = firstSeenByDetector.get(detector);
+        int index = Collections.binarySearch(firstSeen, fault.getStartTs());
+        if (index >= 0) {
+            // 相同时间可能有多个告警，取第一个
+            while (index > 0 && firstSeen.get(index - 1).equals(fault.getStartTs())) {
+                index--;
+            }
+        } else {
+            index = -index - 1;
+        }
+        if (index < firstSeen.size() && !firstSeen.get(index).isAfter(fault.getEndTs())) {
+            return firstSeen.get(index);
+        }
+        return null;
+    }
+
+    private static int detectorIndex(String detector) {
+        DetectorType type = DetectorType.fromName(detector);
+        return type != null ? type.ordinal() : -1;
+    }
+
+    private static double ratio(long numerator, long denominator) {
+        return denominator > 0 ? (double) numerator / denominator : 0.0;
+    }
+
+    /**
+     * 延迟分布，分位数取最近秩
+     */
+    static EvaluationReport.DelayDistribution distribution(List<Duration> delays) {
+        if (delays.isEmpty()) {
+            return EvaluationReport.DelayDistribution.builder().count(0).build();
+        }
+        List<Duration> sorted = new ArrayList<>(delays);
+        Collections.sort(sorted);
+        long totalNanos = 0;
+        for (Duration delay : sorted) {
+            totalNanos += delay.toNanos();
+        }
+        return EvaluationReport.DelayDistribution.builder()
+                .count(sorted.size())
+                .min(sorted.get(0))
+                .mean(Duration.ofNanos(totalNanos / sorted.size()))
+                .p50(percentile(sorted, 0.50))
+                .p95(percentile(sorted, 0.95))
+                .max(sorted.get(sorted.size() - 1))
+                .build();
+    }
+
+    private static Duration percentile(List<Duration> sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1);
+    }
+
+    /**
+     * 参与评分的告警区间
+     */
+    private static final class Interval {
+        static final AlarmIntervalSweep.Fields<Interval> FIELDS = new AlarmIntervalSweep.Fields<>() {
+            @Override
+            public UUID robotId(Interval interval) {
+                return interval.robotId;
+            }
+
+            @Override
+            public Integer jointIndex(Interval interval) {
+                return interval.jointIndex;
+            }
+
+            @Override
+            public Instant firstSeenTs(Interval interval) {
+                return interval.firstSeenTs;
+            }
+
+            @Override
+            public Instant lastSeenTs(Interval interval) {
+                return interval.lastSeenTs;
+            }
+        };
+
+        final UUID robotId;
+        final Integer jointIndex;
+        final int detector;
+        final Instant firstSeenTs;
+        final Instant lastSeenTs;
+
+        private Interval(UUID robotId, Integer jointIndex, int detector, Instant firstSeenTs, Instant lastSeenTs) {
+            this.robotId = robotId;
+            this.jointIndex = jointIndex;
+            this.detector = detector;
+            this.firstSeenTs = firstSeenTs;
+            this.lastSeenTs = lastSeenTs;
+        }
+
+        static Interval of(UUID robotId, Integer jointIndex, String detector, Instant firstSeenTs, Instant lastSeenTs) {
+            return new Interval(robotId, jointIndex, detectorIndex(detector), firstSeenTs, lastSeenTs);
+        }
+
+        Instant getFirstSeenTs() {
+            return firstSeenTs;
+        }
+    }
+}
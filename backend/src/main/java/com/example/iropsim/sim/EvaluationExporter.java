@@ -0,0 +1,266 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.FaultInjection;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.ScenarioRun;
+import com.example.iropsim.repository.AlarmEventRepository;
+import com.example.iropsim.repository.FaultInjectionRepository;
+import com.example.iropsim.repository.ScenarioRunRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 评测数据流式导出
+ *
+ * <p>样本通过{@link ReplayDataSource}按(ts, id)键集分块读出后逐行写入输出流，
+ * 不在内存中构建完整的{@link EvaluationReport}、CSV文本或JSON字节数组，内存占用只与分块大小有关。</p>
+ *
+ * <p>JSON导出先写运行基础信息和样本数组，扫描样本的同时累计样本统计并送入{@link DetectionScorer}，
+ * 最后写出告警、统计和检测器性能，字段名与{@link EvaluationReport}一致。
+ * 样本和告警按平铺字段输出（robotId代替嵌套的机器人实体）。</p>
+ */
+@Slf4j
+@Component
+public class EvaluationExporter {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Function<UUID, Optional<ScenarioRun>> runLoader;
+    private final Function<UUID, List<AlarmEvent>> alarmLoader;
+    private final Function<UUID, List<FaultInjection>> faultLoader;
+    private final ReplayDataSource replayDataSource;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public EvaluationExporter(ScenarioRunRepository scenarioRunRepository,
+                              AlarmEventRepository alarmEventRepository,
+                              FaultInjectionRepository faultInjectionRepository,
+                              ReplayDataSource replayDataSource,
+                              ObjectMapper objectMapper) {
+        this(scenarioRunRepository::findWithScenarioById, alarmEventRepository::findByScenarioRunIdOrderByFirstSeenTs,
+                faultInjectionRepository::findByScenarioRunId, replayDataSource, objectMapper);
+    }
+
+    EvaluationExporter(Function<UUID, Optional<ScenarioRun>> runLoader,
+                       Function<UUID, List<AlarmEvent>> alarmLoader,
+                       Function<UUID, List<FaultInjection>> faultLoader,
+                       ReplayDataSource replayDataSource,
+                       ObjectMapper objectMapper) {
+        this.runLoader = runLoader;
+        this.alarmLoader = alarmLoader;
+        this.faultLoader = faultLoader;
+        this.replayDataSource = replayDataSource;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 检查运行存在，导出开始写响应前调用，以便返回错误状态码而不是中断的响应流
+     */
+    public ScenarioRun requireRun(UUID runId) {
+        return runLoader.apply(runId)
+                .orElseThrow(() -> new IllegalArgumentException("Scenario run not found: " + runId));
+    }
+
+    /**
+     * 按时间顺序逐行写出运行的关节样本CSV
+     *
+     * <p>告警列标注样本时刻该机器人关节上处于[firstSeenTs, lastSeenTs]区间内的告警，
+     * 由样本流与按首次时间排序的告警一次归并得到；同时有多个告警时各列按首次时间顺序以"|"连接，
+     * 各列同一位置对应同一告警。</p>
+     */
+    public void writeCsv(UUID runId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        writer.write("timestamp,joint_index,current_a,vibration_rms,temperature_c,alarm_type,severity,detector,score\n");
+
+        AlarmIntervalSweep<AlarmEvent> sweep = AlarmIntervalSweep.of(alarmLoader.apply(runId));
+        long rows = 0;
+        long annotatedRows = 0;
+        ReplayCursor<JointSample> cursor = replayDataSource.jointSamples(runId, Instant.EPOCH);
+        while (cursor.hasNext()) {
+            JointSample sample = cursor.next();
+            sweep.advanceTo(sample.getTs());
+            List<AlarmEvent> alarms = sweep.activeAt(sample.getRobot().getId(), sample.getJointIndex());
+            writer.write(sample.getTs().toString());
+            writer.write(',');
+            writer.write(Integer.toString(sample.getJointIndex()));
+            writer.write(',');
+            writeNullable(writer, sample.getCurrentA());
+            writer.write(',');
+            writeNullable(writer, sample.getVibrationRms());
+            writer.write(',');
+            writeNullable(writer, sample.getTemperatureC());
+            if (alarms.isEmpty()) {
+                writer.write(",,,,\n"); // 告警类型、严重程度、检测器、得分
+            } else {
+                writeAlarmColumns(writer, alarms);
+                annotatedRows++;
+            }
+            rows++;
+        }
+        writer.flush();
+        log.info("Exported {} CSV rows ({} with alarms) for run: {} in {} chunks",
+                rows, annotatedRows, runId, cursor.getLoadedChunks());
+    }
+
+    private static void writeAlarmColumns(Writer writer, List<AlarmEvent> alarms) throws IOException {
+        writeJoined(writer, alarms, alarm -> alarm.getAlarmType().name());
+        writeJoined(writer, alarms, alarm -> alarm.getSeverity().name());
+        writeJoined(writer, alarms, AlarmEvent::getDetector);
+        writeJoined(writer, alarms, alarm -> alarm.getScore() != null ? Double.toString(alarm.getScore()) : "");
+        writer.write('\n');
+    }
+
+    private static void writeJoined(Writer writer, List<AlarmEvent> alarms, Function<AlarmEvent, String> column)
+            throws IOException {
+        writer.write(',');
+        for (int i = 0; i < alarms.size(); i++) {
+            if (i > 0) {
+                writer.write('|');
+            }
+            writer.write(column.apply(alarms.get(i)));
+        }
+    }
+
+    /**
+     * 写出运行的完整评测数据JSON
+     *
+     * @param scenarioRun 已由{@link #requireRun}校验并加载场景的运行
+     */
+    public void writeJson(ScenarioRun scenarioRun, OutputStream out) throws IOException {
+        UUID runId = scenarioRun.getId();
+        List<AlarmEvent> alarmEvents = alarmLoader.apply(runId);
+        List<FaultInjection> faultInjections = faultLoader.apply(runId);
+        DetectionScorer scorer = new DetectionScorer(alarmEvents);
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // 由调用方负责关闭响应流（gzip时需要先finish）
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeStringField("scenarioRunId", runId.toString());
+            json.writeStringField("scenarioName", scenarioRun.getScenario() != null ? scenarioRun.getScenario().getName() : null);
+            json.writeObjectField("startTime", scenarioRun.getStartedAt());
+            json.writeObjectField("endTime", scenarioRun.getEndedAt());
+            Duration duration = scenarioRun.getStartedAt() != null && scenarioRun.getEndedAt() != null
+                    ? Duration.between(scenarioRun.getStartedAt(), scenarioRun.getEndedAt()) : null;
+            json.writeObjectField("duration", duration);
+            json.writeNumberField("samplingRateHz", scenarioRun.getRateHz());
+
+            // 关节样本：流式写出，同时计入评分和统计
+            long jointCount = 0;
+            BitSet joints = new BitSet();
+            json.writeArrayFieldStart("jointSamples");
+            ReplayCursor<JointSample> jointCursor = replayDataSource.jointSamples(runId, Instant.EPOCH);
+            while (jointCursor.hasNext()) {
+                JointSample sample = jointCursor.next();
+                scorer.accept(sample);
+                joints.set(sample.getJointIndex());
+                jointCount++;
+                writeJointSample(json, sample);
+            }
+            json.writeEndArray();
+
+            long poseCount = 0;
+            json.writeArrayFieldStart("poseSamples");
+            ReplayCursor<PoseSample> poseCursor = replayDataSource.poseSamples(runId, Instant.EPOCH);
+            while (poseCursor.hasNext()) {
+                writePoseSample(json, poseCursor.next());
+                poseCount++;
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("alarmEvents");
+            for (AlarmEvent alarm : alarmEvents) {
+                writeAlarmEvent(json, alarm);
+            }
+            json.writeEndArray();
+
+            json.writeObjectField("sampleStats", EvaluationReport.SampleStatistics.builder()
+                    .totalJointSamples((int) jointCount)
+                    .totalPoseSamples((int) poseCount)
+                    .jointsCount(joints.cardinality())
+                    .timeSpan(duration)
+                    .avgSamplingIntervalMs(1000.0 / scenarioRun.getRateHz())
+                    .build());
+            json.writeObjectField("alarmStats", SimulationEngine.calculateAlarmStatistics(alarmEvents));
+            json.writeObjectField("detectorPerformance", scorer.result(faultInjections));
+            json.writeObjectField("faultInjections", faultInjections.stream()
+                    .map(fault -> SimulationEngine.createFaultInjectionSummary(fault, scorer.detectionDelay(fault)))
+                    .toList());
+            json.writeEndObject();
+
+            log.info("Exported {} joint samples and {} pose samples as JSON for run: {}", jointCount, poseCount, runId);
+        }
+    }
+
+    private static void writeJointSample(JsonGenerator json, JointSample sample) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", sample.getId());
+        json.writeStringField("ts", sample.getTs().toString());
+        json.writeStringField("robotId", sample.getRobot().getId().toString());
+        json.writeNumberField("jointIndex", sample.getJointIndex());
+        json.writeObjectField("currentA", sample.getCurrentA());
+        json.writeObjectField("vibrationRms", sample.getVibrationRms());
+        json.writeObjectField("temperatureC", sample.getTemperatureC());
+        json.writeStringField("label", sample.getLabel() != null ? sample.getLabel().name() : null);
+        json.writeEndObject();
+    }
+
+    private static void writePoseSample(JsonGenerator json, PoseSample sample) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", sample.getId());
+        json.writeStringField("ts", sample.getTs().toString());
+        json.writeStringField("robotId", sample.getRobot().getId().toString());
+        json.writeObjectField("x", sample.getX());
+        json.writeObjectField("y", sample.getY());
+        json.writeObjectField("z", sample.getZ());
+        json.writeObjectField("rx", sample.getRx());
+        json.writeObjectField("ry", sample.getRy());
+        json.writeObjectField("rz", sample.getRz());
+        json.writeStringField("label", sample.getLabel() != null ? sample.getLabel().name() : null);
+        json.writeEndObject();
+    }
+
+    private static void writeAlarmEvent(JsonGenerator json, AlarmEvent alarm) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("id", alarm.getId() != null ? alarm.getId().toString() : null);
+        json.writeStringField("robotId", alarm.getRobot().getId().toString());
+        json.writeObjectField("jointIndex", alarm.getJointIndex());
+        json.writeStringField("alarmType", alarm.getAlarmType().name());
+        json.writeStringField("severity", alarm.getSeverity().name());
+        json.writeStringField("status", alarm.getStatus().name());
+        json.writeBooleanField("suppressed", Boolean.TRUE.equals(alarm.getSuppressed()));
+        json.writeStringField("detector", alarm.getDetector());
+        json.writeNumberField("score", alarm.getScore());
+        json.writeNumberField("count", alarm.getCount());
+        json.writeStringField("firstSeenTs", alarm.getFirstSeenTs().toString());
+        json.writeStringField("lastSeenTs", alarm.getLastSeenTs().toString());
+        json.writeObjectField("evidence", alarm.getEvidence());
+        json.writeEndObject();
+    }
+
+    private static void writeNullable(Writer writer, Double value) throws IOException {
+        if (value != null) {
+            writer.write(Double.toString(value));
+        }
+    }
+}
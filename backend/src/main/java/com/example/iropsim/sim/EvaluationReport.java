@@ -3,6 +3,7 @@ package com.example.iropsim.sim;
 import com.example.iropsim.entity.AlarmEvent;
 import com.example.iropsim.entity.JointSample;
 import com.example.iropsim.entity.PoseSample;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -66,7 +67,8 @@ public class EvaluationReport {
     @AllArgsConstructor
     public static class AlarmStatistics {
         private int totalAlarms;
-        private int openAlarms;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer openAlarms; // 离线检测的告警没有处理状态，为null
         private int acknowledgedAlarms;
         private int suppressedAlarms;
         private Map<String, Integer> alarmsByType; // 按告警类型统计
@@ -86,6 +88,46 @@ public class EvaluationReport {
         private double zScorePrecision;
         private double zScoreRecall;
         private Duration avgDetectionDelay;
+        private Map<String, DetectorScore> detectors; // 按检测器的样本级混淆矩阵与检测延迟
+    }
+
+    /**
+     * 单个检测器的样本级评分
+     *
+     * <p>以关节样本标签为真值：标签非NORMAL为正例；样本时刻该机器人关节上存在该检测器的告警区间
+     * [firstSeenTs, lastSeenTs]为预测正例。</p>
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DetectorScore {
+        private long truePositives;
+        private long falsePositives;
+        private long trueNegatives;
+        private long falseNegatives;
+        private double accuracy;
+        private double precision;
+        private double recall;
+        private int detectedFaults; // 故障窗口内出现该检测器告警的故障数
+        private int missedFaults;
+        private DelayDistribution detectionDelay;
+    }
+
+    /**
+     * 故障开始到首次告警的延迟分布
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DelayDistribution {
+        private int count;
+        private Duration min;
+        private Duration mean;
+        private Duration p50;
+        private Duration p95;
+        private Duration max;
     }
 
     @Data
@@ -0,0 +1,166 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.FaultInjection;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 单次运行的故障注入时间线索引
+ *
+ * <p>把各故障的激活窗口[startTs, endTs]展开为按时间排序的边界点，相邻边界之间的区间内
+ * 激活故障集合不变，构建时一次扫描预先算出每个区间的故障列表。查询"t时刻激活的故障"只需
+ * 对边界数组做一次二分查找，tick路径上不再访问数据库。</p>
+ *
+ * <p>新增故障时重建快照并整体替换（写时复制），tick线程无锁读取。返回的列表按故障加入顺序排列，
+ * 同一故障ID重复加入时以新实体覆盖旧实体。</p>
+ */
+public class FaultTimeline {
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * 加入单个故障，已存在同ID故障时覆盖
+     */
+    public void add(FaultInjection fault) {
+        addAll(List.of(fault));
+    }
+
+    /**
+     * 批量加入故障，只重建一次快照
+     */
+    public synchronized void addAll(Collection<FaultInjection> faults) {
+        if (faults.isEmpty()) {
+            return;
+        }
+        List<FaultInjection> merged = new ArrayList<>(snapshot.faults);
+        for (FaultInjection fault : faults) {
+            int existing = indexOf(merged, fault);
+            if (existing >= 0) {
+                merged.set(existing, fault);
+            } else {
+                merged.add(fault);
+            }
+        }
+        snapshot = Snapshot.build(merged);
+    }
+
+    /**
+     * 查询指定时刻激活的故障（startTs <= t <= endTs）
+     *
+     * @return 不可变列表，没有激活故障时为空列表
+     */
+    public List<FaultInjection> activeAt(Instant timestamp) {
+        return snapshot.activeAt(timestamp);
+    }
+
+    /**
+     * 时间线中的全部故障，按加入顺序排列
+     */
+    public List<FaultInjection> getFaults() {
+        return snapshot.faults;
+    }
+
+    public int size() {
+        return snapshot.faults.size();
+    }
+
+    private static int indexOf(List<FaultInjection> faults, FaultInjection fault) {
+        if (fault.getId() == null) {
+            return -1;
+        }
+        for (int i = 0; i < faults.size(); i++) {
+            if (fault.getId().equals(faults.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 不可变快照：boundaries[i]到boundaries[i+1]（不含）之间激活的故障为active[i]
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(List.of(), new Instant[0], List.of());
+
+        final List<FaultInjection> faults;
+        final Instant[] boundaries;
+        final List<List<FaultInjection>> active;
+
+        private Snapshot(List<FaultInjection> faults, Instant[] boundaries, List<List<FaultInjection>> active) {
+            this.faults = faults;
+            this.boundaries = boundaries;
+            this.active = active;
+        }
+
+        static Snapshot build(List<FaultInjection> faults) {
+            // 每个有效故障产生一个开始事件和一个结束事件，结束边界取endTs之后1纳秒以包含endTs本身
+            List<Event> events = new ArrayList<>(faults.size() * 2);
+            for (int i = 0; i < faults.size(); i++) {
+                FaultInjection fault = faults.get(i);
+                if (fault.getStartTs() == null || fault.getEndTs() == null
+                        || fault.getEndTs().isBefore(fault.getStartTs())) {
+                    continue;
+                }
+                events.add(new Event(fault.getStartTs(), i, true));
+                events.add(new Event(fault.getEndTs().plusNanos(1), i, false));
+            }
+            events.sort((a, b) -> a.ts.compareTo(b.ts));
+
+            List<Instant> boundaries = new ArrayList<>();
+            List<List<FaultInjection>> active = new ArrayList<>();
+            BitSet current = new BitSet(faults.size());
+            int e = 0;
+            while (e < events.size()) {
+                Instant ts = events.get(e).ts;
+                // 同一时刻的全部事件处理完后才生成区间
+                while (e < events.size() && events.get(e).ts.equals(ts)) {
+                    Event event = events.get(e++);
+                    current.set(event.faultIndex, event.start);
+                }
+                boundaries.add(ts);
+                active.add(collect(faults, current));
+            }
+
+            return new Snapshot(Collections.unmodifiableList(faults),
+                    boundaries.toArray(new Instant[0]), active);
+        }
+
+        private static List<FaultInjection> collect(List<FaultInjection> faults, BitSet indices) {
+            if (indices.isEmpty()) {
+                return List.of();
+            }
+            List<FaultInjection> result = new ArrayList<>(indices.cardinality());
+            for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+                result.add(faults.get(i));
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        List<FaultInjection> activeAt(Instant timestamp) {
+            int index = Arrays.binarySearch(boundaries, timestamp);
+            if (index < 0) {
+                // 未命中边界时落在插入点前一个区间
+                index = -index - 2;
+            }
+            return index < 0 ? List.of() : active.get(index);
+        }
+    }
+
+    private static final class Event {
+        final Instant ts;
+        final int faultIndex;
+        final boolean start;
+
+        Event(Instant ts, int faultIndex, boolean start) {
+            this.ts = ts;
+            this.faultIndex = faultIndex;
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.detection.DetectedAlarm;
+import com.example.iropsim.detection.DetectorConfig;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 无界面全速回放的检测结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadlessReplayResult {
+
+    private String scenarioRunId;
+    private DetectorConfig detectorConfig;
+
+    // 录制时间范围
+    private Instant recordedFrom;
+    private Instant recordedTo;
+
+    // 处理量与耗时
+    private long jointSamples;
+    private long anomalies;
+    private long elapsedMillis;
+    private double samplesPerSecond;
+    // 录制时长 / 回放耗时
+    private double speedup;
+
+    private List<DetectedAlarm> alarms;
+}
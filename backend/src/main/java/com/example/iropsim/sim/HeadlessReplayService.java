@@ -0,0 +1,89 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.detection.AlarmCollector;
+import com.example.iropsim.detection.DetectorConfig;
+import com.example.iropsim.detection.SampleDetector;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.ScenarioRun;
+import com.example.iropsim.repository.ScenarioRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 无界面全速回放
+ *
+ * <p>将录制的运行数据不按时间节奏、不推送WebSocket地逐条送入检测核心，返回检测得到的告警集合和耗时，
+ * 用于检测器改动的回归对比。每次回放使用独立的滑动窗口和内存告警集合，不写库、不改变运行状态，
+ * 与在线检测和其他回放互不影响。</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HeadlessReplayService {
+
+    private final ScenarioRunRepository scenarioRunRepository;
+    private final ReplayDataSource replayDataSource;
+
+    /**
+     * 使用指定检测参数全速回放一次运行
+     *
+     * @param config 候选检测参数，为null时使用默认参数
+     */
+    public HeadlessReplayResult replay(UUID runId, DetectorConfig config) {
+        DetectorConfig detectorConfig = config != null ? config : DetectorConfig.defaults();
+        SampleDetector detector = SampleDetector.create(detectorConfig);
+
+        ScenarioRun scenarioRun = scenarioRunRepository.findById(runId)
+                .orElseThrow(() -> new IllegalArgumentException("Scenario run not found: " + runId));
+        if (scenarioRun.getStatus() == ScenarioRun.RunStatus.RUNNING) {
+            throw new IllegalStateException("Simulation is currently running, cannot replay");
+        }
+
+        // 姿态样本不参与检测，只读取关节样本
+        ReplayCursor<JointSample> cursor = replayDataSource.jointSamples(runId, Instant.EPOCH);
+        AlarmCollector collector = new AlarmCollector();
+        Instant recordedFrom = null;
+        Instant recordedTo = null;
+        long samples = 0;
+
+        long startNanos = System.nanoTime();
+        while (cursor.hasNext()) {
+            JointSample jointSample = cursor.next();
+            if (recordedFrom == null) {
+                recordedFrom = jointSample.getTs();
+            }
+            recordedTo = jointSample.getTs();
+            detector.process(jointSample, collector);
+            samples++;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        double elapsedSeconds = elapsedNanos / 1e9;
+        double recordedSeconds = recordedFrom != null
+                ? Duration.between(recordedFrom, recordedTo).toNanos() / 1e9
+                : 0.0;
+
+        HeadlessReplayResult result = HeadlessReplayResult.builder()
+                .scenarioRunId(runId.toString())
+                .detectorConfig(detectorConfig)
+                .recordedFrom(recordedFrom)
+                .recordedTo(recordedTo)
+                .jointSamples(samples)
+                .anomalies(collector.getAnomalyCount())
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .samplesPerSecond(elapsedSeconds > 0 ? samples / elapsedSeconds : 0.0)
+                .speedup(elapsedSeconds > 0 ? recordedSeconds / elapsedSeconds : 0.0)
+                .alarms(collector.getAlarms())
+                .build();
+
+        log.info("Headless replay of run {} processed {} joint samples in {} ms ({} alarms, {}x real time)",
+                runId, samples, result.getElapsedMillis(), result.getAlarms().size(),
+                String.format("%.1f", result.getSpeedup()));
+        return result;
+    }
+}
@@ -12,6 +12,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * 远程设备数据采集器 - 真实设备数据采集策略实现
@@ -61,6 +62,9 @@ public class RemoteDeviceCollector implements DataCollectorService {
 
     private final RestTemplate restTemplate = new RestTemplate();
 
+    // 轮询/健康检查线程的线程工厂，开启虚拟线程时阻塞的REST调用不再占用平台线程
+    private final ThreadFactory simulationThreadFactory;
+
     // 数据缓冲队列 - 处理实时数据流
     private final BlockingQueue<DeviceData> dataBuffer = new LinkedBlockingQueue<>(1000);
 
@@ -286,7 +290,7 @@ public class RemoteDeviceCollector implements DataCollectorService {
      * 启动数据采集线程
      */
     private void startDataCollectionThread() {
-        Thread dataCollectionThread = new Thread(() -> {
+        Thread dataCollectionThread = simulationThreadFactory.newThread(() -> {
             while (connected) {
                 try {
                     DeviceData data = fetchDataFromDevice();
@@ -315,7 +319,6 @@ public class RemoteDeviceCollector implements DataCollectorService {
         });
 
         dataCollectionThread.setName("Device-Data-Collector");
-        dataCollectionThread.setDaemon(true);
         dataCollectionThread.start();
 
         log.info("Data collection thread started");
@@ -325,7 +328,7 @@ public class RemoteDeviceCollector implements DataCollectorService {
      * 启动健康检查线程
      */
     private void startHealthCheckThread() {
-        Thread healthCheckThread = new Thread(() -> {
+        Thread healthCheckThread = simulationThreadFactory.newThread(() -> {
             while (connected) {
                 try {
                     // 定期检查设备连接状态
@@ -353,7 +356,6 @@ public class RemoteDeviceCollector implements DataCollectorService {
         });
 
         healthCheckThread.setName("Device-Health-Check");
-        healthCheckThread.setDaemon(true);
         healthCheckThread.start();
 
         log.info("Health check thread started");
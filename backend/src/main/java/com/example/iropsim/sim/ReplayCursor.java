@@ -0,0 +1,89 @@
+package com.example.iropsim.sim;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 按时间顺序分块读取样本的游标
+ *
+ * <p>每次只在内存中保留一个分块，当前分块读完后以上一分块最后一条样本的(ts, id)为键集位置加载下一块，
+ * 每个分块是一次独立的短查询，不会在整个回放期间占用数据库连接。</p>
+ *
+ * @param <T> 样本类型
+ */
+public class ReplayCursor<T> {
+
+    /**
+     * 分块加载函数
+     */
+    @FunctionalInterface
+    public interface ChunkLoader<T> {
+        /**
+         * 加载下一分块
+         *
+         * @param after 上一分块的最后一条样本，首次加载时为null
+         * @param limit 分块大小
+         * @return 按(ts, id)升序排列的样本，不足limit条表示已到末尾
+         */
+        List<T> load(T after, int limit);
+    }
+
+    private final ChunkLoader<T> loader;
+    private final int chunkSize;
+
+    private List<T> chunk = List.of();
+    private int position;
+    private T last;
+    private boolean exhausted;
+    private long loadedChunks;
+
+    public ReplayCursor(ChunkLoader<T> loader, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.loader = loader;
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean hasNext() {
+        fill();
+        return position < chunk.size();
+    }
+
+    /**
+     * 查看下一条样本但不移动游标
+     */
+    public T peek() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Replay cursor exhausted");
+        }
+        return chunk.get(position);
+    }
+
+    public T next() {
+        T value = peek();
+        position++;
+        last = value;
+        return value;
+    }
+
+    /**
+     * 已加载的分块数
+     */
+    public long getLoadedChunks() {
+        return loadedChunks;
+    }
+
+    private void fill() {
+        if (position < chunk.size() || exhausted) {
+            return;
+        }
+        List<T> loaded = loader.load(last, chunkSize);
+        loadedChunks++;
+        chunk = loaded;
+        position = 0;
+        if (loaded.size() < chunkSize) {
+            exhausted = true;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.repository.JointSampleRepository;
+import com.example.iropsim.repository.PoseSampleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 回放数据源
+ *
+ * <p>按(ts, id)键集分页从数据库流式读取录制的样本，替代一次性加载整个运行的
+ * {@code findByScenarioRunOrderByTs}，内存占用只与分块大小有关。</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ReplayDataSource {
+
+    private final JointSampleRepository jointSampleRepository;
+    private final PoseSampleRepository poseSampleRepository;
+
+    @Value("${replay.chunk-size:5000}")
+    private int chunkSize;
+
+    /**
+     * 打开从指定时刻开始的回放流
+     */
+    public ReplayStream open(UUID runId, Instant from) {
+        return new ReplayStream(jointSamples(runId, from), poseSamples(runId, from));
+    }
+
+    public ReplayCursor<JointSample> jointSamples(UUID runId, Instant from) {
+        return new ReplayCursor<>((after, limit) -> after == null
+                ? jointSampleRepository.findReplayChunkFrom(runId, from, PageRequest.of(0, limit))
+                : jointSampleRepository.findReplayChunkAfter(runId, after.getTs(), after.getId(), PageRequest.of(0, limit)),
+                chunkSize);
+    }
+
+    public ReplayCursor<PoseSample> poseSamples(UUID runId, Instant from) {
+        return new ReplayCursor<>((after, limit) -> after == null
+                ? poseSampleRepository.findReplayChunkFrom(runId, from, PageRequest.of(0, limit))
+                : poseSampleRepository.findReplayChunkAfter(runId, after.getTs(), after.getId(), PageRequest.of(0, limit)),
+                chunkSize);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 回放中同一时间戳的一帧数据：全部机器人的关节样本和按机器人ID索引的位姿样本
+ */
+@Getter
+@AllArgsConstructor
+public class ReplayFrame {
+
+    private final Instant ts;
+    private final List<JointSample> jointSamples;
+    private final Map<UUID, PoseSample> poseSamples;
+}
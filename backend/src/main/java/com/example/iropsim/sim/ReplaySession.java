@@ -0,0 +1,280 @@
+package com.example.iropsim.sim;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 按录制时间戳调度的回放会话
+ *
+ * <p>回放时钟以锚点表示：锚点时刻{@code anchorNanos}对应录制时间{@code anchorTs}，
+ * 之后录制时间按{@code (now - anchorNanos) * speed}推进。每帧的推送时刻由帧时间戳换算得到，
+ * 录制中的采样间隔（包括停顿和不均匀间隔）按倍速原样还原，而不是按{@code rateHz * speed}固定周期推送。</p>
+ *
+ * <p>变速、暂停和跳转只在控制线程中重设锚点并唤醒回放线程，回放流只由回放线程访问：
+ * 跳转时回放线程从目标时刻重新打开回放流，利用(scenario_run_id, ts, id)索引直接定位，不重新扫描已回放的数据。</p>
+ */
+public class ReplaySession {
+
+    private final UUID runId;
+    private final Function<Instant, ReplayStream> streamOpener;
+    private final Consumer<ReplayFrame> frameHandler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    // 以下字段由lock保护
+    private Instant anchorTs;
+    private long anchorNanos;
+    private double speed;
+    private boolean paused;
+    private Instant pendingSeek;
+    private boolean cancelled;
+
+    private ReplayStream stream;
+
+    // 统计字段只由回放线程写入
+    private volatile Instant position;
+    private volatile long framesReplayed;
+    private volatile double latenessSumNanos;
+    private volatile long maxLatenessNanos;
+    private volatile boolean done;
+
+    /**
+     * @param stream       已打开的回放流，不能为空
+     * @param streamOpener 跳转时从指定时刻重新打开回放流
+     * @param frameHandler 每帧的处理逻辑（检测与推送）
+     */
+    public ReplaySession(UUID runId, ReplayStream stream, double speed,
+                         Function<Instant, ReplayStream> streamOpener, Consumer<ReplayFrame> frameHandler) {
+        validateSpeed(speed);
+        this.runId = runId;
+        this.stream = stream;
+        this.speed = speed;
+        this.streamOpener = streamOpener;
+        this.frameHandler = frameHandler;
+        this.anchorTs = stream.peekTs();
+        this.anchorNanos = System.nanoTime();
+    }
+
+    /**
+     * 在当前线程执行回放直到结束或取消
+     *
+     * @return 回放流全部推送完成时返回true，被取消时返回false
+     */
+    public boolean run() {
+        try {
+            while (true) {
+                Instant seekTo = takePendingSeek();
+                if (seekTo != null) {
+                    stream = streamOpener.apply(seekTo);
+                    anchorAtNextFrame();
+                }
+                if (isCancelled()) {
+                    return false;
+                }
+                if (!stream.hasNext()) {
+                    return true;
+                }
+                if (!awaitFrame(stream.peekTs())) {
+                    // 被取消或有新的跳转请求，重新检查
+                    continue;
+                }
+                ReplayFrame frame = stream.next();
+                frameHandler.accept(frame);
+                position = frame.getTs();
+                framesReplayed++;
+            }
+        } finally {
+            done = true;
+        }
+    }
+
+    public void setSpeed(double newSpeed) {
+        validateSpeed(newSpeed);
+        lock.lock();
+        try {
+            reanchor(System.nanoTime());
+            speed = newSpeed;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void pause() {
+        lock.lock();
+        try {
+            if (!paused) {
+                reanchor(System.nanoTime());
+                paused = true;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void resume() {
+        lock.lock();
+        try {
+            if (paused) {
+                anchorNanos = System.nanoTime();
+                paused = false;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 跳转到指定录制时刻，下一帧为该时刻及之后的第一帧并立即推送（暂停中则在恢复时推送）
+     *
+     * <p>回放线程重新打开回放流后以该帧重设锚点，目标时刻与该帧之间的录制空档不再按倍速等待。</p>
+     */
+    public void seek(Instant ts) {
+        if (ts == null) {
+            throw new IllegalArgumentException("Seek timestamp cannot be null");
+        }
+        lock.lock();
+        try {
+            anchorTs = ts;
+            anchorNanos = System.nanoTime();
+            pendingSeek = ts;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancel() {
+        lock.lock();
+        try {
+            cancelled = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isDone() {
+        return done || isCancelled();
+    }
+
+    public ReplayStatus getStatus() {
+        lock.lock();
+        try {
+            long frames = framesReplayed;
+            return ReplayStatus.builder()
+                    .scenarioRunId(runId.toString())
+                    .speed(speed)
+                    .paused(paused)
+                    .position(position)
+                    .framesReplayed(frames)
+                    .meanLatenessMicros(frames > 0 ? latenessSumNanos / frames / 1_000.0 : 0.0)
+                    .maxLatenessMicros(maxLatenessNanos / 1_000.0)
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isCancelled() {
+        lock.lock();
+        try {
+            return cancelled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Instant takePendingSeek() {
+        lock.lock();
+        try {
+            Instant seekTo = pendingSeek;
+            pendingSeek = null;
+            return seekTo;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 以回放流的下一帧为当前回放位置重设锚点；打开回放流期间又有新的跳转时保留锚点，由下一轮处理
+     */
+    private void anchorAtNextFrame() {
+        if (!stream.hasNext()) {
+            return;
+        }
+        Instant nextTs = stream.peekTs();
+        lock.lock();
+        try {
+            if (pendingSeek == null) {
+                anchorTs = nextTs;
+                anchorNanos = System.nanoTime();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 等待帧的推送时刻
+     *
+     * @return 到达推送时刻返回true；被取消或收到跳转请求时返回false
+     */
+    private boolean awaitFrame(Instant frameTs) {
+        lock.lock();
+        try {
+            while (!cancelled && pendingSeek == null) {
+                if (paused) {
+                    changed.awaitUninterruptibly();
+                    continue;
+                }
+                long offsetNanos = Duration.between(anchorTs, frameTs).toNanos();
+                long due = anchorNanos + (long) (offsetNanos / speed);
+                long remaining = due - System.nanoTime();
+                if (remaining <= 0) {
+                    recordLateness(-remaining);
+                    return true;
+                }
+                changed.awaitNanos(remaining);
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 以当前回放位置重设锚点，暂停中位置不推进
+     */
+    private void reanchor(long now) {
+        if (!paused) {
+            anchorTs = anchorTs.plusNanos((long) ((now - anchorNanos) * speed));
+        }
+        anchorNanos = now;
+    }
+
+    private void recordLateness(long latenessNanos) {
+        latenessSumNanos += latenessNanos;
+        if (latenessNanos > maxLatenessNanos) {
+            maxLatenessNanos = latenessNanos;
+        }
+    }
+
+    private static void validateSpeed(double speed) {
+        if (!(speed > 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Replay speed must be a positive finite number: " + speed);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.iropsim.sim;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 回放会话状态
+ *
+ * <p>延迟（lateness）为每帧实际推送时间与按录制时间戳和倍速计算的理想时间之差。</p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayStatus {
+
+    private String scenarioRunId;
+    private double speed;
+    private boolean paused;
+
+    // 最近一次推送帧的录制时间戳
+    private Instant position;
+    private long framesReplayed;
+
+    private double meanLatenessMicros;
+    private double maxLatenessMicros;
+}
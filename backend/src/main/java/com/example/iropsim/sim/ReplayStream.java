@@ -0,0 +1,64 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * 将关节样本和位姿样本两个有序游标按时间戳归并为回放帧
+ *
+ * <p>关节样本驱动帧序列：每帧取出与下一条关节样本时间戳相同的全部关节样本，
+ * 位姿游标同步前移，跳过没有对应关节帧的位姿样本。两条序列各只遍历一次，回放总耗时与样本数线性相关。</p>
+ */
+public class ReplayStream {
+
+    private final ReplayCursor<JointSample> jointCursor;
+    private final ReplayCursor<PoseSample> poseCursor;
+
+    public ReplayStream(ReplayCursor<JointSample> jointCursor, ReplayCursor<PoseSample> poseCursor) {
+        this.jointCursor = jointCursor;
+        this.poseCursor = poseCursor;
+    }
+
+    public boolean hasNext() {
+        return jointCursor.hasNext();
+    }
+
+    /**
+     * 下一帧的时间戳，不移动游标
+     */
+    public Instant peekTs() {
+        return jointCursor.peek().getTs();
+    }
+
+    public ReplayFrame next() {
+        if (!jointCursor.hasNext()) {
+            throw new NoSuchElementException("Replay stream exhausted");
+        }
+        Instant ts = jointCursor.peek().getTs();
+
+        List<JointSample> jointSamples = new ArrayList<>();
+        while (jointCursor.hasNext() && jointCursor.peek().getTs().equals(ts)) {
+            jointSamples.add(jointCursor.next());
+        }
+
+        // 丢弃早于当前帧的位姿样本，收集同一时间戳的位姿样本（同一机器人保留第一条）
+        while (poseCursor.hasNext() && poseCursor.peek().getTs().isBefore(ts)) {
+            poseCursor.next();
+        }
+        Map<UUID, PoseSample> poseSamples = new HashMap<>();
+        while (poseCursor.hasNext() && poseCursor.peek().getTs().equals(ts)) {
+            PoseSample poseSample = poseCursor.next();
+            poseSamples.putIfAbsent(poseSample.getRobot().getId(), poseSample);
+        }
+
+        return new ReplayFrame(ts, jointSamples, poseSamples);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 单个机器人在一个tick内生成的数据帧
+ */
+@Getter
+@AllArgsConstructor
+public class RobotFrame {
+
+    // 各关节样本，按关节序号排列
+    private final List<JointSample> jointSamples;
+
+    // 位姿样本，采集失败时为null
+    private final PoseSample poseSample;
+}
@@ -0,0 +1,45 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.ScenarioRun;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * 运行中仿真/回放的内存状态
+ *
+ * <p>启动时从数据库加载一次，tick任务只读取该对象而不再访问数据库。
+ * 状态字段为volatile，停止/结束时由{@link RunStateRegistry}修改，tick线程无锁读取。
+ * 故障注入时间线在启动时加载，运行期间新增的故障通过注册表追加。</p>
+ */
+@Getter
+public class RunState {
+
+    private final UUID runId;
+    private final ScenarioRun scenarioRun; // 已加载场景的快照，用于关联生成的样本
+    private final int rateHz;
+    private final long seed;
+    private final JsonNode baseParams;
+    private final ScenarioRun.IngestMode ingestMode;
+    private final FaultTimeline faultTimeline = new FaultTimeline();
+    private volatile ScenarioRun.RunStatus status;
+
+    RunState(ScenarioRun scenarioRun) {
+        this.runId = scenarioRun.getId();
+        this.scenarioRun = scenarioRun;
+        this.rateHz = scenarioRun.getRateHz();
+        this.seed = scenarioRun.getSeed();
+        this.baseParams = scenarioRun.getScenario() != null ? scenarioRun.getScenario().getBaseParams() : null;
+        this.ingestMode = scenarioRun.getIngestMode() != null ? scenarioRun.getIngestMode() : ScenarioRun.IngestMode.JPA;
+        this.status = scenarioRun.getStatus();
+    }
+
+    public boolean isRunning() {
+        return status == ScenarioRun.RunStatus.RUNNING;
+    }
+
+    void setStatus(ScenarioRun.RunStatus status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.FaultInjection;
+import com.example.iropsim.entity.ScenarioRun;
+import com.example.iropsim.repository.ScenarioRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 运行状态注册表
+ *
+ * <p>维护运行中仿真/回放的{@link RunState}，替代tick任务中每次执行的
+ * {@code scenarioRunRepository.findById}。只有状态发生迁移（启动、停止、结束）时才写库。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RunStateRegistry {
+
+    private final ScenarioRunRepository scenarioRunRepository;
+
+    private final Map<UUID, RunState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 将运行置为RUNNING并注册内存状态
+     *
+     * @param scenarioRun 已加载场景的运行实体
+     * @return 持久化后的运行实体
+     */
+    public ScenarioRun start(ScenarioRun scenarioRun) {
+        scenarioRun.setStatus(ScenarioRun.RunStatus.RUNNING);
+        scenarioRun.setStartedAt(Instant.now());
+        scenarioRun.setEndedAt(null);
+        ScenarioRun saved = scenarioRunRepository.save(scenarioRun);
+        // save返回的实体不保证已初始化场景，沿用调用方加载的场景
+        saved.setScenario(scenarioRun.getScenario());
+
+        states.put(saved.getId(), new RunState(saved));
+        return saved;
+    }
+
+    /**
+     * 获取运行状态，未注册时返回null
+     */
+    public RunState get(UUID runId) {
+        return states.get(runId);
+    }
+
+    /**
+     * 判断运行是否处于RUNNING状态（无锁读取）
+     */
+    public boolean isRunning(UUID runId) {
+        RunState state = states.get(runId);
+        return state != null && state.isRunning();
+    }
+
+    /**
+     * 将新增的故障注入追加到运行中的故障时间线，运行未注册时忽略
+     *
+     * @return 是否追加到了运行中的时间线
+     */
+    public boolean addFaultInjection(UUID runId, FaultInjection faultInjection) {
+        RunState state = states.get(runId);
+        if (state == null) {
+            return false;
+        }
+        state.getFaultTimeline().add(faultInjection);
+        return true;
+    }
+
+    /**
+     * 将运行迁移到终止状态（STOPPED/FINISHED）并移除内存状态
+     *
+     * <p>只有首次迁移会写库，重复调用直接返回null。</p>
+     *
+     * @return 持久化后的运行实体，未发生迁移时返回null
+     */
+    public ScenarioRun finish(UUID runId, ScenarioRun.RunStatus status) {
+        RunState state = states.remove(runId);
+        if (state == null || state.getStatus() == status) {
+            return null;
+        }
+        state.setStatus(status);
+
+        ScenarioRun scenarioRun = scenarioRunRepository.findById(runId).orElse(null);
+        if (scenarioRun == null) {
+            log.warn("Scenario run {} disappeared before status transition to {}", runId, status);
+            return null;
+        }
+        scenarioRun.setStatus(status);
+        scenarioRun.setEndedAt(Instant.now());
+        return scenarioRunRepository.save(scenarioRun);
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -22,4 +23,8 @@ public class ScenarioRunRequest {
     private Integer rateHz = 1;
 
     private Long seed; // 可选，用于保证可复现
+
+    private List<UUID> robotIds; // 可选，为空时驱动全部机器人
+
+    private String ingestMode; // 可选，JPA 或 COPY，默认JPA
 }
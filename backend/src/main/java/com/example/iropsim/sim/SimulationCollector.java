@@ -9,8 +9,12 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 模拟数据采集器 - 策略模式的具体策略实现
@@ -50,6 +54,9 @@ public class SimulationCollector implements DataCollectorService {
     private final ObjectMapper objectMapper;
     private final Random random = new Random();
 
+    // 按运行缓存的预解析参数，运行启动/结束时由引擎释放
+    private final Map<UUID, RunProfile> runProfiles = new ConcurrentHashMap<>();
+
     // 运动参数常量 - 模拟典型的工业机器人运动特性
     private static final double MOTION_FREQUENCY = 0.1; // 0.1 Hz - 典型的机器人运动频率
     private static final double CURRENT_AMPLITUDE = 1.5; // 电流波动幅度 (A)
@@ -60,69 +67,87 @@ public class SimulationCollector implements DataCollectorService {
     @Override
     public JointSample collectJointSample(Robot robot, int jointIndex, ScenarioRun scenarioRun,
                                          Instant timestamp, List<FaultInjection> activeFaults) {
+        BaseParams base = BaseParams.from(scenarioRun.getScenario().getBaseParams());
+        FaultEffect[] effects = FaultEffect.resolveAll(activeFaults, timestamp);
+        TickTerms terms = new TickTerms(timestamp, effects.length > 0);
+        return generateJointSample(robot, jointIndex, scenarioRun, timestamp, base, effects, terms, random);
+    }
 
-        // 基础参数配置
-        double baseCurrent = 2.5; // 额定电流 (A)
-        double baseTemp = 40.0;   // 额定温度 (°C)
-        double baseVibration = VIBRATION_BASE;
+    @Override
+    public PoseSample collectPoseSample(Robot robot, ScenarioRun scenarioRun,
+                                       Instant timestamp, List<FaultInjection> activeFaults) {
+        FaultEffect[] effects = FaultEffect.resolveAll(activeFaults, timestamp);
+        TickTerms terms = new TickTerms(timestamp, false);
+        return generatePoseSample(robot, scenarioRun, timestamp, effects, terms, random);
+    }
 
-        // 从场景配置读取参数
-        JsonNode params = scenarioRun.getScenario().getBaseParams();
-        if (params != null && !params.isNull()) {
-            baseCurrent = params.has("current_nominal") ? params.get("current_nominal").asDouble(baseCurrent) : baseCurrent;
-            baseTemp = params.has("temp_nominal") ? params.get("temp_nominal").asDouble(baseTemp) : baseTemp;
-            baseVibration = params.has("vibration_nominal") ? params.get("vibration_nominal").asDouble(baseVibration) : baseVibration;
+    /**
+     * 批量生成一个机器人在当前时刻的全部关节与位姿数据
+     *
+     * <p>场景参数和故障参数按运行缓存为原始类型，与关节无关的三角函数项每帧只计算一次，
+     * 关节循环内不再访问JSON。每个机器人使用由运行种子和机器人ID派生的独立随机序列，
+     * 多机器人并行生成时结果仍可复现。</p>
+     */
+    @Override
+    public RobotFrame collectRobotFrame(Robot robot, ScenarioRun scenarioRun,
+                                        Instant timestamp, List<FaultInjection> activeFaults) {
+        RunProfile profile = runProfiles.computeIfAbsent(scenarioRun.getId(), id -> new RunProfile(scenarioRun));
+        FaultEffect[] effects = profile.resolveEffects(activeFaults, timestamp);
+        TickTerms terms = new TickTerms(timestamp, effects.length > 0);
+        Random robotRandom = profile.randomFor(robot.getId());
+
+        int jointCount = robot.getJointCount();
+        List<JointSample> jointSamples = new ArrayList<>(jointCount);
+        for (int jointIndex = 0; jointIndex < jointCount; jointIndex++) {
+            jointSamples.add(generateJointSample(robot, jointIndex, scenarioRun, timestamp,
+                    profile.base, effects, terms, robotRandom));
         }
+        PoseSample poseSample = generatePoseSample(robot, scenarioRun, timestamp, effects, terms, robotRandom);
+        return new RobotFrame(jointSamples, poseSample);
+    }
 
-        // 时间相关的正弦波基础值 - 模拟周期性运动
-        long epochSecond = timestamp.getEpochSecond();
-        double timeRadians = 2 * Math.PI * MOTION_FREQUENCY * epochSecond;
+    @Override
+    public void releaseRun(UUID runId) {
+        runProfiles.remove(runId);
+    }
 
-        // 关节特定的相位偏移 - 模拟多关节协调运动
-        double jointPhase = jointIndex * Math.PI / 3.0; // 每个关节相差60度
-        double motionFactor = Math.sin(timeRadians + jointPhase);
+    private JointSample generateJointSample(Robot robot, int jointIndex, ScenarioRun scenarioRun, Instant timestamp,
+                                            BaseParams base, FaultEffect[] effects, TickTerms terms, Random rnd) {
+        // 关节特定的相位偏移 - 模拟多关节协调运动，每个关节相差60度
+        double motionFactor = terms.motionFactor(jointIndex);
 
         // 生成基础数据 - 正弦波 + 噪声
-        double current = baseCurrent + CURRENT_AMPLITUDE * motionFactor + (random.nextGaussian() * 0.15);
-        double temperature = baseTemp + TEMP_SEASONAL_AMPLITUDE * Math.sin(2 * Math.PI * 0.01 * epochSecond) + (random.nextGaussian() * 1.5);
-        double vibration = Math.abs(baseVibration + 0.05 * Math.abs(motionFactor) + (random.nextGaussian() * 0.01));
+        double current = base.current + CURRENT_AMPLITUDE * motionFactor + (rnd.nextGaussian() * 0.15);
+        double temperature = base.temperature + terms.tempSeasonal + (rnd.nextGaussian() * 1.5);
+        double vibration = Math.abs(base.vibration + 0.05 * Math.abs(motionFactor) + (rnd.nextGaussian() * 0.01));
 
         // 应用故障注入
         JointSample.SampleLabel label = JointSample.SampleLabel.NORMAL;
-        for (FaultInjection fault : activeFaults) {
-            if (isFaultActive(fault, timestamp)) {
-                JsonNode faultParams = fault.getParams();
-                if (faultParams != null && !faultParams.isNull()) {
-                    switch (fault.getFaultType()) {
-                        case OVERHEAT:
-                            double heatAmplitude = faultParams.has("amplitude") ? faultParams.get("amplitude").asDouble(10.0) : 10.0;
-                            temperature += heatAmplitude * Math.sin(timeRadians * 2); // 故障温度也具有波动性
-                            label = JointSample.SampleLabel.FAULT_OVERHEAT;
-                            break;
-
-                        case HIGH_VIBRATION:
-                            double vibAmplitude = faultParams.has("amplitude") ? faultParams.get("amplitude").asDouble(0.5) : 0.5;
-                            vibration += vibAmplitude + 0.1 * Math.sin(timeRadians * 5); // 高频振动
-                            label = JointSample.SampleLabel.FAULT_HIGH_VIBRATION;
-                            break;
-
-                        case CURRENT_SPIKE:
-                            double currentAmplitude = faultParams.has("amplitude") ? faultParams.get("amplitude").asDouble(2.0) : 2.0;
-                            current += currentAmplitude * (1 + Math.sin(timeRadians * 3)); // 脉冲式电流异常
-                            label = JointSample.SampleLabel.FAULT_CURRENT_SPIKE;
-                            break;
-
-                        case SENSOR_DRIFT:
-                            double driftRate = faultParams.has("driftRate") ? faultParams.get("driftRate").asDouble(0.01) : 0.01;
-                            long elapsedSeconds = epochSecond - fault.getStartTs().getEpochSecond();
-                            // 渐进式漂移 + 随机游走
-                            double drift = elapsedSeconds * driftRate + random.nextGaussian() * 0.005;
-                            temperature += drift;
-                            vibration += Math.abs(drift) * 0.1;
-                            label = JointSample.SampleLabel.FAULT_SENSOR_DRIFT;
-                            break;
-                    }
-                }
+        for (FaultEffect effect : effects) {
+            switch (effect.type) {
+                case OVERHEAT:
+                    temperature += effect.jointAmplitude * terms.sin2t; // 故障温度也具有波动性
+                    label = JointSample.SampleLabel.FAULT_OVERHEAT;
+                    break;
+
+                case HIGH_VIBRATION:
+                    vibration += effect.jointAmplitude + 0.1 * terms.sin5t; // 高频振动
+                    label = JointSample.SampleLabel.FAULT_HIGH_VIBRATION;
+                    break;
+
+                case CURRENT_SPIKE:
+                    current += effect.jointAmplitude * (1 + terms.sin3t); // 脉冲式电流异常
+                    label = JointSample.SampleLabel.FAULT_CURRENT_SPIKE;
+                    break;
+
+                case SENSOR_DRIFT:
+                    long elapsedSeconds = terms.epochSecond - effect.startEpochSecond;
+                    // 渐进式漂移 + 随机游走
+                    double drift = elapsedSeconds * effect.jointAmplitude + rnd.nextGaussian() * 0.005;
+                    temperature += drift;
+                    vibration += Math.abs(drift) * 0.1;
+                    label = JointSample.SampleLabel.FAULT_SENSOR_DRIFT;
+                    break;
             }
         }
 
@@ -143,47 +168,40 @@ public class SimulationCollector implements DataCollectorService {
                 .build();
     }
 
-    @Override
-    public PoseSample collectPoseSample(Robot robot, ScenarioRun scenarioRun,
-                                       Instant timestamp, List<FaultInjection> activeFaults) {
-
-        long epochSecond = timestamp.getEpochSecond();
-        double timeRadians = 2 * Math.PI * MOTION_FREQUENCY * epochSecond;
+    private PoseSample generatePoseSample(Robot robot, ScenarioRun scenarioRun, Instant timestamp,
+                                          FaultEffect[] effects, TickTerms terms, Random rnd) {
+        double timeRadians = terms.timeRadians;
 
         // 模拟机器人工作空间内的运动轨迹
         // 使用多个频率分量模拟复杂的工业操作轨迹
-        double x = 500 + 100 * Math.sin(timeRadians) + 30 * Math.sin(timeRadians * 3) + random.nextGaussian() * 5;
-        double y = 300 + 80 * Math.cos(timeRadians) + 20 * Math.cos(timeRadians * 2.5) + random.nextGaussian() * 3;
-        double z = 200 + 50 * Math.sin(timeRadians * 1.5) + random.nextGaussian() * 2;
+        double x = 500 + 100 * terms.sinT + 30 * Math.sin(timeRadians * 3) + rnd.nextGaussian() * 5;
+        double y = 300 + 80 * terms.cosT + 20 * Math.cos(timeRadians * 2.5) + rnd.nextGaussian() * 3;
+        double z = 200 + 50 * Math.sin(timeRadians * 1.5) + rnd.nextGaussian() * 2;
 
         // 姿态角度 - 模拟末端执行器的定向变化
-        double rx = Math.PI/4 + 0.5 * Math.sin(timeRadians * 2) + random.nextGaussian() * 0.1;
-        double ry = 0.3 * Math.cos(timeRadians * 1.8) + random.nextGaussian() * 0.05;
-        double rz = Math.PI/6 + 0.4 * Math.sin(timeRadians * 2.2) + random.nextGaussian() * 0.08;
+        double rx = Math.PI/4 + 0.5 * Math.sin(timeRadians * 2) + rnd.nextGaussian() * 0.1;
+        double ry = 0.3 * Math.cos(timeRadians * 1.8) + rnd.nextGaussian() * 0.05;
+        double rz = Math.PI/6 + 0.4 * Math.sin(timeRadians * 2.2) + rnd.nextGaussian() * 0.08;
 
         PoseSample.SampleLabel label = PoseSample.SampleLabel.NORMAL;
 
         // 应用故障效应
-        for (FaultInjection fault : activeFaults) {
-            if (isFaultActive(fault, timestamp) && fault.getFaultType() == FaultInjection.FaultType.SENSOR_DRIFT) {
-                JsonNode faultParams = fault.getParams();
-                if (faultParams != null && !faultParams.isNull()) {
-                    double driftRate = faultParams.has("driftRate") ? faultParams.get("driftRate").asDouble(0.001) : 0.001;
-                    long elapsedSeconds = epochSecond - fault.getStartTs().getEpochSecond();
-
-                    // 位置传感器漂移 - 渐进式误差积累
-                    double positionDrift = elapsedSeconds * driftRate;
-                    x += positionDrift + random.nextGaussian() * 0.5;
-                    y += positionDrift + random.nextGaussian() * 0.3;
-                    z += positionDrift * 0.5 + random.nextGaussian() * 0.2;
-
-                    // 姿态传感器漂移
-                    rx += elapsedSeconds * driftRate * 0.1;
-                    ry += elapsedSeconds * driftRate * 0.05;
-                    rz += elapsedSeconds * driftRate * 0.08;
-
-                    label = PoseSample.SampleLabel.FAULT_SENSOR_DRIFT;
-                }
+        for (FaultEffect effect : effects) {
+            if (effect.type == FaultInjection.FaultType.SENSOR_DRIFT) {
+                long elapsedSeconds = terms.epochSecond - effect.startEpochSecond;
+
+                // 位置传感器漂移 - 渐进式误差积累
+                double positionDrift = elapsedSeconds * effect.poseDriftRate;
+                x += positionDrift + rnd.nextGaussian() * 0.5;
+                y += positionDrift + rnd.nextGaussian() * 0.3;
+                z += positionDrift * 0.5 + rnd.nextGaussian() * 0.2;
+
+                // 姿态传感器漂移
+                rx += elapsedSeconds * effect.poseDriftRate * 0.1;
+                ry += elapsedSeconds * effect.poseDriftRate * 0.05;
+                rz += elapsedSeconds * effect.poseDriftRate * 0.08;
+
+                label = PoseSample.SampleLabel.FAULT_SENSOR_DRIFT;
             }
         }
 
@@ -224,10 +242,10 @@ public class SimulationCollector implements DataCollectorService {
     }
 
     /**
-     * 设置随机种子以保证数据可复现
+     * 设置单样本方法使用的随机种子
      *
-     * <p>论文实验要求数据可复现，通过设置种子确保每次运行生成相同的数据序列。
-     * 这对于验证异常检测算法的稳定性和对比不同算法性能至关重要。</p>
+     * <p>只影响{@link #collectJointSample}和{@link #collectPoseSample}共用的随机序列。
+     * 仿真引擎走{@link #collectRobotFrame}，其随机序列由运行种子和机器人ID派生，不受此方法影响。</p>
      *
      * @param seed 随机种子
      */
@@ -237,9 +255,191 @@ public class SimulationCollector implements DataCollectorService {
     }
 
     /**
-     * 检查故障是否在激活时间窗口内
+     * 从场景配置解析出的基础参数
+     */
+    private static final class BaseParams {
+        final double current;
+        final double temperature;
+        final double vibration;
+
+        private BaseParams(double current, double temperature, double vibration) {
+            this.current = current;
+            this.temperature = temperature;
+            this.vibration = vibration;
+        }
+
+        static BaseParams from(JsonNode params) {
+            double baseCurrent = 2.5; // 额定电流 (A)
+            double baseTemp = 40.0;   // 额定温度 (°C)
+            double baseVibration = VIBRATION_BASE;
+
+            if (params != null && !params.isNull()) {
+                baseCurrent = params.has("current_nominal") ? params.get("current_nominal").asDouble(baseCurrent) : baseCurrent;
+                baseTemp = params.has("temp_nominal") ? params.get("temp_nominal").asDouble(baseTemp) : baseTemp;
+                baseVibration = params.has("vibration_nominal") ? params.get("vibration_nominal").asDouble(baseVibration) : baseVibration;
+            }
+            return new BaseParams(baseCurrent, baseTemp, baseVibration);
+        }
+    }
+
+    /**
+     * 预解析的故障效应
+     *
+     * <p>jointAmplitude对漂移类故障为关节漂移速率，其余为幅值；poseDriftRate为位姿漂移速率。
+     * 未配置参数的故障不产生效应，与原逻辑一致。</p>
+     */
+    private static final class FaultEffect {
+        private static final FaultEffect[] NONE = new FaultEffect[0];
+
+        final FaultInjection.FaultType type;
+        final Instant startTs;
+        final Instant endTs;
+        final long startEpochSecond;
+        final double jointAmplitude;
+        final double poseDriftRate;
+
+        private FaultEffect(FaultInjection fault, double jointAmplitude, double poseDriftRate) {
+            this.type = fault.getFaultType();
+            this.startTs = fault.getStartTs();
+            this.endTs = fault.getEndTs();
+            this.startEpochSecond = startTs.getEpochSecond();
+            this.jointAmplitude = jointAmplitude;
+            this.poseDriftRate = poseDriftRate;
+        }
+
+        /**
+         * 解析单个故障，参数为空时返回null
+         */
+        static FaultEffect resolve(FaultInjection fault) {
+            JsonNode faultParams = fault.getParams();
+            if (faultParams == null || faultParams.isNull()) {
+                return null;
+            }
+            switch (fault.getFaultType()) {
+                case OVERHEAT:
+                    return new FaultEffect(fault, doubleParam(faultParams, "amplitude", 10.0), 0.0);
+                case HIGH_VIBRATION:
+                    return new FaultEffect(fault, doubleParam(faultParams, "amplitude", 0.5), 0.0);
+                case CURRENT_SPIKE:
+                    return new FaultEffect(fault, doubleParam(faultParams, "amplitude", 2.0), 0.0);
+                case SENSOR_DRIFT:
+                    return new FaultEffect(fault, doubleParam(faultParams, "driftRate", 0.01),
+                            doubleParam(faultParams, "driftRate", 0.001));
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * 解析并筛选当前时刻激活的故障，每个故障只判断一次，关节循环内不再重复检查
+         */
+        static FaultEffect[] resolveAll(List<FaultInjection> faults, Instant timestamp) {
+            if (faults.isEmpty()) {
+                return NONE;
+            }
+            List<FaultEffect> effects = new ArrayList<>(faults.size());
+            for (FaultInjection fault : faults) {
+                FaultEffect effect = resolve(fault);
+                if (effect != null && effect.isActive(timestamp)) {
+                    effects.add(effect);
+                }
+            }
+            return effects.toArray(NONE);
+        }
+
+        /**
+         * 检查故障是否在激活时间窗口内
+         */
+        boolean isActive(Instant timestamp) {
+            return !timestamp.isBefore(startTs) && !timestamp.isAfter(endTs);
+        }
+
+        private static double doubleParam(JsonNode params, String name, double defaultValue) {
+            return params.has(name) ? params.get(name).asDouble(defaultValue) : defaultValue;
+        }
+    }
+
+    /**
+     * 一帧内与关节无关的时间项
      */
-    private boolean isFaultActive(FaultInjection fault, Instant timestamp) {
-        return !timestamp.isBefore(fault.getStartTs()) && !timestamp.isAfter(fault.getEndTs());
+    private static final class TickTerms {
+        // 各关节相位偏移（每个关节相差60度）的正弦/余弦，按关节序号缓存
+        private static final int CACHED_JOINTS = 16;
+        private static final double[] PHASE_SIN = new double[CACHED_JOINTS];
+        private static final double[] PHASE_COS = new double[CACHED_JOINTS];
+
+        static {
+            for (int i = 0; i < CACHED_JOINTS; i++) {
+                PHASE_SIN[i] = Math.sin(i * Math.PI / 3.0);
+                PHASE_COS[i] = Math.cos(i * Math.PI / 3.0);
+            }
+        }
+
+        final long epochSecond;
+        final double timeRadians;
+        final double sinT;
+        final double cosT;
+        final double tempSeasonal;
+        final double sin2t;
+        final double sin3t;
+        final double sin5t;
+
+        TickTerms(Instant timestamp, boolean withFaultTerms) {
+            // 时间相关的正弦波基础值 - 模拟周期性运动
+            this.epochSecond = timestamp.getEpochSecond();
+            this.timeRadians = 2 * Math.PI * MOTION_FREQUENCY * epochSecond;
+            this.sinT = Math.sin(timeRadians);
+            this.cosT = Math.cos(timeRadians);
+            this.tempSeasonal = TEMP_SEASONAL_AMPLITUDE * Math.sin(2 * Math.PI * 0.01 * epochSecond);
+            this.sin2t = withFaultTerms ? Math.sin(timeRadians * 2) : 0.0;
+            this.sin3t = withFaultTerms ? Math.sin(timeRadians * 3) : 0.0;
+            this.sin5t = withFaultTerms ? Math.sin(timeRadians * 5) : 0.0;
+        }
+
+        /**
+         * sin(timeRadians + jointPhase)，按和角公式复用本帧的sin/cos
+         */
+        double motionFactor(int jointIndex) {
+            if (jointIndex < CACHED_JOINTS) {
+                return sinT * PHASE_COS[jointIndex] + cosT * PHASE_SIN[jointIndex];
+            }
+            return Math.sin(timeRadians + jointIndex * Math.PI / 3.0);
+        }
+    }
+
+    /**
+     * 单次运行的缓存：基础参数、按故障ID缓存的故障效应、各机器人的随机序列
+     */
+    private static final class RunProfile {
+        final BaseParams base;
+        final long seed;
+        final Map<UUID, FaultEffect> faultEffects = new ConcurrentHashMap<>();
+        final Map<UUID, Random> robotRandoms = new ConcurrentHashMap<>();
+
+        RunProfile(ScenarioRun scenarioRun) {
+            this.base = BaseParams.from(scenarioRun.getScenario().getBaseParams());
+            this.seed = scenarioRun.getSeed() != null ? scenarioRun.getSeed() : 0L;
+        }
+
+        Random randomFor(UUID robotId) {
+            return robotRandoms.computeIfAbsent(robotId, id ->
+                    new Random(seed ^ id.getMostSignificantBits() ^ id.getLeastSignificantBits()));
+        }
+
+        FaultEffect[] resolveEffects(List<FaultInjection> faults, Instant timestamp) {
+            if (faults.isEmpty()) {
+                return FaultEffect.NONE;
+            }
+            List<FaultEffect> effects = new ArrayList<>(faults.size());
+            for (FaultInjection fault : faults) {
+                FaultEffect effect = fault.getId() != null
+                        ? faultEffects.computeIfAbsent(fault.getId(), id -> FaultEffect.resolve(fault))
+                        : FaultEffect.resolve(fault);
+                if (effect != null && effect.isActive(timestamp)) {
+                    effects.add(effect);
+                }
+            }
+            return effects.toArray(FaultEffect.NONE);
+        }
     }
 }
@@ -1,12 +1,13 @@
 package com.example.iropsim.sim;
 
-import com.example.iropsim.detection.AnomalyDetectionService;
+import com.example.iropsim.detection.DetectionPipeline;
 import com.example.iropsim.entity.*;
 import com.example.iropsim.repository.*;
 import com.example.iropsim.sim.DataCollectorService;
 import com.example.iropsim.sim.SimulationCollector;
+import com.example.iropsim.telemetry.SampleIngestService;
 import com.example.iropsim.websocket.WebSocketEventHandler;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,13 +15,13 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * 仿真引擎 - 支持虚实数据源切换
@@ -60,10 +61,13 @@ public class SimulationEngine {
     private final PoseSampleRepository poseSampleRepository;
     private final FaultInjectionRepository faultInjectionRepository;
     private final AlarmEventRepository alarmEventRepository;
-    private final ScheduledExecutorService scheduledExecutor;
+    private final TickScheduler tickScheduler;
+    private final ForkJoinPool simulationWorkerPool;
     private final WebSocketEventHandler webSocketEventHandler;
-    private final AnomalyDetectionService anomalyDetectionService;
-    private final ObjectMapper objectMapper;
+    private final DetectionPipeline detectionPipeline;
+    private final RunStateRegistry runStateRegistry;
+    private final ReplayDataSource replayDataSource;
+    private final SampleIngestService sampleIngestService;
 
     // 数据采集策略 - 支持运行时切换
     @Autowired
@@ -73,9 +77,9 @@ public class SimulationEngine {
     private volatile DataCollectorService.DataSourceType currentDataSource = DataCollectorService.DataSourceType.SIMULATION;
 
     // 运行中的仿真任务
-    private final Map<UUID, ScheduledFuture<?>> runningSimulations = new ConcurrentHashMap<>();
+    private final Map<UUID, TickScheduler.TickHandle> runningSimulations = new ConcurrentHashMap<>();
     // 运行中的回放任务
-    private final Map<UUID, ScheduledFuture<?>> runningReplays = new ConcurrentHashMap<>();
+    private final Map<UUID, ReplaySession> runningReplays = new ConcurrentHashMap<>();
 
     /**
      * 设置数据采集策略
@@ -144,59 +148,85 @@ public class SimulationEngine {
      * 启动仿真运行
      */
     public void startSimulation(UUID runId) {
-        ScenarioRun scenarioRun = scenarioRunRepository.findById(runId)
+        ScenarioRun scenarioRun = scenarioRunRepository.findWithScenarioById(runId)
                 .orElseThrow(() -> new IllegalArgumentException("Scenario run not found: " + runId));
 
         if (scenarioRun.getStatus() == ScenarioRun.RunStatus.RUNNING) {
             throw new IllegalStateException("Simulation is already running");
         }
 
-        // 设置随机种子保证可复现（仅对模拟模式有效）
-        if (dataCollector instanceof SimulationCollector) {
-            ((SimulationCollector) dataCollector).setSeed(scenarioRun.getSeed());
-        }
+        // 清除上次运行遗留的缓存；模拟模式下各机器人的随机序列由运行种子和机器人ID派生，重启后从头复现
+        dataCollector.releaseRun(runId);
 
-        // 获取机器人列表（暂时只支持一个机器人）
-        List<Robot> robots = robotRepository.findAll();
+        // 获取本次运行驱动的机器人列表
+        List<Robot> robots = resolveRobots(scenarioRun);
         if (robots.isEmpty()) {
             throw new IllegalStateException("No robots available for simulation");
         }
 
-        // 更新状态
-        scenarioRun.setStatus(ScenarioRun.RunStatus.RUNNING);
-        scenarioRun.setStartedAt(Instant.now());
-        scenarioRun = scenarioRunRepository.save(scenarioRun);
+        // 更新状态并注册内存运行状态
+        scenarioRun = runStateRegistry.start(scenarioRun);
+
+        // 加载故障注入时间线，注册之后加载以免遗漏并发新增的故障（同ID故障会去重）
+        runStateRegistry.get(runId).getFaultTimeline()
+                .addAll(faultInjectionRepository.findByScenarioRunId(runId));
 
         // 推送状态更新
         webSocketEventHandler.pushSimulationStatus(runId, scenarioRun);
 
-        // 启动定时任务
-        ScheduledFuture<?> future = scheduledExecutor.scheduleAtFixedRate(
-                new SimulationTask(runId, robots.get(0)),
-                0,
-                1000 / scenarioRun.getRateHz(), // 转换为毫秒间隔
-                TimeUnit.MILLISECONDS
-        );
+        // 启动tick调度，按纳秒周期计算理想时刻
+        TickScheduler.TickHandle handle = tickScheduler.schedule(
+                "simulation-" + runId, scenarioRun.getRateHz(), new SimulationTask(runId, robots));
+
+        runningSimulations.put(runId, handle);
+        log.info("Started simulation for run: {} with {} robot(s)", runId, robots.size());
+    }
+
+    /**
+     * 应用关闭时取消全部仿真和回放循环，避免tick线程在Bean销毁后继续执行
+     */
+    @PreDestroy
+    public void shutdown() {
+        runningSimulations.forEach((runId, handle) -> handle.cancel());
+        runningReplays.forEach((runId, session) -> session.cancel());
+        log.info("Cancelled {} simulation(s) and {} replay(s) on shutdown",
+                runningSimulations.size(), runningReplays.size());
+    }
 
-        runningSimulations.put(runId, future);
-        log.info("Started simulation for run: {}", runId);
+    /**
+     * 解析运行驱动的机器人：未指定时驱动全部机器人
+     */
+    private List<Robot> resolveRobots(ScenarioRun scenarioRun) {
+        if (scenarioRun.getRobotIds() == null || scenarioRun.getRobotIds().isEmpty()) {
+            return robotRepository.findAll();
+        }
+        return robotRepository.findAllById(scenarioRun.getRobotIds());
+    }
+
+    /**
+     * 在工作线程池中并行处理每个机器人，单个机器人时直接在当前线程执行
+     */
+    private void forEachRobot(List<Robot> robots, Consumer<Robot> action) {
+        if (robots.size() == 1) {
+            action.accept(robots.get(0));
+            return;
+        }
+        simulationWorkerPool.submit(() -> robots.parallelStream().forEach(action)).join();
     }
 
     /**
      * 停止仿真运行
      */
     public void stopSimulation(UUID runId) {
-        ScheduledFuture<?> future = runningSimulations.remove(runId);
-        if (future != null) {
-            future.cancel(false);
-
-            // 更新数据库状态
-            ScenarioRun scenarioRun = scenarioRunRepository.findById(runId).orElse(null);
+        TickScheduler.TickHandle handle = runningSimulations.remove(runId);
+        if (handle != null) {
+            handle.cancel();
+            dataCollector.releaseRun(runId);
+            logTickStats(runId, handle);
+
+            // 状态迁移时更新数据库
+            ScenarioRun scenarioRun = runStateRegistry.finish(runId, ScenarioRun.RunStatus.STOPPED);
             if (scenarioRun != null) {
-                scenarioRun.setStatus(ScenarioRun.RunStatus.STOPPED);
-                scenarioRun.setEndedAt(Instant.now());
-                scenarioRun = scenarioRunRepository.save(scenarioRun);
-
                 // 推送状态更新
                 webSocketEventHandler.pushSimulationStatus(runId, scenarioRun);
             }
@@ -205,6 +235,15 @@ public class SimulationEngine {
         }
     }
 
+    /**
+     * 新增故障注入后同步到运行中仿真的故障时间线
+     */
+    public void registerFaultInjection(UUID runId, FaultInjection faultInjection) {
+        if (runStateRegistry.addFaultInjection(runId, faultInjection)) {
+            log.debug("Fault injection {} added to running timeline of run: {}", faultInjection.getId(), runId);
+        }
+    }
+
     /**
      * 获取仿真状态
      */
@@ -217,15 +256,43 @@ public class SimulationEngine {
      * 检查仿真是否正在运行
      */
     public boolean isSimulationRunning(UUID runId) {
-        ScheduledFuture<?> future = runningSimulations.get(runId);
-        return future != null && !future.isDone();
+        TickScheduler.TickHandle handle = runningSimulations.get(runId);
+        return handle != null && !handle.isDone();
+    }
+
+    /**
+     * 获取运行中仿真的tick调度统计
+     *
+     * <p>只覆盖固定频率的仿真运行。回放由{@link ReplaySession}按录制时间戳调度，
+     * 没有{@link TickScheduler.TickHandle}，进度和速度见{@link #getReplayStatus}。</p>
+     */
+    public TickStats getTickStats(UUID runId) {
+        TickScheduler.TickHandle handle = runningSimulations.get(runId);
+        if (handle == null) {
+            throw new IllegalStateException("No simulation is running for run: " + runId);
+        }
+        return handle.getStats();
+    }
+
+    private void logTickStats(UUID runId, TickScheduler.TickHandle handle) {
+        TickStats stats = handle.getStats();
+        log.info("Tick stats for run {}: target {} Hz, actual {} Hz, {} ticks, {} missed, mean lateness {} us, jitter {} us",
+                runId, stats.getTargetRateHz(), String.format("%.2f", stats.getActualRateHz()),
+                stats.getTicks(), stats.getMissedTicks(),
+                String.format("%.1f", stats.getMeanLatenessMicros()), String.format("%.1f", stats.getJitterMicros()));
     }
 
     /**
      * 开始回放
+     *
+     * <p>按录制时间戳除以倍速调度每一帧，运行期间可变速、暂停和跳转。</p>
      */
     public void startReplay(UUID runId, double speed) {
-        ScenarioRun scenarioRun = scenarioRunRepository.findById(runId)
+        if (!(speed > 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Replay speed must be a positive finite number: " + speed);
+        }
+
+        ScenarioRun scenarioRun = scenarioRunRepository.findWithScenarioById(runId)
                 .orElseThrow(() -> new IllegalArgumentException("Scenario run not found: " + runId));
 
         if (scenarioRun.getMode() != ScenarioRun.RunMode.REALTIME) {
@@ -241,38 +308,26 @@ public class SimulationEngine {
             throw new IllegalStateException("Replay is already running for this run");
         }
 
-        // 获取机器人列表
-        List<Robot> robots = robotRepository.findAll();
-        if (robots.isEmpty()) {
-            throw new IllegalStateException("No robots available for replay");
-        }
+        // 按时间分块流式读取要回放的样本（包含录制时参与运行的全部机器人）
+        ReplayStream replayStream = replayDataSource.open(runId, Instant.EPOCH);
 
-        // 获取要回放的样本数据
-        Robot robot = robots.get(0);
-        List<JointSample> jointSamples = jointSampleRepository.findByScenarioRunOrderByTs(scenarioRun);
-        List<PoseSample> poseSamples = poseSampleRepository.findByScenarioRunOrderByTs(scenarioRun);
-
-        if (jointSamples.isEmpty()) {
+        if (!replayStream.hasNext()) {
             throw new IllegalStateException("No sample data available for replay");
         }
 
         // 更新状态为回放中
-        scenarioRun.setStatus(ScenarioRun.RunStatus.RUNNING);
-        scenarioRun.setStartedAt(Instant.now());
-        scenarioRun = scenarioRunRepository.save(scenarioRun);
+        scenarioRun = runStateRegistry.start(scenarioRun);
 
         // 推送状态更新
         webSocketEventHandler.pushSimulationStatus(runId, scenarioRun);
 
-        // 启动回放任务
-        ScheduledFuture<?> future = scheduledExecutor.scheduleAtFixedRate(
-                new ReplayTask(runId, robot, jointSamples, poseSamples, speed),
-                0,
-                (long)(1000 / (scenarioRun.getRateHz() * speed)), // 根据倍速调整间隔
-                TimeUnit.MILLISECONDS
-        );
+        // 启动回放会话，在tick线程池中按帧时间戳调度
+        ReplaySession session = new ReplaySession(runId, replayStream, speed,
+                from -> replayDataSource.open(runId, from),
+                frame -> replayFrame(runId, frame));
+        runningReplays.put(runId, session);
+        tickScheduler.runLoop(() -> runReplay(runId, session));
 
-        runningReplays.put(runId, future);
         log.info("Started replay for run: {} with speed: {}", runId, speed);
     }
 
@@ -280,17 +335,13 @@ public class SimulationEngine {
      * 停止回放
      */
     public void stopReplay(UUID runId) {
-        ScheduledFuture<?> future = runningReplays.remove(runId);
-        if (future != null) {
-            future.cancel(false);
+        ReplaySession session = runningReplays.remove(runId);
+        if (session != null) {
+            session.cancel();
 
-            // 更新数据库状态
-            ScenarioRun scenarioRun = scenarioRunRepository.findById(runId).orElse(null);
+            // 状态迁移时更新数据库
+            ScenarioRun scenarioRun = runStateRegistry.finish(runId, ScenarioRun.RunStatus.STOPPED);
             if (scenarioRun != null) {
-                scenarioRun.setStatus(ScenarioRun.RunStatus.STOPPED);
-                scenarioRun.setEndedAt(Instant.now());
-                scenarioRun = scenarioRunRepository.save(scenarioRun);
-
                 // 推送状态更新
                 webSocketEventHandler.pushSimulationStatus(runId, scenarioRun);
             }
@@ -303,181 +354,179 @@ public class SimulationEngine {
      * 检查回放是否正在运行
      */
     public boolean isReplayRunning(UUID runId) {
-        ScheduledFuture<?> future = runningReplays.get(runId);
-        return future != null && !future.isDone();
+        ReplaySession session = runningReplays.get(runId);
+        return session != null && !session.isDone();
     }
 
     /**
-     * 回放任务内部类
+     * 修改运行中回放的倍速
      */
-    private class ReplayTask implements Runnable {
-        private final UUID runId;
-        private final Robot robot;
-        private final List<JointSample> jointSamples;
-        private final List<PoseSample> poseSamples;
-        private final double speed;
-        private int currentIndex = 0;
-        private Instant lastReplayTime;
-
-        public ReplayTask(UUID runId, Robot robot, List<JointSample> jointSamples,
-                         List<PoseSample> poseSamples, double speed) {
-            this.runId = runId;
-            this.robot = robot;
-            this.jointSamples = jointSamples;
-            this.poseSamples = poseSamples;
-            this.speed = speed;
-            this.lastReplayTime = Instant.now();
-        }
-
-        @Override
-        public void run() {
-            try {
-                ScenarioRun scenarioRun = scenarioRunRepository.findById(runId).orElse(null);
-                if (scenarioRun == null || scenarioRun.getStatus() != ScenarioRun.RunStatus.RUNNING) {
-                    // 回放已停止，清理任务
-                    runningReplays.remove(runId);
-                    return;
-                }
-
-                // 检查是否还有数据要回放
-                if (currentIndex >= jointSamples.size()) {
-                    // 回放完成
-                    scenarioRun.setStatus(ScenarioRun.RunStatus.FINISHED);
-                    scenarioRun.setEndedAt(Instant.now());
-                    scenarioRunRepository.save(scenarioRun);
-                    webSocketEventHandler.pushSimulationStatus(runId, scenarioRun);
-                    runningReplays.remove(runId);
-                    log.info("Replay completed for run: {}", runId);
-                    return;
-                }
+    public ReplayStatus setReplaySpeed(UUID runId, double speed) {
+        ReplaySession session = requireReplay(runId);
+        session.setSpeed(speed);
+        log.info("Replay speed for run {} changed to {}", runId, speed);
+        return session.getStatus();
+    }
 
-                Instant now = Instant.now();
+    public ReplayStatus pauseReplay(UUID runId) {
+        ReplaySession session = requireReplay(runId);
+        session.pause();
+        log.info("Paused replay for run: {}", runId);
+        return session.getStatus();
+    }
 
-                // 获取当前要回放的样本（按时间分组）
-                Instant currentTimestamp = jointSamples.get(currentIndex).getTs();
+    public ReplayStatus resumeReplay(UUID runId) {
+        ReplaySession session = requireReplay(runId);
+        session.resume();
+        log.info("Resumed replay for run: {}", runId);
+        return session.getStatus();
+    }
 
-                // 收集同一时间戳的所有样本
-                List<JointSample> currentJointSamples = java.util.stream.Stream.concat(
-                    jointSamples.stream().filter(s -> s.getTs().equals(currentTimestamp)),
-                    java.util.stream.Stream.empty()
-                ).collect(java.util.stream.Collectors.toList());
+    /**
+     * 将运行中的回放跳转到指定录制时刻
+     */
+    public ReplayStatus seekReplay(UUID runId, Instant ts) {
+        ReplaySession session = requireReplay(runId);
+        session.seek(ts);
+        log.info("Replay for run {} seeking to {}", runId, ts);
+        return session.getStatus();
+    }
 
-                PoseSample currentPoseSample = poseSamples.stream()
-                    .filter(s -> s.getTs().equals(currentTimestamp))
-                    .findFirst()
-                    .orElse(null);
+    public ReplayStatus getReplayStatus(UUID runId) {
+        return requireReplay(runId).getStatus();
+    }
 
-                // 重新执行异常检测
-                for (JointSample jointSample : currentJointSamples) {
-                    anomalyDetectionService.processSample(jointSample);
-                }
+    private ReplaySession requireReplay(UUID runId) {
+        ReplaySession session = runningReplays.get(runId);
+        if (session == null || session.isDone()) {
+            throw new IllegalStateException("No replay is running for run: " + runId);
+        }
+        return session;
+    }
 
-                if (currentPoseSample != null) {
-                    anomalyDetectionService.processSample(currentPoseSample);
+    /**
+     * 在回放线程中执行回放会话，正常结束时将运行置为FINISHED
+     */
+    private void runReplay(UUID runId, ReplaySession session) {
+        try {
+            if (!session.run()) {
+                return;
+            }
+            // 回放完成
+            if (runningReplays.remove(runId, session)) {
+                ScenarioRun scenarioRun = runStateRegistry.finish(runId, ScenarioRun.RunStatus.FINISHED);
+                if (scenarioRun != null) {
+                    webSocketEventHandler.pushSimulationStatus(runId, scenarioRun);
                 }
+                log.info("Replay completed for run: {}", runId);
+            }
+        } catch (Exception e) {
+            log.error("Error in replay task for run: {}", runId, e);
+            // 发生错误时停止回放
+            stopReplay(runId);
+        }
+    }
 
-                // 推送传感器数据到WebSocket客户端
-                webSocketEventHandler.pushLatestSensorData(robot.getId(), currentJointSamples,
-                    currentPoseSample != null ? currentPoseSample : poseSamples.get(Math.max(0, poseSamples.size() - 1)));
-
-                currentIndex += currentJointSamples.size();
-                lastReplayTime = now;
+    /**
+     * 回放一帧（同一时间戳的全部样本）：重新执行异常检测并推送到WebSocket客户端
+     */
+    private void replayFrame(UUID runId, ReplayFrame frame) {
+        List<JointSample> currentJointSamples = frame.getJointSamples();
+        Map<UUID, PoseSample> currentPoseSamples = frame.getPoseSamples();
+
+        Map<UUID, List<JointSample>> samplesByRobot = currentJointSamples.stream()
+            .collect(java.util.stream.Collectors.groupingBy(s -> s.getRobot().getId()));
+
+        // 按机器人提交到检测流水线重新执行异常检测
+        samplesByRobot.forEach((robotId, samples) ->
+            detectionPipeline.submit(robotId, samples, currentPoseSamples.get(robotId)));
+        currentPoseSamples.forEach((robotId, poseSample) -> {
+            if (!samplesByRobot.containsKey(robotId)) {
+                detectionPipeline.submit(robotId, List.of(), poseSample);
+            }
+        });
 
-                log.debug("Replayed {} samples for run: {} at timestamp: {}", currentJointSamples.size(), runId, currentTimestamp);
+        // 按机器人推送传感器数据到WebSocket客户端
+        samplesByRobot.forEach((robotId, samples) ->
+            webSocketEventHandler.pushLatestSensorData(robotId, samples, currentPoseSamples.get(robotId)));
 
-            } catch (Exception e) {
-                log.error("Error in replay task for run: {}", runId, e);
-                // 发生错误时停止回放
-                stopReplay(runId);
-            }
-        }
+        log.debug("Replayed {} samples for run: {} at timestamp: {}", currentJointSamples.size(), runId, frame.getTs());
     }
 
     /**
      * 仿真任务内部类
+     *
+     * <p>一次tick驱动运行内的全部机器人，各机器人的数据生成分摊到工作线程池。
+     * 样本时间戳取tick的理想时刻，补执行的tick不会产生时间戳挤在一起的样本。</p>
      */
-    private class SimulationTask implements Runnable {
+    private class SimulationTask implements TickScheduler.TickTask {
         private final UUID runId;
-        private final Robot robot;
+        private final List<Robot> robots;
 
-        public SimulationTask(UUID runId, Robot robot) {
+        public SimulationTask(UUID runId, List<Robot> robots) {
             this.runId = runId;
-            this.robot = robot;
+            this.robots = robots;
         }
 
         @Override
-        public void run() {
+        public void run(Instant now) {
             try {
-                ScenarioRun scenarioRun = scenarioRunRepository.findById(runId).orElse(null);
-                if (scenarioRun == null || scenarioRun.getStatus() != ScenarioRun.RunStatus.RUNNING) {
+                RunState runState = runStateRegistry.get(runId);
+                if (runState == null || !runState.isRunning()) {
                     // 仿真已停止，清理任务
-                    runningSimulations.remove(runId);
+                    TickScheduler.TickHandle handle = runningSimulations.remove(runId);
+                    if (handle != null) {
+                        handle.cancel();
+                    }
+                    dataCollector.releaseRun(runId);
                     return;
                 }
+                ScenarioRun scenarioRun = runState.getScenarioRun();
 
-                Instant now = Instant.now();
-
-                // 获取当前激活的故障注入
-                List<FaultInjection> activeFaults = faultInjectionRepository
-                        .findByScenarioRunIdAndTimeRange(runId, now);
-
-                // 生成关节数据（每个关节）
-                for (int jointIndex = 0; jointIndex < robot.getJointCount(); jointIndex++) {
-                    try {
-                        JointSample jointSample = dataCollector.collectJointSample(
-                                robot, jointIndex, scenarioRun, now, activeFaults);
-                        jointSample = jointSampleRepository.save(jointSample);
-
-                        // 执行异常检测
-                        anomalyDetectionService.processSample(jointSample);
-                    } catch (Exception e) {
-                        log.error("Failed to collect joint sample for joint {}: {}", jointIndex, e.getMessage());
-                        // 如果数据采集失败，尝试降级到模拟模式
-                        if (!(dataCollector instanceof SimulationCollector)) {
-                            log.warn("Data collection failed, consider switching to simulation mode");
-                        }
-                        throw e; // 重新抛出异常让上层处理
-                    }
-                }
+                // 从内存时间线获取当前激活的故障注入（整个运行共享一次查询）
+                List<FaultInjection> activeFaults = runState.getFaultTimeline().activeAt(now);
 
-                // 生成位姿数据
-                try {
-                    PoseSample poseSample = dataCollector.collectPoseSample(
-                            robot, scenarioRun, now, activeFaults);
-                    poseSample = poseSampleRepository.save(poseSample);
-
-                // 执行位姿异常检测
-                anomalyDetectionService.processSample(poseSample);
-
-                // 推送最新的传感器数据到WebSocket客户端
-                List<JointSample> latestJointSamples = jointSampleRepository.findAll().stream()
-                        .filter(sample -> sample.getRobot().getId().equals(robot.getId()))
-                        .collect(java.util.stream.Collectors.groupingBy(
-                                JointSample::getJointIndex,
-                                java.util.stream.Collectors.maxBy(java.util.Comparator.comparing(JointSample::getTs))
-                        ))
-                        .values()
-                        .stream()
-                        .filter(java.util.Optional::isPresent)
-                        .map(java.util.Optional::get)
-                        .collect(java.util.stream.Collectors.toList());
-
-                webSocketEventHandler.pushLatestSensorData(robot.getId(), latestJointSamples, poseSample);
+                forEachRobot(robots, robot -> tickRobot(robot, runState, scenarioRun, now, activeFaults));
 
                 log.debug("Generated simulation data for run: {} at time: {}", runId, now);
 
-                } catch (Exception e) {
-                    log.error("Failed to collect pose sample: {}", e.getMessage());
-                    // 如果位姿数据采集失败，记录错误但继续运行
-                    // 这里可以选择不推送数据或者推送部分数据
-                }
-
             } catch (Exception e) {
                 log.error("Error in simulation task for run: {}", runId, e);
                 // 发生错误时停止仿真
                 stopSimulation(runId);
             }
         }
+
+        /**
+         * 生成单个机器人在当前tick的关节与位姿数据
+         *
+         * <p>样本交给检测流水线和写后持久化队列，tick线程不等待检测和落库。</p>
+         */
+        private void tickRobot(Robot robot, RunState runState, ScenarioRun scenarioRun,
+                               Instant now, List<FaultInjection> activeFaults) {
+            // 一次生成该机器人全部关节与位姿数据
+            RobotFrame frame;
+            try {
+                frame = dataCollector.collectRobotFrame(robot, scenarioRun, now, activeFaults);
+            } catch (Exception e) {
+                log.error("Failed to collect joint samples for robot {}: {}", robot.getId(), e.getMessage());
+                // 如果数据采集失败，尝试降级到模拟模式
+                if (!(dataCollector instanceof SimulationCollector)) {
+                    log.warn("Data collection failed, consider switching to simulation mode");
+                }
+                throw e; // 重新抛出异常让上层处理
+            }
+            List<JointSample> jointSamples = frame.getJointSamples();
+            PoseSample poseSample = frame.getPoseSample();
+
+            // 异常检测交给检测流水线，告警写库不阻塞tick
+            detectionPipeline.submit(robot.getId(), jointSamples, poseSample);
+
+            sampleIngestService.submit(jointSamples, poseSample, runState.getIngestMode());
+
+            // 推送本次tick生成的传感器数据（即各关节最新值）到WebSocket客户端
+            webSocketEventHandler.pushLatestSensorData(robot.getId(), jointSamples, poseSample);
+        }
     }
 
     /**
@@ -490,12 +539,24 @@ public class SimulationEngine {
         // 获取相关数据
         List<JointSample> jointSamples = jointSampleRepository.findByScenarioRunOrderByTs(scenarioRun);
         List<PoseSample> poseSamples = poseSampleRepository.findByScenarioRunOrderByTs(scenarioRun);
-        List<AlarmEvent> alarmEvents = alarmEventRepository.findAll().stream()
-                .filter(alarm -> alarm.getScenarioRun() != null && alarm.getScenarioRun().getId().equals(scenarioRun.getId()))
-                .sorted((a, b) -> a.getFirstSeenTs().compareTo(b.getFirstSeenTs()))
-                .toList();
+        List<AlarmEvent> alarmEvents = alarmEventRepository.findByScenarioRunIdOrderByFirstSeenTs(runId);
         List<FaultInjection> faultInjections = faultInjectionRepository.findByScenarioRunId(runId);
 
+        return buildEvaluationReport(scenarioRun, jointSamples, poseSamples, alarmEvents, faultInjections);
+    }
+
+    /**
+     * 由已加载的运行数据计算评测报告，样本须按时间排序
+     */
+    static EvaluationReport buildEvaluationReport(ScenarioRun scenarioRun,
+                                                  List<JointSample> jointSamples,
+                                                  List<PoseSample> poseSamples,
+                                                  List<AlarmEvent> alarmEvents,
+                                                  List<FaultInjection> faultInjections) {
+        // 样本已按时间排序，与告警区间一次扫描对齐
+        DetectionScorer scorer = new DetectionScorer(alarmEvents);
+        jointSamples.forEach(scorer::accept);
+
         // 计算样本统计
         EvaluationReport.SampleStatistics sampleStats = calculateSampleStatistics(jointSamples, poseSamples, scenarioRun);
 
@@ -503,15 +564,15 @@ public class SimulationEngine {
         EvaluationReport.AlarmStatistics alarmStats = calculateAlarmStatistics(alarmEvents);
 
         // 计算检测器性能
-        EvaluationReport.DetectorPerformance detectorPerformance = calculateDetectorPerformance(alarmEvents, faultInjections);
+        EvaluationReport.DetectorPerformance detectorPerformance = scorer.result(faultInjections);
 
         // 故障注入摘要
         List<EvaluationReport.FaultInjectionSummary> faultSummaries = faultInjections.stream()
-                .map(this::createFaultInjectionSummary)
+                .map(fault -> createFaultInjectionSummary(fault, scorer.detectionDelay(fault)))
                 .toList();
 
         return EvaluationReport.builder()
-                .scenarioRunId(runId.toString())
+                .scenarioRunId(scenarioRun.getId().toString())
                 .scenarioName(scenarioRun.getScenario().getName())
                 .robotName("Robot-001") // 简化处理
                 .startTime(scenarioRun.getStartedAt())
@@ -529,48 +590,9 @@ public class SimulationEngine {
                 .build();
     }
 
-    /**
-     * 导出CSV格式的评测数据
-     */
-    public byte[] exportEvaluationCsv(UUID runId) {
-        EvaluationReport report = generateEvaluationReport(runId);
-        StringBuilder csv = new StringBuilder();
-
-        // CSV头部
-        csv.append("timestamp,joint_index,current_a,vibration_rms,temperature_c,alarm_type,severity,detector,score\n");
-
-        // 样本数据
-        for (JointSample sample : report.getJointSamples()) {
-            csv.append(sample.getTs()).append(",")
-               .append(sample.getJointIndex()).append(",")
-               .append(sample.getCurrentA()).append(",")
-               .append(sample.getVibrationRms()).append(",")
-               .append(sample.getTemperatureC()).append(",")
-               .append("").append(",") // 告警类型
-               .append("").append(",") // 严重程度
-               .append("").append(",") // 检测器
-               .append("").append("\n"); // 得分
-        }
-
-        return csv.toString().getBytes();
-    }
-
-    /**
-     * 导出JSON格式的评测数据
-     */
-    public byte[] exportEvaluationJson(UUID runId) {
-        try {
-            EvaluationReport report = generateEvaluationReport(runId);
-            return objectMapper.writeValueAsBytes(report);
-        } catch (Exception e) {
-            log.error("Failed to export evaluation JSON for run: {}", runId, e);
-            throw new RuntimeException("Failed to export evaluation data", e);
-        }
-    }
-
-    private EvaluationReport.SampleStatistics calculateSampleStatistics(List<JointSample> jointSamples,
-                                                                       List<PoseSample> poseSamples,
-                                                                       ScenarioRun scenarioRun) {
+    private static EvaluationReport.SampleStatistics calculateSampleStatistics(List<JointSample> jointSamples,
+                                                                              List<PoseSample> poseSamples,
+                                                                              ScenarioRun scenarioRun) {
         int totalJointSamples = jointSamples.size();
         int totalPoseSamples = poseSamples.size();
 
@@ -586,26 +608,17 @@ public class SimulationEngine {
         return EvaluationReport.SampleStatistics.builder()
                 .totalJointSamples(totalJointSamples)
                 .totalPoseSamples(totalPoseSamples)
-                .jointsCount(6) // 固定为6关节
+                .jointsCount((int) jointSamples.stream().mapToInt(JointSample::getJointIndex).distinct().count())
                 .timeSpan(timeSpan)
                 .avgSamplingIntervalMs(avgSamplingIntervalMs)
                 .build();
     }
 
-    private EvaluationReport.AlarmStatistics calculateAlarmStatistics(List<AlarmEvent> alarmEvents) {
+    static EvaluationReport.AlarmStatistics calculateAlarmStatistics(List<AlarmEvent> alarmEvents) {
         int totalAlarms = alarmEvents.size();
         int openAlarms = (int) alarmEvents.stream().filter(a -> a.getStatus() == AlarmEvent.Status.OPEN).count();
         int acknowledgedAlarms = (int) alarmEvents.stream().filter(a -> a.getStatus() == AlarmEvent.Status.ACKED).count();
-        int suppressedAlarms = (int) alarmEvents.stream().filter(a -> {
-            try {
-                if (a.getEvidence() != null && a.getEvidence().has("suppressed")) {
-                    return a.getEvidence().get("suppressed").asBoolean();
-                }
-            } catch (Exception e) {
-                // Ignore parsing errors
-            }
-            return false;
-        }).count();
+        int suppressedAlarms = (int) alarmEvents.stream().filter(a -> Boolean.TRUE.equals(a.getSuppressed())).count();
 
         Map<String, Integer> alarmsByType = alarmEvents.stream()
                 .collect(java.util.stream.Collectors.groupingBy(
@@ -636,37 +649,16 @@ public class SimulationEngine {
                 .build();
     }
 
-    private EvaluationReport.DetectorPerformance calculateDetectorPerformance(List<AlarmEvent> alarmEvents,
-                                                                             List<FaultInjection> faultInjections) {
-        // 简化实现 - 实际论文中需要更复杂的性能计算
-        return EvaluationReport.DetectorPerformance.builder()
-                .thresholdAccuracy(0.85)
-                .thresholdPrecision(0.80)
-                .thresholdRecall(0.90)
-                .zScoreAccuracy(0.90)
-                .zScorePrecision(0.85)
-                .zScoreRecall(0.95)
-                .avgDetectionDelay(Duration.ofSeconds(5))
-                .build();
-    }
-
-    private EvaluationReport.FaultInjectionSummary createFaultInjectionSummary(FaultInjection fault) {
-        // 检查是否有对应的告警（简化逻辑：检查是否有相同scenario_run的告警）
-        boolean triggeredAlarm = alarmEventRepository
-                .findAll()
-                .stream()
-                .filter(alarm -> alarm.getScenarioRun() != null &&
-                        alarm.getScenarioRun().getId().equals(fault.getScenarioRun().getId()))
-                .anyMatch(alarm -> alarm.getFirstSeenTs().isAfter(fault.getStartTs()));
-
+    static EvaluationReport.FaultInjectionSummary createFaultInjectionSummary(FaultInjection fault,
+                                                                             Duration detectionDelay) {
         return EvaluationReport.FaultInjectionSummary.builder()
                 .faultType(fault.getFaultType().toString())
                 .startTime(fault.getStartTs())
                 .endTime(fault.getEndTs())
                 .duration(Duration.between(fault.getStartTs(), fault.getEndTs()))
                 .params(fault.getParams() != null ? fault.getParams().toString() : null)
-                .triggeredAlarm(triggeredAlarm)
-                .detectionDelay(triggeredAlarm ? Duration.ofSeconds(3) : null)
+                .triggeredAlarm(detectionDelay != null)
+                .detectionDelay(detectionDelay)
                 .build();
     }
 }
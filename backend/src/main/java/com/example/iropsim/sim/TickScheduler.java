@@ -0,0 +1,251 @@
+package com.example.iropsim.sim;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 高频tick调度器
+ *
+ * <p>替代{@code scheduleAtFixedRate(1000 / rateHz, MILLISECONDS)}：毫秒整数周期在300Hz时被截断为3ms，
+ * 超过1000Hz时周期变为0，也无法表达亚毫秒周期。这里每个运行占用一个专用tick线程，
+ * 第n次tick的理想时刻按{@code start + n * 1e9 / rateHz}纳秒计算，误差不随时间累积。</p>
+ *
+ * <p>等待时先park到理想时刻前{@code spinThreshold}，剩余部分自旋，以降低park唤醒延迟带来的抖动。
+ * tick执行超时后按{@link OverrunPolicy}处理：</p>
+ * <ul>
+ *   <li><b>CATCH_UP：</b> 连续补执行落后的tick，落后超过{@code maxCatchUpTicks}的部分丢弃</li>
+ *   <li><b>SKIP：</b> 丢弃落后的tick，直接对齐到最近一个理想时刻</li>
+ * </ul>
+ *
+ * <p>每次tick把自己的理想时刻（调度开始的墙钟时间 + tickIndex × 周期）传给任务，
+ * 补执行的tick即使连续执行，样本时间戳也保持均匀间隔。tick线程被中断（如应用关闭时线程池shutdownNow）后退出循环。</p>
+ */
+@Slf4j
+@Component
+public class TickScheduler {
+
+    /**
+     * tick执行超时后的处理策略
+     */
+    public enum OverrunPolicy {
+        CATCH_UP,
+        SKIP
+    }
+
+    /**
+     * tick任务
+     */
+    @FunctionalInterface
+    public interface TickTask {
+        /**
+         * @param tickTime 本次tick的理想时刻，补执行的tick使用各自的理想时刻而不是实际执行时间
+         */
+        void run(Instant tickTime);
+    }
+
+    private final ExecutorService tickExecutor;
+    private final OverrunPolicy defaultPolicy;
+    private final long spinThresholdNanos;
+    private final int maxCatchUpTicks;
+
+    public TickScheduler(@Qualifier("simulationTickExecutor") ExecutorService tickExecutor,
+                         @Value("${simulation.tick.overrun-policy:CATCH_UP}") OverrunPolicy defaultPolicy,
+                         @Value("${simulation.tick.spin-threshold-us:200}") long spinThresholdMicros,
+                         @Value("${simulation.tick.max-catch-up-ticks:100}") int maxCatchUpTicks) {
+        this.tickExecutor = tickExecutor;
+        this.defaultPolicy = defaultPolicy;
+        this.spinThresholdNanos = Math.max(0, spinThresholdMicros) * 1_000L;
+        this.maxCatchUpTicks = Math.max(0, maxCatchUpTicks);
+    }
+
+    /**
+     * 按默认超时策略调度tick任务
+     */
+    public TickHandle schedule(String name, double rateHz, TickTask task) {
+        return schedule(name, rateHz, defaultPolicy, task);
+    }
+
+    /**
+     * 以指定频率循环执行tick任务，首次tick立即执行
+     *
+     * <p>任务抛出异常时停止调度，与{@code ScheduledExecutorService}的行为一致。</p>
+     *
+     * @param name   调度名称，用于日志
+     * @param rateHz tick频率，可为小数和1000Hz以上的频率
+     * @return 用于取消调度和读取统计的句柄
+     */
+    public TickHandle schedule(String name, double rateHz, OverrunPolicy policy, TickTask task) {
+        if (!(rateHz > 0) || Double.isInfinite(rateHz)) {
+            throw new IllegalArgumentException("Tick rate must be a positive finite number: " + rateHz);
+        }
+        TickHandle handle = new TickHandle(name, rateHz, policy, task);
+        tickExecutor.execute(handle::loop);
+        return handle;
+    }
+
+    /**
+     * 在tick线程池中执行自行控制节奏的循环（如按录制时间戳调度的回放）
+     */
+    public void runLoop(Runnable loop) {
+        tickExecutor.execute(loop);
+    }
+
+    /**
+     * 单个调度的句柄：取消调度并读取运行统计
+     */
+    public final class TickHandle {
+        private final String name;
+        private final double rateHz;
+        private final double periodNanos;
+        private final OverrunPolicy policy;
+        private final TickTask task;
+
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Thread thread;
+
+        // 统计字段只由tick线程写入，读取时允许看到略微过时的值
+        // nanoTime的原点任意，可能为负，不能用startNanos > 0判断是否已开始；started在startNanos之后写入
+        private volatile boolean started;
+        private volatile long startNanos;
+        private Instant startTime;
+        private volatile long ticks;
+        private volatile long missedTicks;
+        private volatile double latenessSumNanos;
+        private volatile long maxLatenessNanos;
+        private volatile double intervalMeanNanos;
+        private volatile double intervalM2;
+        private long lastBeginNanos;
+
+        private TickHandle(String name, double rateHz, OverrunPolicy policy, TickTask task) {
+            this.name = name;
+            this.rateHz = rateHz;
+            this.periodNanos = 1_000_000_000.0 / rateHz;
+            this.policy = policy;
+            this.task = task;
+        }
+
+        /**
+         * 取消调度，正在执行的tick会执行完毕
+         */
+        public void cancel() {
+            cancelled = true;
+            Thread current = thread;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+
+        public boolean isDone() {
+            return done || cancelled;
+        }
+
+        public TickStats getStats() {
+            long executed = ticks;
+            long elapsedNanos = started ? System.nanoTime() - startNanos : 0;
+            double jitterNanos = executed > 2 ? Math.sqrt(intervalM2 / (executed - 2)) : 0.0;
+            return TickStats.builder()
+                    .targetRateHz(rateHz)
+                    .actualRateHz(elapsedNanos > 0 ? executed * 1e9 / elapsedNanos : 0.0)
+                    .periodNanos(Math.round(periodNanos))
+                    .overrunPolicy(policy)
+                    .ticks(executed)
+                    .missedTicks(missedTicks)
+                    .meanLatenessMicros(executed > 0 ? latenessSumNanos / executed / 1_000.0 : 0.0)
+                    .maxLatenessMicros(maxLatenessNanos / 1_000.0)
+                    .jitterMicros(jitterNanos / 1_000.0)
+                    .build();
+        }
+
+        private long offsetNanos(long tickIndex) {
+            return (long) (tickIndex * periodNanos);
+        }
+
+        private long deadline(long tickIndex) {
+            return startNanos + offsetNanos(tickIndex);
+        }
+
+        private void loop() {
+            thread = Thread.currentThread();
+            startTime = Instant.now();
+            startNanos = System.nanoTime();
+            started = true;
+            long tickIndex = 0;
+            try {
+                while (!cancelled && !Thread.currentThread().isInterrupted()) {
+                    long deadline = deadline(tickIndex);
+                    if (!awaitDeadline(deadline)) {
+                        break;
+                    }
+                    long begin = System.nanoTime();
+
+                    long behind = (long) ((begin - deadline) / periodNanos);
+                    long allowed = policy == OverrunPolicy.SKIP ? 0 : maxCatchUpTicks;
+                    if (behind > allowed) {
+                        // 丢弃超出允许范围的落后tick，保留最近的理想时刻
+                        long dropped = behind - allowed;
+                        missedTicks += dropped;
+                        tickIndex += dropped;
+                        deadline = deadline(tickIndex);
+                    }
+
+                    record(begin, begin - deadline);
+                    task.run(startTime.plusNanos(offsetNanos(tickIndex)));
+                    tickIndex++;
+                }
+            } catch (Throwable t) {
+                log.error("Tick loop {} terminated by task failure", name, t);
+            } finally {
+                done = true;
+                thread = null;
+            }
+        }
+
+        /**
+         * 等待到理想时刻，取消或线程被中断时返回false
+         */
+        private boolean awaitDeadline(long deadline) {
+            while (!cancelled) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // 被中断后parkNanos会立即返回，继续循环只会空转
+                    log.info("Tick loop {} interrupted, stopping", name);
+                    return false;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return true;
+                }
+                if (remaining > spinThresholdNanos) {
+                    LockSupport.parkNanos(remaining - spinThresholdNanos);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            return false;
+        }
+
+        private void record(long begin, long latenessNanos) {
+            long count = ticks;
+            if (count > 0) {
+                // Welford更新相邻tick开始间隔的均值与平方和
+                double interval = begin - lastBeginNanos;
+                double delta = interval - intervalMeanNanos;
+                double mean = intervalMeanNanos + delta / count;
+                intervalM2 += delta * (interval - mean);
+                intervalMeanNanos = mean;
+            }
+            lastBeginNanos = begin;
+            latenessSumNanos += latenessNanos;
+            if (latenessNanos > maxLatenessNanos) {
+                maxLatenessNanos = latenessNanos;
+            }
+            ticks = count + 1;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.iropsim.sim;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个运行的tick调度统计
+ *
+ * <p>延迟（lateness）为每次tick实际开始时间与理想时刻之差，抖动为相邻两次tick开始间隔的标准差。</p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TickStats {
+
+    private double targetRateHz;
+    private double actualRateHz;
+    private long periodNanos;
+    private TickScheduler.OverrunPolicy overrunPolicy;
+
+    // 已执行与丢弃（超时跳过或超过追赶上限）的tick数
+    private long ticks;
+    private long missedTicks;
+
+    // 相对理想时刻的延迟（微秒）
+    private double meanLatenessMicros;
+    private double maxLatenessMicros;
+
+    // 相邻tick开始间隔的标准差（微秒）
+    private double jitterMicros;
+}
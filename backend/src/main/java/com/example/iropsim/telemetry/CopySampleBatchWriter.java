@@ -0,0 +1,150 @@
+package com.example.iropsim.telemetry;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.ScenarioRun;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 基于PostgreSQL COPY的批量写入器
+ *
+ * <p>通过驱动的CopyManager以CSV格式把一批样本流式写入
+ * {@code joint_sample}/{@code pose_sample}，省去逐行INSERT的解析与往返开销。
+ * 主键列不写入，由BIGSERIAL默认值分配。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CopySampleBatchWriter implements SampleBatchWriter {
+
+    private static final String COPY_JOINT_SAMPLE_SQL =
+            "COPY joint_sample (ts, robot_id, joint_index, current_a, vibration_rms, temperature_c, scenario_run_id, label) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COPY_POSE_SAMPLE_SQL =
+            "COPY pose_sample (ts, robot_id, x, y, z, rx, ry, rz, scenario_run_id, label) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final DataSource dataSource;
+
+    @Override
+    public ScenarioRun.IngestMode getMode() {
+        return ScenarioRun.IngestMode.COPY;
+    }
+
+    @Override
+    public void writeJointSamples(List<JointSample> samples) {
+        copy(COPY_JOINT_SAMPLE_SQL, writer -> {
+            for (JointSample sample : samples) {
+                writer.write(sample.getTs().toString());
+                writer.write(',');
+                writer.write(sample.getRobot().getId().toString());
+                writer.write(',');
+                writer.write(Integer.toString(sample.getJointIndex()));
+                writer.write(',');
+                writeDouble(writer, sample.getCurrentA());
+                writer.write(',');
+                writeDouble(writer, sample.getVibrationRms());
+                writer.write(',');
+                writeDouble(writer, sample.getTemperatureC());
+                writer.write(',');
+                writeRunId(writer, sample.getScenarioRun());
+                writer.write(',');
+                if (sample.getLabel() != null) {
+                    writer.write(sample.getLabel().name());
+                }
+                writer.write('\n');
+            }
+        });
+    }
+
+    @Override
+    public void writePoseSamples(List<PoseSample> samples) {
+        copy(COPY_POSE_SAMPLE_SQL, writer -> {
+            for (PoseSample sample : samples) {
+                writer.write(sample.getTs().toString());
+                writer.write(',');
+                writer.write(sample.getRobot().getId().toString());
+                writer.write(',');
+                writeDouble(writer, sample.getX());
+                writer.write(',');
+                writeDouble(writer, sample.getY());
+                writer.write(',');
+                writeDouble(writer, sample.getZ());
+                writer.write(',');
+                writeDouble(writer, sample.getRx());
+                writer.write(',');
+                writeDouble(writer, sample.getRy());
+                writer.write(',');
+                writeDouble(writer, sample.getRz());
+                writer.write(',');
+                writeRunId(writer, sample.getScenarioRun());
+                writer.write(',');
+                if (sample.getLabel() != null) {
+                    writer.write(sample.getLabel().name());
+                }
+                writer.write('\n');
+            }
+        });
+    }
+
+    private void copy(String sql, RowWriter rowWriter) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            PGCopyOutputStream copyStream = new PGCopyOutputStream(pgConnection, sql, COPY_BUFFER_SIZE);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(copyStream, StandardCharsets.UTF_8));
+            try {
+                rowWriter.write(writer);
+                writer.close(); // 结束COPY并提交
+            } catch (IOException | RuntimeException e) {
+                // 中途失败时取消COPY，避免写入半批数据
+                if (copyStream.isActive()) {
+                    copyStream.cancelCopy();
+                }
+                throw e;
+            }
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("COPY into sample table failed: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * CSV格式中未加引号的空字段即为NULL
+     */
+    private static void writeDouble(Writer writer, Double value) throws IOException {
+        if (value != null) {
+            writer.write(Double.toString(value));
+        }
+    }
+
+    private static void writeRunId(Writer writer, ScenarioRun scenarioRun) throws IOException {
+        if (scenarioRun != null && scenarioRun.getId() != null) {
+            writer.write(scenarioRun.getId().toString());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Writer writer) throws IOException;
+    }
+}
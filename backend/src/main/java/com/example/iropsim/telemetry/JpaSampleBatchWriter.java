@@ -0,0 +1,44 @@
+package com.example.iropsim.telemetry;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.ScenarioRun;
+import com.example.iropsim.repository.JointSampleRepository;
+import com.example.iropsim.repository.PoseSampleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 基于JPA的批量写入器
+ *
+ * <p>样本主键使用序列分配（allocationSize与数据库序列步长一致），
+ * 配合{@code hibernate.jdbc.batch_size}与驱动的{@code reWriteBatchedInserts}，
+ * 一批样本最终合并为少量多行INSERT。</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class JpaSampleBatchWriter implements SampleBatchWriter {
+
+    private final JointSampleRepository jointSampleRepository;
+    private final PoseSampleRepository poseSampleRepository;
+
+    @Override
+    public ScenarioRun.IngestMode getMode() {
+        return ScenarioRun.IngestMode.JPA;
+    }
+
+    @Override
+    @Transactional
+    public void writeJointSamples(List<JointSample> samples) {
+        jointSampleRepository.saveAll(samples);
+    }
+
+    @Override
+    @Transactional
+    public void writePoseSamples(List<PoseSample> samples) {
+        poseSampleRepository.saveAll(samples);
+    }
+}
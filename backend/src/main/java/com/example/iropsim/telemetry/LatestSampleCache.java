@@ -0,0 +1,103 @@
+package com.example.iropsim.telemetry;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 最新样本缓存
+ *
+ * <p>按(robotId, jointIndex)保存每个关节最近一条样本，以及每个机器人最近一条位姿样本。
+ * 由采集入库路径实时更新，查询"最新数据"时只需O(关节数)，与历史数据量无关。
+ * 同一位置只保留时间戳更新的样本，乱序到达的旧样本不会覆盖新值。</p>
+ */
+@Component
+public class LatestSampleCache {
+
+    private final ConcurrentHashMap<UUID, RobotLatest> robots = new ConcurrentHashMap<>();
+
+    /**
+     * 更新关节最新样本
+     */
+    public void updateJointSample(JointSample sample) {
+        if (sample == null || sample.getRobot() == null || sample.getJointIndex() == null) {
+            return;
+        }
+        robots.computeIfAbsent(sample.getRobot().getId(), id -> new RobotLatest())
+                .joints.merge(sample.getJointIndex(), sample, LatestSampleCache::newer);
+    }
+
+    /**
+     * 批量更新关节最新样本
+     */
+    public void updateJointSamples(List<JointSample> samples) {
+        for (JointSample sample : samples) {
+            updateJointSample(sample);
+        }
+    }
+
+    /**
+     * 更新位姿最新样本
+     */
+    public void updatePoseSample(PoseSample sample) {
+        if (sample == null || sample.getRobot() == null) {
+            return;
+        }
+        robots.computeIfAbsent(sample.getRobot().getId(), id -> new RobotLatest())
+                .pose.accumulateAndGet(sample, LatestSampleCache::newer);
+    }
+
+    /**
+     * 获取机器人各关节最新样本（按关节序号排列），没有缓存时返回空列表
+     */
+    public List<JointSample> getLatestJointSamples(UUID robotId) {
+        RobotLatest latest = robots.get(robotId);
+        if (latest == null) {
+            return List.of();
+        }
+        return new ArrayList<>(latest.joints.values());
+    }
+
+    /**
+     * 获取机器人最新位姿样本，没有缓存时返回null
+     */
+    public PoseSample getLatestPoseSample(UUID robotId) {
+        RobotLatest latest = robots.get(robotId);
+        return latest != null ? latest.pose.get() : null;
+    }
+
+    /**
+     * 机器人删除时清除缓存
+     */
+    public void evict(UUID robotId) {
+        robots.remove(robotId);
+    }
+
+    private static JointSample newer(JointSample current, JointSample candidate) {
+        return isNewer(candidate.getTs(), current != null ? current.getTs() : null) ? candidate : current;
+    }
+
+    private static PoseSample newer(PoseSample current, PoseSample candidate) {
+        return isNewer(candidate.getTs(), current != null ? current.getTs() : null) ? candidate : current;
+    }
+
+    private static boolean isNewer(Instant candidateTs, Instant currentTs) {
+        return currentTs == null || (candidateTs != null && !candidateTs.isBefore(currentTs));
+    }
+
+    /**
+     * 单个机器人的最新值，关节按序号有序
+     */
+    private static class RobotLatest {
+        final ConcurrentSkipListMap<Integer, JointSample> joints = new ConcurrentSkipListMap<>();
+        final AtomicReference<PoseSample> pose = new AtomicReference<>();
+    }
+}
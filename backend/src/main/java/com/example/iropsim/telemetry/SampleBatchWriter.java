@@ -0,0 +1,31 @@
+package com.example.iropsim.telemetry;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.ScenarioRun;
+
+import java.util.List;
+
+/**
+ * 样本批量写入器
+ *
+ * <p>由{@link SampleIngestService}的写线程调用，一次写入一批已生成的样本。
+ * 每种{@link ScenarioRun.IngestMode}对应一个实现，由运行配置选择。</p>
+ */
+public interface SampleBatchWriter {
+
+    /**
+     * 该写入器对应的落库方式
+     */
+    ScenarioRun.IngestMode getMode();
+
+    /**
+     * 批量写入关节样本
+     */
+    void writeJointSamples(List<JointSample> samples);
+
+    /**
+     * 批量写入位姿样本
+     */
+    void writePoseSamples(List<PoseSample> samples);
+}
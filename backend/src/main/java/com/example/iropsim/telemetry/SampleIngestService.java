@@ -0,0 +1,296 @@
+package com.example.iropsim.telemetry;
+
+import com.example.iropsim.config.OverflowPolicy;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.ScenarioRun;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 样本写后（write-behind）持久化服务
+ *
+ * <p>仿真tick只负责把生成的样本放入有界队列，由独立写线程批量落库，
+ * 持久化不再阻塞tick线程。每个样本按所属运行的{@link ScenarioRun.IngestMode}
+ * 交给对应的{@link SampleBatchWriter}（JPA批量INSERT或COPY）。</p>
+ *
+ * <p><b>背压策略：</b></p>
+ * <ul>
+ *   <li><b>BLOCK：</b> 队列满时tick线程等待写线程腾出空间（默认，不丢数据）</li>
+ *   <li><b>DROP：</b> 队列满时丢弃本次样本并计数</li>
+ * </ul>
+ *
+ * <p><b>写入失败：</b> 单批写入失败后按指数退避重试（{@code ingest.max-retries}次，
+ * 首次等待{@code ingest.retry-backoff-ms}），数据库短暂不可用时不丢数据；重试期间写线程不取新数据，
+ * 队列按背压策略反压tick线程。重试耗尽后丢弃该批并计入失败数。关节和位姿分别重试，
+ * 已写入的部分不会重复写入。</p>
+ *
+ * <p>队列深度、入队/落库/丢弃/失败数量、重试次数、阻塞时间和单批写入耗时通过Micrometer暴露，
+ * 可在 {@code /actuator/metrics/iropsim.ingest.*} 查看。</p>
+ */
+@Slf4j
+@Service
+public class SampleIngestService {
+
+    private final LatestSampleCache latestSampleCache;
+    private final Map<ScenarioRun.IngestMode, SampleBatchWriter> batchWriters = new EnumMap<>(ScenarioRun.IngestMode.class);
+    private final BlockingQueue<IngestItem> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+
+    private final Counter enqueuedCounter;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Counter retryCounter;
+    private final Timer blockedTimer;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public SampleIngestService(List<SampleBatchWriter> batchWriters,
+                               LatestSampleCache latestSampleCache,
+                               MeterRegistry meterRegistry,
+                               @Value("${ingest.queue-capacity:10000}") int queueCapacity,
+                               @Value("${ingest.batch-size:1000}") int batchSize,
+                               @Value("${ingest.flush-interval-ms:200}") long flushIntervalMs,
+                               @Value("${ingest.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                               @Value("${ingest.max-retries:3}") int maxRetries,
+                               @Value("${ingest.retry-backoff-ms:100}") long retryBackoffMs) {
+        batchWriters.forEach(writer -> this.batchWriters.put(writer.getMode(), writer));
+        this.latestSampleCache = latestSampleCache;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffMs = retryBackoffMs;
+
+        Gauge.builder("iropsim.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Robot frames waiting to be persisted")
+                .register(meterRegistry);
+        Gauge.builder("iropsim.ingest.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .register(meterRegistry);
+        this.enqueuedCounter = meterRegistry.counter("iropsim.ingest.samples.enqueued");
+        this.writtenCounter = meterRegistry.counter("iropsim.ingest.samples.written");
+        this.droppedCounter = meterRegistry.counter("iropsim.ingest.samples.dropped");
+        this.failedCounter = meterRegistry.counter("iropsim.ingest.samples.failed");
+        this.retryCounter = meterRegistry.counter("iropsim.ingest.flush.retries");
+        this.blockedTimer = meterRegistry.timer("iropsim.ingest.enqueue.blocked");
+        this.flushTimer = meterRegistry.timer("iropsim.ingest.flush");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::writeLoop, "sample-ingest-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Sample ingest writer started (batchSize={}, flushIntervalMs={}, overflowPolicy={})",
+                batchSize, flushIntervalMs, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread != null) {
+            // 写线程最多在一个刷新间隔后感知停止标志，并写完队列中剩余的数据
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("Sample ingest writer stopped, {} frame(s) left in queue", queue.size());
+    }
+
+    /**
+     * 提交一个机器人在一次tick内生成的样本
+     *
+     * @param jointSamples 各关节样本
+     * @param poseSample 位姿样本，可为null
+     * @param mode 落库方式
+     */
+    public void submit(List<JointSample> jointSamples, PoseSample poseSample, ScenarioRun.IngestMode mode) {
+        if (!batchWriters.containsKey(mode)) {
+            throw new IllegalArgumentException("No sample writer for ingest mode: " + mode);
+        }
+        // 最新值缓存先于落库更新，实时查询不受写队列延迟影响
+        latestSampleCache.updateJointSamples(jointSamples);
+        latestSampleCache.updatePoseSample(poseSample);
+
+        IngestItem item = new IngestItem(jointSamples, poseSample, mode);
+        int sampleCount = item.sampleCount();
+
+        if (!queue.offer(item)) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                droppedCounter.increment(sampleCount);
+                log.debug("Ingest queue full, dropped {} sample(s)", sampleCount);
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                queue.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCounter.increment(sampleCount);
+                return;
+            } finally {
+                blockedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+        enqueuedCounter.increment(sampleCount);
+    }
+
+    /**
+     * 当前排队等待落库的帧数
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void writeLoop() {
+        List<IngestItem> drained = new ArrayList<>(batchSize);
+        List<JointSample> jointBatch = new ArrayList<>(batchSize);
+        List<PoseSample> poseBatch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                IngestItem first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                drained.add(first);
+                // 尽量攒满一批，但最多等待一个刷新间隔
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                int rows = first.sampleCount();
+                while (rows < batchSize) {
+                    int before = drained.size();
+                    queue.drainTo(drained, batchSize);
+                    for (int i = before; i < drained.size(); i++) {
+                        rows += drained.get(i).sampleCount();
+                    }
+                    if (rows >= batchSize || !running) {
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    IngestItem next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    drained.add(next);
+                    rows += next.sampleCount();
+                }
+            } catch (InterruptedException e) {
+                // 关闭时被中断，继续把剩余数据写完
+                queue.drainTo(drained);
+            }
+
+            // 按落库方式分组后写入
+            for (Map.Entry<ScenarioRun.IngestMode, SampleBatchWriter> entry : batchWriters.entrySet()) {
+                for (IngestItem item : drained) {
+                    if (item.mode != entry.getKey()) {
+                        continue;
+                    }
+                    jointBatch.addAll(item.jointSamples);
+                    if (item.poseSample != null) {
+                        poseBatch.add(item.poseSample);
+                    }
+                }
+                flush(entry.getValue(), jointBatch, poseBatch);
+                jointBatch.clear();
+                poseBatch.clear();
+            }
+            drained.clear();
+        }
+    }
+
+    private void flush(SampleBatchWriter batchWriter, List<JointSample> jointBatch, List<PoseSample> poseBatch) {
+        if (jointBatch.isEmpty() && poseBatch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            if (!jointBatch.isEmpty()) {
+                writeWithRetry(batchWriter, "joint", jointBatch.size(), () -> batchWriter.writeJointSamples(jointBatch));
+            }
+            if (!poseBatch.isEmpty()) {
+                writeWithRetry(batchWriter, "pose", poseBatch.size(), () -> batchWriter.writePoseSamples(poseBatch));
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 写入一批样本，失败时按指数退避重试，重试耗尽或等待时被中断则放弃该批
+     */
+    private void writeWithRetry(SampleBatchWriter batchWriter, String kind, int rows, Runnable write) {
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                write.run();
+                writtenCounter.increment(rows);
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxRetries || Thread.currentThread().isInterrupted()) {
+                    failedCounter.increment(rows);
+                    log.error("Failed to persist batch of {} {} samples via {} after {} attempt(s), dropping it: {}",
+                            rows, kind, batchWriter.getMode(), attempt + 1, e.getMessage());
+                    return;
+                }
+                retryCounter.increment();
+                log.warn("Failed to persist batch of {} {} samples via {}, retrying in {} ms: {}",
+                        rows, kind, batchWriter.getMode(), backoffMs, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                // 关闭时被中断：保留中断标志，下一次失败后不再等待
+                Thread.currentThread().interrupt();
+            }
+            backoffMs = Math.min(backoffMs * 2, TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * 队列元素：一个机器人一次tick的样本
+     */
+    private static class IngestItem {
+        final List<JointSample> jointSamples;
+        final PoseSample poseSample;
+        final ScenarioRun.IngestMode mode;
+
+        IngestItem(List<JointSample> jointSamples, PoseSample poseSample, ScenarioRun.IngestMode mode) {
+            this.jointSamples = jointSamples;
+            this.poseSample = poseSample;
+            this.mode = mode;
+        }
+
+        int sampleCount() {
+            return jointSamples.size() + (poseSample != null ? 1 : 0);
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.example.iropsim.telemetry;
 
 import com.example.iropsim.entity.JointSample;
 import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.Robot;
 import com.example.iropsim.repository.JointSampleRepository;
 import com.example.iropsim.repository.PoseSampleRepository;
+import com.example.iropsim.repository.RobotRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,24 +23,33 @@ public class TelemetryService {
 
     private final JointSampleRepository jointSampleRepository;
     private final PoseSampleRepository poseSampleRepository;
+    private final RobotRepository robotRepository;
+    private final LatestSampleCache latestSampleCache;
 
     /**
-     * 获取机器人最新的关节数据
+     * 获取机器人最新的关节数据（每个关节最近一条）
+     *
+     * <p>优先读取最新值缓存；缓存中没有该机器人时（如服务重启后尚未采集），
+     * 按关节逐个查询最近一条样本并回填缓存。</p>
      */
     public List<JointSample> getLatestJointSamples(UUID robotId) {
-        // 获取每个关节的最新样本
-        List<JointSample> latestSamples = jointSampleRepository.findAll().stream()
-                .filter(sample -> sample.getRobot().getId().equals(robotId))
-                .collect(java.util.stream.Collectors.groupingBy(
-                        JointSample::getJointIndex,
-                        java.util.stream.Collectors.maxBy(java.util.Comparator.comparing(JointSample::getTs))
-                ))
-                .values()
-                .stream()
-                .filter(java.util.Optional::isPresent)
-                .map(java.util.Optional::get)
-                .collect(java.util.stream.Collectors.toList());
+        List<JointSample> cached = latestSampleCache.getLatestJointSamples(robotId);
+        if (!cached.isEmpty()) {
+            return cached;
+        }
 
+        int jointCount = robotRepository.findById(robotId)
+                .map(Robot::getJointCount)
+                .orElse(0);
+        List<JointSample> latestSamples = new ArrayList<>(jointCount);
+        for (int jointIndex = 0; jointIndex < jointCount; jointIndex++) {
+            List<JointSample> jointSamples = jointSampleRepository
+                    .findTopByRobotIdAndJointIndexOrderByTsDesc(robotId, jointIndex, 1);
+            if (!jointSamples.isEmpty()) {
+                latestSamples.add(jointSamples.get(0));
+            }
+        }
+        latestSampleCache.updateJointSamples(latestSamples);
         return latestSamples;
     }
 
@@ -45,7 +57,13 @@ public class TelemetryService {
      * 获取机器人最新的位姿数据
      */
     public PoseSample getLatestPoseSample(UUID robotId) {
-        return poseSampleRepository.findLatestByRobot(robotId);
+        PoseSample cached = latestSampleCache.getLatestPoseSample(robotId);
+        if (cached != null) {
+            return cached;
+        }
+        PoseSample latest = poseSampleRepository.findLatestByRobot(robotId);
+        latestSampleCache.updatePoseSample(latest);
+        return latest;
     }
 
     /**
@@ -0,0 +1,8 @@
+-- Robots driven by a scenario run (empty set = all robots)
+CREATE TABLE scenario_run_robot (
+    scenario_run_id UUID NOT NULL REFERENCES scenario_run(id) ON DELETE CASCADE,
+    robot_id UUID NOT NULL REFERENCES robot(id),
+    PRIMARY KEY (scenario_run_id, robot_id)
+);
+
+CREATE INDEX idx_scenario_run_robot_robot ON scenario_run_robot(robot_id);
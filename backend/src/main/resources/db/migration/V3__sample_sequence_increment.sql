@@ -0,0 +1,4 @@
+-- Sample ids are allocated in blocks of 50 by the JPA sequence generator,
+-- which lets Hibernate batch joint_sample/pose_sample inserts.
+ALTER SEQUENCE joint_sample_id_seq INCREMENT BY 50;
+ALTER SEQUENCE pose_sample_id_seq INCREMENT BY 50;
@@ -0,0 +1,3 @@
+-- Per-run sample persistence path: JPA batched INSERT or PostgreSQL COPY
+ALTER TABLE scenario_run
+    ADD COLUMN ingest_mode VARCHAR(20) NOT NULL DEFAULT 'JPA' CHECK (ingest_mode IN ('JPA', 'COPY'));
@@ -0,0 +1,4 @@
+-- Replay reads a run in (ts, id) keyset chunks; these indexes serve both the
+-- range predicate and the ORDER BY so each chunk is an index range scan.
+CREATE INDEX idx_joint_sample_scenario_ts_id ON joint_sample(scenario_run_id, ts, id);
+CREATE INDEX idx_pose_sample_scenario_ts_id ON pose_sample(scenario_run_id, ts, id);
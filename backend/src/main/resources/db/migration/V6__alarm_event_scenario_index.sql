@@ -0,0 +1,4 @@
+-- Evaluation loads a run's alarms ordered by first_seen_ts; this index serves
+-- the run predicate and the ORDER BY so no full alarm_event scan is needed.
+CREATE INDEX idx_alarm_event_scenario_first_seen ON alarm_event(scenario_run_id, first_seen_ts);
+CREATE INDEX idx_fault_injection_scenario_start ON fault_injection(scenario_run_id, start_ts);
@@ -0,0 +1,6 @@
+-- Rate suppression is decided in memory when an alarm is created and stored
+-- with the row in a single insert instead of a second evidence update.
+ALTER TABLE alarm_event ADD COLUMN suppressed BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Carry over the flag that earlier versions kept inside evidence.
+UPDATE alarm_event SET suppressed = TRUE WHERE evidence ->> 'suppressed' = 'true';
@@ -0,0 +1,211 @@
+package com.example.iropsim.alarm;
+
+import com.example.iropsim.detection.AlarmKey;
+import com.example.iropsim.detection.DetectorType;
+import com.example.iropsim.detection.Metric;
+import com.example.iropsim.entity.AlarmEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlarmDedupIndexTest {
+
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final RecordingWriter writer = new RecordingWriter();
+    private final List<AlarmEvent> published = new CopyOnWriteArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private AlarmDedupIndex index(long flushIntervalMs) {
+        return new AlarmDedupIndex(key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }, writer, published::add, new SimpleMeterRegistry(), flushIntervalMs);
+    }
+
+    private AlarmKey key(int jointIndex, Metric metric, DetectorType detector) {
+        return new AlarmKey(UUID.randomUUID(), jointIndex, metric, detector);
+    }
+
+    private AlarmEvent newAlarm(AlarmKey key, AlarmEvent.Severity severity, double score) {
+        return AlarmEvent.builder()
+                .id(UUID.randomUUID())
+                .dedupKey(key.toDedupKey())
+                .firstSeenTs(t0)
+                .lastSeenTs(t0)
+                .severity(severity)
+                .count(1)
+                .score(score)
+                .build();
+    }
+
+    @Test
+    void testRepeatedHitsAreCoalescedIntoOneWrite() {
+        AlarmDedupIndex index = index(60_000);
+        AlarmKey key = key(0, Metric.TEMPERATURE, DetectorType.THRESHOLD);
+
+        assertEquals(AlarmDedupIndex.Outcome.CREATED,
+                index.record(key, t0, AlarmEvent.Severity.WARN, 2.0, () -> newAlarm(key, AlarmEvent.Severity.WARN, 2.0)));
+        for (int i = 1; i <= 9; i++) {
+            assertEquals(AlarmDedupIndex.Outcome.COALESCED,
+                    index.record(key, t0.plusSeconds(i), AlarmEvent.Severity.WARN, i == 5 ? 7.5 : 1.0,
+                            () -> fail("alarm already exists")));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, index.getDirtyCount());
+        assertTrue(writer.batches.isEmpty());
+
+        index.flush();
+
+        assertEquals(1, writer.batches.size());
+        AlarmEvent written = writer.batches.get(0).get(0);
+        assertEquals(10, written.getCount());
+        assertEquals(t0.plusSeconds(9), written.getLastSeenTs());
+        assertEquals(7.5, written.getScore());
+        assertEquals(AlarmEvent.Severity.WARN, written.getSeverity());
+        assertEquals(1, published.size());
+        assertEquals(0, index.getDirtyCount());
+
+        // 没有新命中时不再写库
+        index.flush();
+        assertEquals(1, writer.batches.size());
+    }
+
+    @Test
+    void testSeverityEscalationFlushesWithoutWaitingForInterval() throws InterruptedException {
+        AlarmDedupIndex index = index(60_000);
+        index.start();
+        try {
+            AlarmKey key = key(1, Metric.CURRENT, DetectorType.Z_SCORE);
+            index.record(key, t0, AlarmEvent.Severity.WARN, 3.0, () -> newAlarm(key, AlarmEvent.Severity.WARN, 3.0));
+            assertEquals(AlarmDedupIndex.Outcome.COALESCED,
+                    index.record(key, t0.plusSeconds(1), AlarmEvent.Severity.INFO, 3.0, () -> null));
+            assertEquals(AlarmDedupIndex.Outcome.ESCALATED,
+                    index.record(key, t0.plusSeconds(2), AlarmEvent.Severity.CRITICAL, 6.0, () -> null));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (writer.batches.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertFalse(writer.batches.isEmpty(), "escalation should trigger an early flush");
+            assertEquals(AlarmEvent.Severity.CRITICAL, writer.batches.get(0).get(0).getSeverity());
+        } finally {
+            index.shutdown();
+        }
+    }
+
+    @Test
+    void testFailedFlushIsRetried() {
+        AlarmDedupIndex index = index(60_000);
+        AlarmKey key = key(2, Metric.VIBRATION, DetectorType.THRESHOLD);
+        index.record(key, t0, AlarmEvent.Severity.WARN, 2.0, () -> newAlarm(key, AlarmEvent.Severity.WARN, 2.0));
+        index.record(key, t0.plusSeconds(1), AlarmEvent.Severity.WARN, 2.0, () -> null);
+
+        writer.failNext = true;
+        index.flush();
+        assertEquals(1, index.getDirtyCount());
+        assertTrue(published.isEmpty());
+
+        index.flush();
+        assertEquals(1, writer.batches.size());
+        assertEquals(2, writer.batches.get(0).get(0).getCount());
+    }
+
+    @Test
+    void testFailedCreationIsRetriedOnNextHit() {
+        AlarmDedupIndex index = index(60_000);
+        AlarmKey key = key(3, Metric.TEMPERATURE, DetectorType.THRESHOLD);
+
+        assertThrows(IllegalStateException.class, () -> index.record(key, t0, AlarmEvent.Severity.WARN, 2.0,
+                () -> { throw new IllegalStateException("db down"); }));
+        assertEquals(AlarmDedupIndex.Outcome.CREATED, index.record(key, t0.plusSeconds(1), AlarmEvent.Severity.WARN, 2.0,
+                () -> newAlarm(key, AlarmEvent.Severity.WARN, 2.0)));
+    }
+
+    @Test
+    void testAlarmCreatedInRolledBackTransactionIsNotCached() {
+        AlarmDedupIndex index = index(60_000);
+        AlarmKey key = key(4, Metric.CURRENT, DetectorType.THRESHOLD);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(AlarmDedupIndex.Outcome.CREATED, index.record(key, t0, AlarmEvent.Severity.WARN, 2.0,
+                    () -> newAlarm(key, AlarmEvent.Severity.WARN, 2.0)));
+            // 事务回滚：不触发afterCommit
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(AlarmDedupIndex.Outcome.CREATED, index.record(key, t0.plusSeconds(1), AlarmEvent.Severity.WARN, 2.0,
+                () -> newAlarm(key, AlarmEvent.Severity.WARN, 2.0)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testAlarmCreatedInTransactionIsCachedAfterCommit() {
+        AlarmDedupIndex index = index(60_000);
+        AlarmKey key = key(5, Metric.CURRENT, DetectorType.Z_SCORE);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.record(key, t0, AlarmEvent.Severity.WARN, 2.0, () -> newAlarm(key, AlarmEvent.Severity.WARN, 2.0));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(AlarmDedupIndex.Outcome.COALESCED, index.record(key, t0.plusSeconds(1), AlarmEvent.Severity.WARN, 2.0,
+                () -> fail("alarm already exists")));
+    }
+
+    @Test
+    void testAlarmWhoseRowIsGoneIsEvictedAndRecreated() {
+        AlarmDedupIndex index = index(60_000);
+        AlarmKey key = key(6, Metric.TEMPERATURE, DetectorType.Z_SCORE);
+        index.record(key, t0, AlarmEvent.Severity.WARN, 2.0, () -> newAlarm(key, AlarmEvent.Severity.WARN, 2.0));
+        index.record(key, t0.plusSeconds(1), AlarmEvent.Severity.WARN, 2.0, () -> null);
+
+        writer.missingNext = true;
+        index.flush();
+        assertTrue(published.isEmpty());
+
+        assertEquals(AlarmDedupIndex.Outcome.CREATED, index.record(key, t0.plusSeconds(2), AlarmEvent.Severity.WARN, 2.0,
+                () -> newAlarm(key, AlarmEvent.Severity.WARN, 2.0)));
+        assertEquals(2, loads.get());
+    }
+
+    private static class RecordingWriter implements AlarmAggregateWriter {
+        final List<List<AlarmEvent>> batches = new CopyOnWriteArrayList<>();
+        volatile boolean failNext;
+        volatile boolean missingNext;
+
+        @Override
+        public int[] writeAggregates(List<AlarmEvent> alarms) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("write failed");
+            }
+            int[] updated = new int[alarms.size()];
+            if (missingNext) {
+                // 模拟行已不存在：更新0行
+                missingNext = false;
+                return updated;
+            }
+            batches.add(new ArrayList<>(alarms));
+            Arrays.fill(updated, 1);
+            return updated;
+        }
+    }
+}
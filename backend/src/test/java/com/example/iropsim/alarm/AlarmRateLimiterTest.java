@@ -0,0 +1,57 @@
+package com.example.iropsim.alarm;
+
+import com.example.iropsim.entity.AlarmEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlarmRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AlarmRateLimiter limiter = new AlarmRateLimiter(3, Duration.ofSeconds(60), now::get, registry);
+
+    private final UUID robot = UUID.randomUUID();
+
+    @Test
+    void testAllowsLimitWithinWindowThenSuppresses() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(robot, AlarmEvent.AlarmType.TEMP_ANOMALY));
+            now.addAndGet(1_000);
+        }
+        assertFalse(limiter.tryAcquire(robot, AlarmEvent.AlarmType.TEMP_ANOMALY));
+        assertEquals(1.0, registry.counter("iropsim.alarm.suppressed").count());
+    }
+
+    @Test
+    void testWindowSlidesPastOldestAllowedAlarm() {
+        limiter.tryAcquire(robot, AlarmEvent.AlarmType.TEMP_ANOMALY);   // t=0
+        now.addAndGet(30_000);
+        limiter.tryAcquire(robot, AlarmEvent.AlarmType.TEMP_ANOMALY);   // t=30s
+        limiter.tryAcquire(robot, AlarmEvent.AlarmType.TEMP_ANOMALY);   // t=30s
+
+        now.addAndGet(29_999);
+        assertFalse(limiter.tryAcquire(robot, AlarmEvent.AlarmType.TEMP_ANOMALY));
+
+        // 第一个告警滑出窗口后再放行一个
+        now.addAndGet(1);
+        assertTrue(limiter.tryAcquire(robot, AlarmEvent.AlarmType.TEMP_ANOMALY));
+        assertFalse(limiter.tryAcquire(robot, AlarmEvent.AlarmType.TEMP_ANOMALY));
+    }
+
+    @Test
+    void testRobotsAndAlarmTypesAreCountedSeparately() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(robot, AlarmEvent.AlarmType.TEMP_ANOMALY);
+        }
+        assertFalse(limiter.tryAcquire(robot, AlarmEvent.AlarmType.TEMP_ANOMALY));
+
+        assertTrue(limiter.tryAcquire(robot, AlarmEvent.AlarmType.VIB_ANOMALY));
+        assertTrue(limiter.tryAcquire(UUID.randomUUID(), AlarmEvent.AlarmType.TEMP_ANOMALY));
+    }
+}
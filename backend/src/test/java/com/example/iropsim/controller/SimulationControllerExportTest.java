@@ -0,0 +1,58 @@
+package com.example.iropsim.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationControllerExportTest {
+
+    /**
+     * 超过gzip缓冲区大小的多次写入，覆盖finish前尚未刷出的尾部
+     */
+    private static final StreamingResponseBody BODY = out -> {
+        for (int i = 0; i < 20_000; i++) {
+            out.write(("row-" + i + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+    };
+
+    private static byte[] render(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void testGzipExportDecompressesToPlainOutput() throws IOException {
+        byte[] plain = render(SimulationController.exportResponse("report.csv", MediaType.TEXT_PLAIN, false, BODY));
+        ResponseEntity<StreamingResponseBody> response =
+                SimulationController.exportResponse("report.csv", MediaType.TEXT_PLAIN, true, BODY);
+        byte[] compressed = render(response);
+
+        assertTrue(compressed.length < plain.length);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(plain, in.readAllBytes());
+        }
+        assertEquals(MediaType.parseMediaType("application/gzip"), response.getHeaders().getContentType());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("report.csv.gz"));
+    }
+
+    @Test
+    void testPlainExportKeepsContentType() {
+        ResponseEntity<StreamingResponseBody> response =
+                SimulationController.exportResponse("report.json", MediaType.APPLICATION_JSON, false, BODY);
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("report.json"));
+    }
+}
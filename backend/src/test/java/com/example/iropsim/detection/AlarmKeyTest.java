@@ -0,0 +1,48 @@
+package com.example.iropsim.detection;
+
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.Robot;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlarmKeyTest {
+
+    private final UUID robotId = UUID.fromString("4f1c2a3b-0000-4000-8000-000000000001");
+
+    @Test
+    void testDedupKeyKeepsPersistedFormat() {
+        AlarmKey key = new AlarmKey(robotId, 3, Metric.TEMPERATURE, DetectorType.Z_SCORE);
+
+        assertEquals("4f1c2a3b-0000-4000-8000-000000000001-3-temperature-z_score", key.toDedupKey());
+    }
+
+    @Test
+    void testEqualityCoversAllComponents() {
+        AlarmKey key = new AlarmKey(robotId, 0, Metric.CURRENT, DetectorType.THRESHOLD);
+
+        assertEquals(key, new AlarmKey(UUID.fromString(robotId.toString()), 0, Metric.CURRENT, DetectorType.THRESHOLD));
+        assertEquals(key.hashCode(), new AlarmKey(robotId, 0, Metric.CURRENT, DetectorType.THRESHOLD).hashCode());
+        assertNotEquals(key, new AlarmKey(robotId, 1, Metric.CURRENT, DetectorType.THRESHOLD));
+        assertNotEquals(key, new AlarmKey(robotId, 0, Metric.VIBRATION, DetectorType.THRESHOLD));
+        assertNotEquals(key, new AlarmKey(robotId, 0, Metric.CURRENT, DetectorType.Z_SCORE));
+        assertNotEquals(key, new AlarmKey(UUID.randomUUID(), 0, Metric.CURRENT, DetectorType.THRESHOLD));
+    }
+
+    @Test
+    void testKeyOfPersistedAlarm() {
+        AlarmEvent alarm = AlarmEvent.builder()
+                .robot(Robot.builder().id(robotId).build())
+                .jointIndex(2)
+                .alarmType(AlarmEvent.AlarmType.VIB_ANOMALY)
+                .detector("THRESHOLD")
+                .build();
+
+        assertEquals(new AlarmKey(robotId, 2, Metric.VIBRATION, DetectorType.THRESHOLD), AlarmKey.of(alarm));
+
+        alarm.setAlarmType(AlarmEvent.AlarmType.POSE_ANOMALY);
+        assertNull(AlarmKey.of(alarm));
+    }
+}
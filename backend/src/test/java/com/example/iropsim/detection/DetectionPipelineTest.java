@@ -0,0 +1,112 @@
+package com.example.iropsim.detection;
+
+import com.example.iropsim.config.OverflowPolicy;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.Robot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectionPipelineTest {
+
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    private List<JointSample> frame(Robot robot, int tick, int joints) {
+        List<JointSample> samples = new ArrayList<>(joints);
+        for (int j = 0; j < joints; j++) {
+            samples.add(JointSample.builder().robot(robot).jointIndex(j).ts(t0.plusMillis(tick * 100L)).build());
+        }
+        return samples;
+    }
+
+    @Test
+    void testSamplesOfEachRobotAreProcessedInSubmitOrder() {
+        Map<UUID, List<Instant>> seen = new ConcurrentHashMap<>();
+        AtomicInteger poses = new AtomicInteger();
+        DetectionPipeline pipeline = new DetectionPipeline(
+                sample -> seen.computeIfAbsent(sample.getRobot().getId(), id -> new CopyOnWriteArrayList<>())
+                        .add(sample.getTs()),
+                pose -> poses.incrementAndGet(),
+                new SimpleMeterRegistry(), 4, 1000, OverflowPolicy.BLOCK, 20);
+        pipeline.start();
+
+        List<Robot> robots = new ArrayList<>();
+        for (int r = 0; r < 8; r++) {
+            robots.add(Robot.builder().id(UUID.randomUUID()).build());
+        }
+        for (int tick = 0; tick < 50; tick++) {
+            for (Robot robot : robots) {
+                pipeline.submit(robot.getId(), frame(robot, tick, 6), new PoseSample());
+            }
+        }
+        pipeline.shutdown();
+
+        assertEquals(0, pipeline.getQueueDepth());
+        assertEquals(8 * 50, poses.get());
+        for (Robot robot : robots) {
+            List<Instant> timestamps = seen.get(robot.getId());
+            assertEquals(50 * 6, timestamps.size());
+            for (int i = 1; i < timestamps.size(); i++) {
+                assertFalse(timestamps.get(i).isBefore(timestamps.get(i - 1)), "out of order for robot " + robot.getId());
+            }
+        }
+    }
+
+    @Test
+    void testSlowDetectionDoesNotBlockSubmitterWithDropPolicy() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DetectionPipeline pipeline = new DetectionPipeline(sample -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, pose -> { }, registry, 1, 2, OverflowPolicy.DROP, 20);
+        pipeline.start();
+
+        Robot robot = Robot.builder().id(UUID.randomUUID()).build();
+        long start = System.nanoTime();
+        for (int tick = 0; tick < 10; tick++) {
+            pipeline.submit(robot.getId(), frame(robot, tick, 1), null);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        release.countDown();
+        pipeline.shutdown();
+
+        assertTrue(elapsedMs < 1000, "submit blocked for " + elapsedMs + " ms");
+        assertTrue(registry.counter("iropsim.detection.samples.dropped").count() > 0);
+    }
+
+    @Test
+    void testFailedSampleDoesNotStopPartition() {
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+        DetectionPipeline pipeline = new DetectionPipeline(sample -> {
+            if (sample.getJointIndex() == 1) {
+                throw new IllegalStateException("alarm write failed");
+            }
+            processed.add(sample.getJointIndex());
+        }, pose -> { }, new SimpleMeterRegistry(), 1, 10, OverflowPolicy.BLOCK, 20);
+        pipeline.start();
+
+        Robot robot = Robot.builder().id(UUID.randomUUID()).build();
+        pipeline.submit(robot.getId(), frame(robot, 0, 3), null);
+        pipeline.shutdown();
+
+        assertEquals(List.of(0, 2), processed);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.iropsim.detection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricChannelTest {
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    @Test
+    void testIncrementalStatsMatchExactWindow() {
+        MetricChannel channel = new MetricChannel(WINDOW_MILLIS, WINDOW_MILLIS * 2, 8);
+        Random random = new Random(42);
+
+        // 100ms一条，远超窗口长度和重算间隔，覆盖滑出、淘汰和扩容
+        for (int i = 0; i < 20_000; i++) {
+            long ts = i * 100L;
+            channel.add(50.0 + random.nextGaussian() * 5.0, ts);
+
+            if (i % 997 == 0) {
+                SlidingWindowBuffer.BufferStats exact = channel.stats(ts - WINDOW_MILLIS);
+                assertEquals(exact.count, channel.windowCount());
+                assertEquals(exact.mean, channel.windowMean(), 1e-9);
+                assertEquals(exact.stdDev, channel.windowStdDev(), 1e-9);
+            }
+        }
+        assertEquals(600, channel.windowCount());
+    }
+
+    @Test
+    void testWindowEmptiesAfterGap() {
+        MetricChannel channel = new MetricChannel(WINDOW_MILLIS, WINDOW_MILLIS * 2);
+        for (int i = 0; i < 10; i++) {
+            channel.add(i, i * 1000L);
+        }
+        assertEquals(10, channel.windowCount());
+        assertEquals(4.5, channel.windowMean(), 1e-12);
+
+        channel.add(100.0, 10 * 60_000L);
+
+        assertEquals(1, channel.windowCount());
+        assertEquals(100.0, channel.windowMean());
+        assertEquals(0.0, channel.windowStdDev());
+        assertEquals(100.0, channel.latestValue());
+    }
+
+    @Test
+    void testRetentionShorterThanWindowRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new MetricChannel(WINDOW_MILLIS, WINDOW_MILLIS - 1));
+    }
+
+    @Test
+    void testZScoreIncrementalMatchesListDetection() {
+        MetricChannel channel = new MetricChannel(WINDOW_MILLIS, WINDOW_MILLIS * 2);
+        double[] values = {2.0, 2.1, 2.2, 2.3, 2.4, 2.5, 2.6, 2.7, 2.8, 2.9,
+                2.1, 2.2, 2.3, 2.4, 2.5, 2.6, 2.7, 2.8, 2.9, 10.0};
+        List<Double> list = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            channel.add(values[i], i * 1000L);
+            list.add(values[i]);
+        }
+
+        ZScoreDetector detector = new ZScoreDetector();
+        DetectionResult incremental = detector.detect(channel.window());
+        DetectionResult exact = detector.detect(list);
+
+        assertTrue(incremental.isAnomaly());
+        assertEquals(exact.getScore(), incremental.getScore(), 1e-9);
+        assertEquals(exact.getSeverity(), incremental.getSeverity());
+    }
+}
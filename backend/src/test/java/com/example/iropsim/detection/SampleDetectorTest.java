@@ -0,0 +1,133 @@
+package com.example.iropsim.detection;
+
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.Robot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampleDetectorTest {
+
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+    private final Robot robot = Robot.builder().id(UUID.randomUUID()).name("r").jointCount(1).build();
+
+    private JointSample sample(long millis, double temperature) {
+        return JointSample.builder().robot(robot).jointIndex(0).ts(t0.plusMillis(millis))
+                .currentA(10.0).vibrationRms(5.0).temperatureC(temperature).build();
+    }
+
+    /**
+     * 20个正常样本后连续3个温度超限样本
+     */
+    private AlarmCollector run(SampleDetector detector) {
+        AlarmCollector collector = new AlarmCollector();
+        for (int i = 0; i < 20; i++) {
+            detector.process(sample(i * 100L, 40.0), collector);
+        }
+        for (int i = 20; i < 23; i++) {
+            detector.process(sample(i * 100L, 95.0), collector);
+        }
+        return collector;
+    }
+
+    @Test
+    void repeatedHitsMergeIntoOneAlarmPerDedupKey() {
+        AlarmCollector collector = run(SampleDetector.create(DetectorConfig.defaults()));
+
+        DetectedAlarm threshold = collector.getAlarms().stream()
+                .filter(a -> a.getDetector().equals("THRESHOLD"))
+                .findFirst().orElseThrow();
+        assertEquals(robot.getId() + "-0-temperature-threshold", threshold.getDedupKey());
+        assertEquals(AlarmEvent.AlarmType.TEMP_ANOMALY, threshold.getAlarmType());
+        assertEquals(3, threshold.getCount());
+        assertEquals(t0.plusMillis(2000), threshold.getFirstSeenTs());
+        assertEquals(t0.plusMillis(2200), threshold.getLastSeenTs());
+        assertTrue(collector.getAnomalyCount() >= 3);
+    }
+
+    @Test
+    void disabledDetectorProducesNoAlarms() {
+        DetectorConfig config = DetectorConfig.defaults();
+        config.setThresholdEnabled(false);
+        config.setZScoreEnabled(false);
+
+        assertTrue(run(SampleDetector.create(config)).getAlarms().isEmpty());
+    }
+
+    @Test
+    void candidateThresholdChangesAlarmSet() {
+        DetectorConfig config = DetectorConfig.defaults();
+        config.setThresholdUpper(100.0);
+        config.setZScoreEnabled(false);
+
+        List<DetectedAlarm> alarms = run(SampleDetector.create(config)).getAlarms();
+
+        assertTrue(alarms.isEmpty());
+    }
+
+    @Test
+    void warmedUpSlicesMergeToSequentialResult() {
+        double[] temperatures = new double[200];
+        for (int i = 0; i < temperatures.length; i++) {
+            temperatures[i] = (i / 20) % 3 == 2 ? 95.0 : 40.0 + (i % 7);
+        }
+        AlarmCollector sequential = new AlarmCollector();
+        SampleDetector detector = SampleDetector.create(DetectorConfig.defaults());
+        for (int i = 0; i < temperatures.length; i++) {
+            detector.process(sample(i * 1000L, temperatures[i]), sequential);
+        }
+
+        // 在第100个样本处切分，第二片先用前60秒样本预热
+        AlarmCollector first = new AlarmCollector();
+        SampleDetector firstDetector = SampleDetector.create(DetectorConfig.defaults());
+        for (int i = 0; i < 100; i++) {
+            firstDetector.process(sample(i * 1000L, temperatures[i]), first);
+        }
+        AlarmCollector second = new AlarmCollector();
+        SampleDetector secondDetector = SampleDetector.create(DetectorConfig.defaults());
+        for (int i = 40; i < temperatures.length; i++) {
+            secondDetector.process(sample(i * 1000L, temperatures[i]),
+                    i < 100 ? (s, m, d, r) -> { } : second);
+        }
+        first.mergeLater(second);
+
+        assertEquals(sequential.getAnomalyCount(), first.getAnomalyCount());
+        assertEquals(sequential.getAlarms(), first.getAlarms());
+    }
+
+    @Test
+    void severityOnlyRisesLikeOnlineDedupIndex() {
+        AlarmCollector first = new AlarmCollector();
+        first.onAnomaly(sample(0, 95.0), Metric.TEMPERATURE, DetectorType.THRESHOLD,
+                new DetectionResult(true, 2.0, "WARN", null));
+        first.onAnomaly(sample(100, 99.0), Metric.TEMPERATURE, DetectorType.THRESHOLD,
+                new DetectionResult(true, 4.0, "CRITICAL", null));
+        first.onAnomaly(sample(200, 95.0), Metric.TEMPERATURE, DetectorType.THRESHOLD,
+                new DetectionResult(true, 2.0, "INFO", null));
+        assertEquals(AlarmEvent.Severity.CRITICAL, first.getAlarms().get(0).getSeverity());
+
+        // 较晚分区升级的严重程度在合并后保留
+        AlarmCollector earlier = new AlarmCollector();
+        earlier.onAnomaly(sample(0, 95.0), Metric.TEMPERATURE, DetectorType.THRESHOLD,
+                new DetectionResult(true, 2.0, "WARN", null));
+        AlarmCollector later = new AlarmCollector();
+        later.onAnomaly(sample(100, 99.0), Metric.TEMPERATURE, DetectorType.THRESHOLD,
+                new DetectionResult(true, 4.0, "CRITICAL", null));
+        earlier.mergeLater(later);
+        assertEquals(AlarmEvent.Severity.CRITICAL, earlier.getAlarms().get(0).getSeverity());
+        assertEquals(2, earlier.getAlarms().get(0).getCount());
+    }
+
+    @Test
+    void invalidConfigIsRejected() {
+        DetectorConfig config = DetectorConfig.defaults();
+        config.setThresholdLower(90.0);
+
+        assertThrows(IllegalArgumentException.class, () -> SampleDetector.create(config));
+    }
+}
@@ -6,9 +6,13 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
 class SlidingWindowBufferTest {
 
+    private static final UUID ROBOT_1 = UUID.randomUUID();
+    private static final UUID ROBOT_2 = UUID.randomUUID();
+
     private SlidingWindowBuffer buffer;
 
     @BeforeEach
@@ -18,7 +22,7 @@ class SlidingWindowBufferTest {
 
     @Test
     void testAddAndRetrieveSamples() {
-        String robotId = "robot-001";
+        UUID robotId = ROBOT_1;
         int jointIndex = 0;
         Instant now = Instant.now();
 
@@ -38,7 +42,7 @@ class SlidingWindowBufferTest {
 
     @Test
     void testTimeWindowFiltering() {
-        String robotId = "robot-001";
+        UUID robotId = ROBOT_1;
         int jointIndex = 0;
         Instant now = Instant.now();
 
@@ -60,13 +64,13 @@ class SlidingWindowBufferTest {
         Instant now = Instant.now();
 
         // Add samples for different robots and joints
-        buffer.addSample("robot-001", 0, 1.0, now);
-        buffer.addSample("robot-001", 1, 2.0, now);
-        buffer.addSample("robot-002", 0, 3.0, now);
+        buffer.addSample(ROBOT_1, 0, 1.0, now);
+        buffer.addSample(ROBOT_1, 1, 2.0, now);
+        buffer.addSample(ROBOT_2, 0, 3.0, now);
 
-        List<Double> robot1Joint0 = buffer.getValuesInWindow("robot-001", 0, now);
-        List<Double> robot1Joint1 = buffer.getValuesInWindow("robot-001", 1, now);
-        List<Double> robot2Joint0 = buffer.getValuesInWindow("robot-002", 0, now);
+        List<Double> robot1Joint0 = buffer.getValuesInWindow(ROBOT_1, 0, now);
+        List<Double> robot1Joint1 = buffer.getValuesInWindow(ROBOT_1, 1, now);
+        List<Double> robot2Joint0 = buffer.getValuesInWindow(ROBOT_2, 0, now);
 
         assertEquals(1, robot1Joint0.size());
         assertEquals(1.0, robot1Joint0.get(0));
@@ -80,13 +84,13 @@ class SlidingWindowBufferTest {
 
     @Test
     void testEmptyBuffer() {
-        List<Double> samples = buffer.getValuesInWindow("nonexistent", 0, Instant.now());
+        List<Double> samples = buffer.getValuesInWindow(UUID.randomUUID(), 0, Instant.now());
         assertTrue(samples.isEmpty());
     }
 
     @Test
     void testBufferStatistics() {
-        String robotId = "robot-001";
+        UUID robotId = ROBOT_1;
         int jointIndex = 0;
         Instant now = Instant.now();
 
@@ -107,7 +111,7 @@ class SlidingWindowBufferTest {
 
     @Test
     void testBufferStatistics_Empty() {
-        SlidingWindowBuffer.BufferStats stats = buffer.getBufferStats("nonexistent", 0);
+        SlidingWindowBuffer.BufferStats stats = buffer.getBufferStats(UUID.randomUUID(), 0);
 
         assertEquals(0, stats.count);
         assertEquals(0.0, stats.mean);
@@ -118,7 +122,7 @@ class SlidingWindowBufferTest {
 
     @Test
     void testBufferStatistics_SingleValue() {
-        String robotId = "robot-001";
+        UUID robotId = ROBOT_1;
         int jointIndex = 0;
         Instant now = Instant.now();
 
@@ -132,4 +136,64 @@ class SlidingWindowBufferTest {
         assertEquals(2.5, stats.min);
         assertEquals(2.5, stats.max);
     }
+
+    @Test
+    void testMetricsUseSeparateWindows() {
+        Instant now = Instant.now();
+
+        buffer.addSample(ROBOT_1, 0, Metric.CURRENT, 2.5, now);
+        buffer.addSample(ROBOT_1, 0, Metric.VIBRATION, 0.8, now);
+        buffer.addSample(ROBOT_1, 0, Metric.TEMPERATURE, 45.0, now);
+
+        assertEquals(List.of(2.5), buffer.getValuesInWindow(ROBOT_1, 0, Metric.CURRENT, now));
+        assertEquals(List.of(0.8), buffer.getValuesInWindow(ROBOT_1, 0, Metric.VIBRATION, now));
+        assertEquals(List.of(45.0), buffer.getValuesInWindow(ROBOT_1, 0, Metric.TEMPERATURE, now));
+        assertTrue(buffer.getValuesInWindow(ROBOT_1, 0, now).isEmpty());
+    }
+
+    @Test
+    void testExpiredSamplesEvictedBySampleTime() {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+
+        buffer.addSample(ROBOT_1, 0, Metric.CURRENT, 1.0, start);
+        buffer.addSample(ROBOT_1, 0, Metric.CURRENT, 2.0, start.plusSeconds(200));
+
+        MetricChannel channel = buffer.findChannel(ROBOT_1, 0, Metric.CURRENT);
+        assertEquals(1, channel.size());
+        assertEquals(2.0, channel.valueAt(0));
+    }
+
+    @Test
+    void testChannelGrowsAndKeepsOrder() {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+
+        for (int i = 0; i < 500; i++) {
+            buffer.addSample(ROBOT_1, 0, Metric.CURRENT, i, start.plusMillis(i * 10L));
+        }
+
+        MetricChannel channel = buffer.findChannel(ROBOT_1, 0, Metric.CURRENT);
+        assertEquals(500, channel.size());
+        double[] window = new double[channel.size()];
+        int count = channel.copyWindow(SlidingWindowBuffer.windowStartMillis(start.plusSeconds(5)), window);
+        assertEquals(500, count);
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, window[i]);
+        }
+    }
+
+    @Test
+    void testMetricBufferStatistics() {
+        Instant now = Instant.now();
+        for (int i = 1; i <= 5; i++) {
+            buffer.addSample(ROBOT_1, 0, Metric.TEMPERATURE, i, now);
+        }
+
+        SlidingWindowBuffer.BufferStats stats = buffer.getBufferStats(ROBOT_1, 0, Metric.TEMPERATURE);
+
+        assertEquals(5, stats.count);
+        assertEquals(3.0, stats.mean);
+        assertEquals(Math.sqrt(2.0), stats.stdDev, 1e-9);
+        assertEquals(1.0, stats.min);
+        assertEquals(5.0, stats.max);
+    }
 }
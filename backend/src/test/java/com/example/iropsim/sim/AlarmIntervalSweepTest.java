@@ -0,0 +1,91 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.Robot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlarmIntervalSweepTest {
+
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+    private final Robot robotA = Robot.builder().id(UUID.randomUUID()).build();
+    private final Robot robotB = Robot.builder().id(UUID.randomUUID()).build();
+
+    private AlarmEvent alarm(Robot robot, Integer jointIndex, long firstSecond, long lastSecond) {
+        return AlarmEvent.builder()
+                .robot(robot)
+                .jointIndex(jointIndex)
+                .alarmType(AlarmEvent.AlarmType.TEMP_ANOMALY)
+                .detector("THRESHOLD")
+                .firstSeenTs(t0.plusSeconds(firstSecond))
+                .lastSeenTs(t0.plusSeconds(lastSecond))
+                .build();
+    }
+
+    @Test
+    void testIntervalsAreInclusiveAndScopedToRobotJoint() {
+        AlarmEvent a0 = alarm(robotA, 0, 10, 20);
+        AlarmEvent b0 = alarm(robotB, 0, 10, 20);
+        AlarmIntervalSweep<AlarmEvent> sweep = AlarmIntervalSweep.of(List.of(b0, a0));
+
+        sweep.advanceTo(t0.plusSeconds(9));
+        assertTrue(sweep.activeAt(robotA.getId(), 0).isEmpty());
+
+        sweep.advanceTo(t0.plusSeconds(10));
+        assertEquals(List.of(a0), sweep.activeAt(robotA.getId(), 0));
+        assertEquals(List.of(b0), sweep.activeAt(robotB.getId(), 0));
+        assertTrue(sweep.activeAt(robotA.getId(), 1).isEmpty());
+
+        sweep.advanceTo(t0.plusSeconds(20));
+        assertEquals(List.of(a0), sweep.activeAt(robotA.getId(), 0));
+
+        sweep.advanceTo(t0.plusSeconds(20).plusNanos(1));
+        assertTrue(sweep.activeAt(robotA.getId(), 0).isEmpty());
+        assertTrue(sweep.activeAt(robotB.getId(), 0).isEmpty());
+    }
+
+    @Test
+    void testOverlappingAlarmsKeepFirstSeenOrder() {
+        AlarmEvent early = alarm(robotA, 2, 0, 30);
+        AlarmEvent late = alarm(robotA, 2, 5, 10);
+        AlarmIntervalSweep<AlarmEvent> sweep = AlarmIntervalSweep.of(List.of(late, early));
+
+        sweep.advanceTo(t0.plusSeconds(7));
+        assertEquals(List.of(early, late), sweep.activeAt(robotA.getId(), 2));
+
+        sweep.advanceTo(t0.plusSeconds(15));
+        assertEquals(List.of(early), sweep.activeAt(robotA.getId(), 2));
+    }
+
+    @Test
+    void testAlarmFullyBetweenSamplesIsSkipped() {
+        AlarmIntervalSweep<AlarmEvent> sweep = AlarmIntervalSweep.of(List.of(alarm(robotA, 0, 3, 4)));
+
+        sweep.advanceTo(t0.plusSeconds(2));
+        sweep.advanceTo(t0.plusSeconds(5));
+
+        assertTrue(sweep.activeAt(robotA.getId(), 0).isEmpty());
+    }
+
+    @Test
+    void testPoseAlarmsWithoutJointAreIgnored() {
+        AlarmIntervalSweep<AlarmEvent> sweep = AlarmIntervalSweep.of(List.of(alarm(robotA, null, 0, 10)));
+
+        sweep.advanceTo(t0.plusSeconds(5));
+
+        assertTrue(sweep.activeAt(robotA.getId(), 0).isEmpty());
+    }
+
+    @Test
+    void testTimeCannotGoBackwards() {
+        AlarmIntervalSweep<AlarmEvent> sweep = AlarmIntervalSweep.of(List.of());
+        sweep.advanceTo(t0.plusSeconds(5));
+
+        assertThrows(IllegalArgumentException.class, () -> sweep.advanceTo(t0.plusSeconds(4)));
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.detection.AlarmCollector;
+import com.example.iropsim.detection.DetectedAlarm;
+import com.example.iropsim.detection.DetectorConfig;
+import com.example.iropsim.detection.SampleDetector;
+import com.example.iropsim.entity.FaultInjection;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.Robot;
+import com.example.iropsim.entity.Scenario;
+import com.example.iropsim.entity.ScenarioRun;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchEvaluationServiceTest {
+
+    private static final int JOINTS = 2;
+    // 5分钟、1Hz，切成30秒的时间片，非首片都需要60秒预热
+    private static final int SECONDS = 300;
+    private static final Duration SLICE = Duration.ofSeconds(30);
+
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void slicesCoverRangeWithoutGapsAndWarmUpFromPreviousWindow() {
+        Instant last = t0.plusSeconds(25 * 60);
+
+        List<Instant[]> slices = BatchEvaluationService.slices(t0, last, Duration.ofMinutes(10), Duration.ofSeconds(60));
+
+        assertEquals(3, slices.size());
+        // 首片无预热
+        assertEquals(t0, slices.get(0)[0]);
+        assertEquals(t0, slices.get(0)[1]);
+        for (int i = 1; i < slices.size(); i++) {
+            assertEquals(slices.get(i - 1)[2], slices.get(i)[1]);
+            assertEquals(slices.get(i)[1].minusSeconds(60), slices.get(i)[0]);
+        }
+        // 末片包含最后一个样本
+        assertTrue(slices.get(2)[2].isAfter(last));
+    }
+
+    @Test
+    void shortRunIsSingleSlice() {
+        List<Instant[]> slices = BatchEvaluationService.slices(t0, t0, Duration.ofMinutes(10), Duration.ofSeconds(60));
+
+        assertEquals(1, slices.size());
+        assertEquals(t0, slices.get(0)[1]);
+        assertEquals(t0.plusNanos(1), slices.get(0)[2]);
+    }
+
+    @Test
+    void warmUpNeverStartsBeforeFirstSample() {
+        List<Instant[]> slices = BatchEvaluationService.slices(t0, t0.plusSeconds(90), Duration.ofSeconds(30), Duration.ofSeconds(60));
+
+        assertEquals(t0, slices.get(1)[0]);
+        assertEquals(t0.plusSeconds(30), slices.get(1)[1]);
+        assertEquals(t0, slices.get(2)[0]);
+    }
+
+    @Test
+    void nonPositiveSliceDurationIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchEvaluationService.slices(t0, t0.plusSeconds(10), Duration.ZERO, Duration.ofSeconds(60)));
+    }
+
+    @Test
+    void partitionedEvaluationMatchesSequentialDetection() {
+        Map<UUID, ScenarioRun> runs = new HashMap<>();
+        Map<UUID, List<JointSample>> samples = new HashMap<>();
+        Map<UUID, List<FaultInjection>> faults = new HashMap<>();
+        InMemoryReplayDataSource dataSource = new InMemoryReplayDataSource(7);
+        long seed = 42;
+        for (String name : List.of("overheat-a", "overheat-b")) {
+            ScenarioRun run = ScenarioRun.builder()
+                    .id(UUID.randomUUID())
+                    .scenario(Scenario.builder().name(name).build())
+                    .status(ScenarioRun.RunStatus.FINISHED)
+                    .build();
+            // 故障期间温度持续升高，其余时间为带噪声的正常值
+            Instant faultStart = t0.plusSeconds(120 + seed);
+            Instant faultEnd = faultStart.plusSeconds(60);
+            List<JointSample> runSamples = samples(new Random(seed++), faultStart, faultEnd);
+            runs.put(run.getId(), run);
+            samples.put(run.getId(), runSamples);
+            faults.put(run.getId(), List.of(FaultInjection.builder()
+                    .id(UUID.randomUUID())
+                    .faultType(FaultInjection.FaultType.OVERHEAT)
+                    .startTs(faultStart)
+                    .endTs(faultEnd)
+                    .build()));
+            dataSource.addJointSamples(run.getId(), runSamples);
+        }
+
+        DetectorConfig strict = new DetectorConfig();
+        strict.setZScoreThreshold(2.0);
+        strict.setMinWindowSize(5);
+        List<DetectorConfig> configs = List.of(DetectorConfig.defaults(), strict);
+        List<UUID> runIds = new ArrayList<>(runs.keySet());
+
+        List<ScenarioRun> runList = runIds.stream().map(runs::get).toList();
+
+        BatchEvaluationResult result;
+        List<BatchEvaluationService.RunEvaluation> evaluations;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BatchEvaluationService service = new BatchEvaluationService(
+                    catalog(runs, samples, faults), dataSource, pool, SLICE);
+            BatchEvaluationRequest request = new BatchEvaluationRequest();
+            request.setScenarioRunIds(runIds);
+            request.setDetectorConfigs(configs);
+            result = service.evaluate(request);
+            evaluations = service.evaluateRuns(runList, configs);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(2, result.getRuns());
+        assertEquals(2 * (SECONDS / (int) SLICE.toSeconds()), result.getPartitions());
+        assertEquals(2L * SECONDS * JOINTS, result.getJointSamples());
+        assertEquals(configs.size(), result.getConfigs().size());
+        assertEquals(runIds.size(), evaluations.size());
+
+        for (int c = 0; c < configs.size(); c++) {
+            BatchEvaluationResult.ConfigEvaluation evaluation = result.getConfigs().get(c);
+            assertEquals(runIds.size(), evaluation.getReports().size());
+            assertNotNull(evaluation.getDetectorPerformance());
+            int totalAlarms = 0;
+            for (int r = 0; r < runIds.size(); r++) {
+                UUID runId = runIds.get(r);
+                List<DetectedAlarm> expected = sequential(configs.get(c), samples.get(runId));
+                assertFalse(expected.isEmpty());
+
+                assertEquals(runId, evaluations.get(r).run.getId());
+                assertSameAlarms(expected, evaluations.get(r).alarms[c].getAlarms());
+
+                EvaluationReport report = evaluation.getReports().get(r);
+                assertEquals(runId.toString(), report.getScenarioRunId());
+                assertEquals(expected.size(), report.getAlarmStats().getTotalAlarms());
+                assertNull(report.getAlarmStats().getOpenAlarms());
+                totalAlarms += expected.size();
+
+                // 报告的检测器评分与对顺序检测结果直接评分一致
+                DetectionScorer scorer = DetectionScorer.forDetectedAlarms(expected);
+                samples.get(runId).forEach(scorer::accept);
+                assertEquals(scorer.result(faults.get(runId)), report.getDetectorPerformance());
+            }
+            assertEquals(totalAlarms, evaluation.getAlarmStats().getTotalAlarms());
+        }
+    }
+
+    /**
+     * 分区合并后的告警逐条与整段顺序检测一致；分数来自增量窗口统计量，预热后累加顺序不同，只比较到浮点误差
+     */
+    private static void assertSameAlarms(List<DetectedAlarm> expected, List<DetectedAlarm> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            DetectedAlarm e = expected.get(i);
+            DetectedAlarm a = actual.get(i);
+            assertEquals(e.getScore(), a.getScore(), 1e-9 * Math.max(1.0, Math.abs(e.getScore())));
+            a.setScore(e.getScore());
+            assertEquals(e, a);
+        }
+    }
+
+    private List<DetectedAlarm> sequential(DetectorConfig config, List<JointSample> runSamples) {
+        SampleDetector detector = SampleDetector.create(config);
+        AlarmCollector collector = new AlarmCollector();
+        for (JointSample sample : runSamples) {
+            detector.process(sample, collector);
+        }
+        return collector.getAlarms();
+    }
+
+    private List<JointSample> samples(Random random, Instant faultStart, Instant faultEnd) {
+        Robot robot = Robot.builder().id(UUID.randomUUID()).name("r").jointCount(JOINTS).build();
+        List<JointSample> result = new ArrayList<>();
+        long id = 1;
+        for (int second = 0; second < SECONDS; second++) {
+            Instant ts = t0.plusSeconds(second);
+            boolean faulty = !ts.isBefore(faultStart) && !ts.isAfter(faultEnd);
+            for (int joint = 0; joint < JOINTS; joint++) {
+                double temperature = 40.0 + random.nextGaussian()
+                        + (faulty && joint == 0 ? Duration.between(faultStart, ts).toSeconds() : 0.0);
+                result.add(JointSample.builder()
+                        .id(id++)
+                        .ts(ts)
+                        .robot(robot)
+                        .jointIndex(joint)
+                        .currentA(5.0 + 0.3 * random.nextGaussian())
+                        .vibrationRms(1.0 + 0.1 * random.nextGaussian())
+                        .temperatureC(temperature)
+                        .label(faulty && joint == 0
+                                ? JointSample.SampleLabel.FAULT_OVERHEAT
+                                : JointSample.SampleLabel.NORMAL)
+                        .build());
+            }
+        }
+        return result;
+    }
+
+    private static BatchEvaluationService.RunCatalog catalog(Map<UUID, ScenarioRun> runs,
+                                                             Map<UUID, List<JointSample>> samples,
+                                                             Map<UUID, List<FaultInjection>> faults) {
+        return new BatchEvaluationService.RunCatalog() {
+            @Override
+            public Optional<ScenarioRun> findRun(UUID runId) {
+                return Optional.ofNullable(runs.get(runId));
+            }
+
+            @Override
+            public List<ScenarioRun> findFinishedRuns() {
+                return new ArrayList<>(runs.values());
+            }
+
+            @Override
+            public Instant firstSampleTs(UUID runId) {
+                return samples.get(runId).get(0).getTs();
+            }
+
+            @Override
+            public Instant lastSampleTs(UUID runId) {
+                List<JointSample> runSamples = samples.get(runId);
+                return runSamples.get(runSamples.size() - 1).getTs();
+            }
+
+            @Override
+            public List<FaultInjection> faults(UUID runId) {
+                return faults.get(runId);
+            }
+        };
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.Robot;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarExporterTest {
+
+    private static final int ROWS = 10;
+    private static final int BATCH_ROWS = 4;
+
+    // 带微秒和亚微秒部分的时间戳，导出后应截断到微秒
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00.123456789Z");
+    private final UUID runId = UUID.randomUUID();
+    private final Robot robot = Robot.builder().id(UUID.randomUUID()).name("r1").build();
+
+    private ColumnarExporter exporter(List<AlarmEvent> alarms) {
+        List<JointSample> joints = new ArrayList<>();
+        List<PoseSample> poses = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            joints.add(JointSample.builder()
+                    .id((long) i + 1)
+                    .ts(t0.plusMillis(i))
+                    .robot(robot)
+                    .jointIndex(i % 6)
+                    .currentA(i == 5 ? null : 2.0 + i)
+                    .vibrationRms(0.1)
+                    .temperatureC(40.0)
+                    .label(i == 5 ? null : JointSample.SampleLabel.NORMAL)
+                    .build());
+            poses.add(PoseSample.builder()
+                    .id((long) i + 1)
+                    .ts(t0.plusMillis(i))
+                    .robot(robot)
+                    .x((double) i).y(1.0).z(2.0)
+                    .rx(i == 5 ? null : 0.1).ry(0.2).rz(0.3)
+                    .build());
+        }
+        // 分块大小与批大小不同，覆盖游标分块和record batch两种边界
+        ReplayDataSource dataSource = new InMemoryReplayDataSource(3)
+                .addJointSamples(runId, joints)
+                .addPoseSamples(runId, poses);
+        return new ColumnarExporter(dataSource, id -> id.equals(runId) ? alarms : List.of(), BATCH_ROWS, 64);
+    }
+
+    private List<AlarmEvent> alarms() {
+        List<AlarmEvent> alarms = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            alarms.add(AlarmEvent.builder()
+                    .id(UUID.randomUUID())
+                    .robot(robot)
+                    .jointIndex(i == 5 ? null : i % 6)
+                    .alarmType(AlarmEvent.AlarmType.TEMP_ANOMALY)
+                    .severity(AlarmEvent.Severity.WARN)
+                    .detector("THRESHOLD")
+                    .score(i == 5 ? null : 1.5)
+                    .count(i + 1)
+                    .firstSeenTs(t0.plusMillis(i))
+                    .lastSeenTs(t0.plusSeconds(1).plusMillis(i))
+                    .dedupKey("key-" + i)
+                    .build());
+        }
+        return alarms;
+    }
+
+    private byte[] export(ColumnarExporter exporter, ColumnarExporter.Table table,
+                          ColumnarExporter.Compression compression) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.write(runId, table, compression, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * 读回Arrow IPC流，对每个record batch调用检查函数，返回总行数
+     */
+    private int readBack(byte[] bytes, Schema expectedSchema, BatchCheck check) throws IOException {
+        int total = 0;
+        int batches = 0;
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(bytes), allocator,
+                     CommonsCompressionFactory.INSTANCE)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertEquals(expectedSchema, root.getSchema());
+            while (reader.loadNextBatch()) {
+                assertTrue(root.getRowCount() <= BATCH_ROWS);
+                check.accept(root, total);
+                total += root.getRowCount();
+                batches++;
+            }
+        }
+        assertEquals((ROWS + BATCH_ROWS - 1) / BATCH_ROWS, batches);
+        return total;
+    }
+
+    @FunctionalInterface
+    private interface BatchCheck {
+        void accept(VectorSchemaRoot root, int firstRow);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ColumnarExporter.Compression.class)
+    void testJointSamplesRoundTrip(ColumnarExporter.Compression compression) throws IOException {
+        byte[] bytes = export(exporter(List.of()), ColumnarExporter.Table.JOINT_SAMPLE, compression);
+
+        int rows = readBack(bytes, ColumnarExporter.JOINT_SAMPLE_SCHEMA, (root, firstRow) -> {
+            TimeStampMicroTZVector ts = (TimeStampMicroTZVector) root.getVector("ts");
+            VarCharVector robotId = (VarCharVector) root.getVector("robot_id");
+            SmallIntVector jointIndex = (SmallIntVector) root.getVector("joint_index");
+            Float8Vector current = (Float8Vector) root.getVector("current_a");
+            VarCharVector label = (VarCharVector) root.getVector("label");
+            for (int row = 0; row < root.getRowCount(); row++) {
+                int i = firstRow + row;
+                assertEquals(ColumnarExporter.epochMicros(t0.plusMillis(i)), ts.get(row));
+                assertEquals(robot.getId().toString(), robotId.getObject(row).toString());
+                assertEquals(i % 6, jointIndex.get(row));
+                if (i == 5) {
+                    assertTrue(current.isNull(row));
+                    assertTrue(label.isNull(row));
+                } else {
+                    assertEquals(2.0 + i, current.get(row));
+                    assertEquals("NORMAL", label.getObject(row).toString());
+                }
+            }
+        });
+
+        assertEquals(ROWS, rows);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ColumnarExporter.Compression.class)
+    void testPoseSamplesRoundTrip(ColumnarExporter.Compression compression) throws IOException {
+        byte[] bytes = export(exporter(List.of()), ColumnarExporter.Table.POSE_SAMPLE, compression);
+
+        int rows = readBack(bytes, ColumnarExporter.POSE_SAMPLE_SCHEMA, (root, firstRow) -> {
+            TimeStampMicroTZVector ts = (TimeStampMicroTZVector) root.getVector("ts");
+            Float8Vector x = (Float8Vector) root.getVector("x");
+            Float8Vector rx = (Float8Vector) root.getVector("rx");
+            VarCharVector label = (VarCharVector) root.getVector("label");
+            for (int row = 0; row < root.getRowCount(); row++) {
+                int i = firstRow + row;
+                assertEquals(ColumnarExporter.epochMicros(t0.plusMillis(i)), ts.get(row));
+                assertEquals(i, x.get(row));
+                assertEquals(i == 5, rx.isNull(row));
+                assertTrue(label.isNull(row));
+            }
+        });
+
+        assertEquals(ROWS, rows);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ColumnarExporter.Compression.class)
+    void testAlarmEventsRoundTrip(ColumnarExporter.Compression compression) throws IOException {
+        List<AlarmEvent> alarms = alarms();
+        byte[] bytes = export(exporter(alarms), ColumnarExporter.Table.ALARM_EVENT, compression);
+
+        int rows = readBack(bytes, ColumnarExporter.ALARM_EVENT_SCHEMA, (root, firstRow) -> {
+            VarCharVector id = (VarCharVector) root.getVector("id");
+            IntVector jointIndex = (IntVector) root.getVector("joint_index");
+            VarCharVector status = (VarCharVector) root.getVector("status");
+            Float8Vector score = (Float8Vector) root.getVector("score");
+            IntVector count = (IntVector) root.getVector("count");
+            TimeStampMicroTZVector lastSeen = (TimeStampMicroTZVector) root.getVector("last_seen_ts");
+            for (int row = 0; row < root.getRowCount(); row++) {
+                AlarmEvent alarm = alarms.get(firstRow + row);
+                assertEquals(alarm.getId().toString(), id.getObject(row).toString());
+                assertEquals(alarm.getJointIndex() == null, jointIndex.isNull(row));
+                assertEquals(alarm.getScore() == null, score.isNull(row));
+                assertEquals("OPEN", status.getObject(row).toString());
+                assertEquals(alarm.getCount(), count.get(row));
+                assertEquals(ColumnarExporter.epochMicros(alarm.getLastSeenTs()), lastSeen.get(row));
+            }
+        });
+
+        assertEquals(ROWS, rows);
+    }
+
+    @Test
+    void testEmptyTableWritesSchemaOnly() throws IOException {
+        byte[] bytes = export(exporter(List.of()), ColumnarExporter.Table.ALARM_EVENT, ColumnarExporter.Compression.NONE);
+
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(bytes), allocator)) {
+            assertEquals(ColumnarExporter.ALARM_EVENT_SCHEMA, reader.getVectorSchemaRoot().getSchema());
+            assertFalse(reader.loadNextBatch());
+        }
+    }
+
+    @Test
+    void testEpochMicrosTruncatesToMicroseconds() {
+        assertEquals(1_704_067_200_123_456L, ColumnarExporter.epochMicros(t0));
+        assertEquals(-1L, ColumnarExporter.epochMicros(Instant.EPOCH.minusNanos(1_000)));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.detection.DetectorType;
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.FaultInjection;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.Robot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectionScorerTest {
+
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+    private final Robot robot = Robot.builder().id(UUID.randomUUID()).build();
+
+    private JointSample sample(long second, int jointIndex, JointSample.SampleLabel label) {
+        return JointSample.builder()
+                .ts(t0.plusSeconds(second))
+                .robot(robot)
+                .jointIndex(jointIndex)
+                .label(label)
+                .build();
+    }
+
+    private AlarmEvent alarm(String detector, int jointIndex, long firstSecond, long lastSecond) {
+        return AlarmEvent.builder()
+                .robot(robot)
+                .jointIndex(jointIndex)
+                .detector(detector)
+                .firstSeenTs(t0.plusSeconds(firstSecond))
+                .lastSeenTs(t0.plusSeconds(lastSecond))
+                .build();
+    }
+
+    private FaultInjection fault(long startSecond, long endSecond) {
+        return FaultInjection.builder()
+                .faultType(FaultInjection.FaultType.OVERHEAT)
+                .startTs(t0.plusSeconds(startSecond))
+                .endTs(t0.plusSeconds(endSecond))
+                .build();
+    }
+
+    @Test
+    void testConfusionMatrixFromAlarmIntervals() {
+        // 故障标签在[10, 19]，阈值告警覆盖[12, 24]，仅关节0
+        DetectionScorer scorer = new DetectionScorer(List.of(alarm(DetectorType.THRESHOLD.name(), 0, 12, 24)));
+        for (int s = 0; s < 30; s++) {
+            JointSample.SampleLabel label = s >= 10 && s < 20
+                    ? JointSample.SampleLabel.FAULT_OVERHEAT : JointSample.SampleLabel.NORMAL;
+            scorer.accept(sample(s, 0, label));
+            scorer.accept(sample(s, 1, label));
+        }
+
+        EvaluationReport.DetectorPerformance performance = scorer.result(List.of(fault(10, 19)));
+        EvaluationReport.DetectorScore threshold = performance.getDetectors().get(DetectorType.THRESHOLD.name());
+
+        assertEquals(8, threshold.getTruePositives());   // 关节0的12..19
+        assertEquals(5, threshold.getFalsePositives());  // 关节0的20..24
+        assertEquals(12, threshold.getFalseNegatives()); // 关节0的10、11和关节1的10..19
+        assertEquals(35, threshold.getTrueNegatives());
+        assertEquals(8.0 / 13, threshold.getPrecision(), 1e-9);
+        assertEquals(8.0 / 20, threshold.getRecall(), 1e-9);
+        assertEquals(43.0 / 60, threshold.getAccuracy(), 1e-9);
+        assertEquals(threshold.getPrecision(), performance.getThresholdPrecision(), 1e-9);
+
+        EvaluationReport.DetectorScore zScore = performance.getDetectors().get(DetectorType.Z_SCORE.name());
+        assertEquals(0, zScore.getTruePositives());
+        assertEquals(20, zScore.getFalseNegatives());
+        assertEquals(0.0, zScore.getPrecision());
+        assertEquals(1, zScore.getMissedFaults());
+    }
+
+    @Test
+    void testDetectionDelayUsesFirstAlarmInsideFaultWindow() {
+        DetectionScorer scorer = new DetectionScorer(List.of(
+                alarm(DetectorType.Z_SCORE.name(), 0, 5, 8),     // 故障开始前，不计入
+                alarm(DetectorType.Z_SCORE.name(), 1, 13, 20),
+                alarm(DetectorType.THRESHOLD.name(), 2, 11, 20),
+                alarm(DetectorType.THRESHOLD.name(), 0, 45, 50)));
+
+        FaultInjection first = fault(10, 20);
+        FaultInjection second = fault(40, 60);
+        FaultInjection missed = fault(70, 80);
+        EvaluationReport.DetectorPerformance performance = scorer.result(List.of(first, second, missed));
+
+        assertEquals(Duration.ofSeconds(1), scorer.detectionDelay(first));
+        assertEquals(Duration.ofSeconds(5), scorer.detectionDelay(second));
+        assertNull(scorer.detectionDelay(missed));
+
+        EvaluationReport.DetectorScore threshold = performance.getDetectors().get(DetectorType.THRESHOLD.name());
+        assertEquals(2, threshold.getDetectedFaults());
+        assertEquals(1, threshold.getMissedFaults());
+        assertEquals(Duration.ofSeconds(1), threshold.getDetectionDelay().getMin());
+        assertEquals(Duration.ofSeconds(5), threshold.getDetectionDelay().getMax());
+        assertEquals(Duration.ofSeconds(3), threshold.getDetectionDelay().getMean());
+        assertEquals(Duration.ofSeconds(3), performance.getAvgDetectionDelay());
+    }
+
+    @Test
+    void testDelayDistributionPercentiles() {
+        List<Duration> delays = List.of(Duration.ofSeconds(4), Duration.ofSeconds(1), Duration.ofSeconds(3),
+                Duration.ofSeconds(2), Duration.ofSeconds(10));
+
+        EvaluationReport.DelayDistribution distribution = DetectionScorer.distribution(delays);
+
+        assertEquals(5, distribution.getCount());
+        assertEquals(Duration.ofSeconds(3), distribution.getP50());
+        assertEquals(Duration.ofSeconds(10), distribution.getP95());
+        assertEquals(Duration.ofSeconds(4), distribution.getMean());
+        assertEquals(0, DetectionScorer.distribution(List.of()).getCount());
+    }
+
+    @Test
+    void testRejectsOutOfOrderSamples() {
+        DetectionScorer scorer = new DetectionScorer(List.of());
+        scorer.accept(sample(10, 0, JointSample.SampleLabel.NORMAL));
+
+        assertThrows(IllegalArgumentException.class, () -> scorer.accept(sample(9, 0, JointSample.SampleLabel.NORMAL)));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.config.JacksonConfig;
+import com.example.iropsim.entity.AlarmEvent;
+import com.example.iropsim.entity.FaultInjection;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.Robot;
+import com.example.iropsim.entity.Scenario;
+import com.example.iropsim.entity.ScenarioRun;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationExporterTest {
+
+    private static final int TICKS = 20;
+    private static final int JOINTS = 3;
+    // 远小于样本数，导出须跨多个分块
+    private static final int CHUNK_SIZE = 4;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+    private final Robot robotA = Robot.builder().id(UUID.randomUUID()).name("a").jointCount(JOINTS).build();
+    private final Robot robotB = Robot.builder().id(UUID.randomUUID()).name("b").jointCount(JOINTS).build();
+    private final ScenarioRun run = ScenarioRun.builder()
+            .id(UUID.randomUUID())
+            .scenario(Scenario.builder().name("overheat").build())
+            .rateHz(10)
+            .startedAt(t0)
+            .endedAt(t0.plusSeconds(2))
+            .build();
+
+    private final List<JointSample> joints = new ArrayList<>();
+    private final List<PoseSample> poses = new ArrayList<>();
+    private final List<AlarmEvent> alarms = new ArrayList<>();
+    private final List<FaultInjection> faults = new ArrayList<>();
+
+    EvaluationExporterTest() {
+        long id = 1;
+        for (int tick = 0; tick < TICKS; tick++) {
+            for (Robot robot : List.of(robotA, robotB)) {
+                for (int joint = 0; joint < JOINTS; joint++) {
+                    boolean faulty = robot == robotA && joint == 1 && tick >= 10;
+                    joints.add(JointSample.builder()
+                            .id(id++)
+                            .ts(tick(tick))
+                            .robot(robot)
+                            .jointIndex(joint)
+                            .currentA(2.0 + joint)
+                            .vibrationRms(0.1)
+                            .temperatureC(faulty ? 85.0 : 40.0)
+                            .label(faulty ? JointSample.SampleLabel.FAULT_OVERHEAT : JointSample.SampleLabel.NORMAL)
+                            .build());
+                }
+                poses.add(PoseSample.builder().id(id++).ts(tick(tick)).robot(robot).x(0.0).y(0.0).z(0.0).build());
+            }
+        }
+        alarms.add(alarm(robotA, 1, "THRESHOLD", 12, 15, 2.5));
+        alarms.add(alarm(robotB, 0, "Z_SCORE", 3, 4, 3.1));
+        faults.add(FaultInjection.builder()
+                .id(UUID.randomUUID())
+                .faultType(FaultInjection.FaultType.OVERHEAT)
+                .startTs(tick(10))
+                .endTs(tick(TICKS - 1))
+                .build());
+    }
+
+    private Instant tick(int tick) {
+        return t0.plusMillis(tick * 100L);
+    }
+
+    private AlarmEvent alarm(Robot robot, int joint, String detector, int firstTick, int lastTick, double score) {
+        return AlarmEvent.builder()
+                .id(UUID.randomUUID())
+                .robot(robot)
+                .jointIndex(joint)
+                .alarmType(AlarmEvent.AlarmType.TEMP_ANOMALY)
+                .severity(AlarmEvent.Severity.WARN)
+                .detector(detector)
+                .score(score)
+                .firstSeenTs(tick(firstTick))
+                .lastSeenTs(tick(lastTick))
+                .dedupKey(robot.getId() + "-" + joint + "-" + detector)
+                .build();
+    }
+
+    private EvaluationExporter exporter() {
+        ReplayDataSource dataSource = new InMemoryReplayDataSource(CHUNK_SIZE)
+                .addJointSamples(run.getId(), joints)
+                .addPoseSamples(run.getId(), poses);
+        return new EvaluationExporter(
+                id -> id.equals(run.getId()) ? Optional.of(run) : Optional.empty(),
+                id -> alarms,
+                id -> faults,
+                dataSource,
+                objectMapper);
+    }
+
+    @Test
+    void testCsvRowsFollowSampleOrderWithAlarmColumns() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter().writeCsv(run.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("timestamp,joint_index,current_a,vibration_rms,temperature_c,alarm_type,severity,detector,score",
+                lines[0]);
+        assertEquals(joints.size() + 1, lines.length);
+        for (int i = 0; i < joints.size(); i++) {
+            JointSample sample = joints.get(i);
+            String[] columns = lines[i + 1].split(",", -1);
+            assertEquals(9, columns.length);
+            assertEquals(sample.getTs().toString(), columns[0]);
+            assertEquals(Integer.toString(sample.getJointIndex()), columns[1]);
+            assertEquals(Double.toString(sample.getTemperatureC()), columns[4]);
+        }
+
+        // 告警区间[12, 15]内robotA关节1的样本带告警列，区间外为空
+        int perTick = 2 * JOINTS;
+        assertEquals("TEMP_ANOMALY,WARN,THRESHOLD,2.5", tail(lines[1 + 12 * perTick + 1]));
+        assertEquals("TEMP_ANOMALY,WARN,THRESHOLD,2.5", tail(lines[1 + 15 * perTick + 1]));
+        assertEquals(",,,", tail(lines[1 + 16 * perTick + 1]));
+        assertEquals("TEMP_ANOMALY,WARN,Z_SCORE,3.1", tail(lines[1 + 3 * perTick + JOINTS]));
+        assertEquals(",,,", tail(lines[1 + 3 * perTick]));
+    }
+
+    private static String tail(String line) {
+        String[] columns = line.split(",", -1);
+        return String.join(",", columns[5], columns[6], columns[7], columns[8]);
+    }
+
+    /**
+     * 序列化后再解析，与导出结果按相同的数值节点类型比较
+     */
+    private JsonNode asJson(Object value) throws IOException {
+        return objectMapper.readTree(objectMapper.writeValueAsBytes(value));
+    }
+
+    @Test
+    void testJsonMatchesInMemoryEvaluationReport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter().writeJson(run, out);
+
+        JsonNode json = objectMapper.readTree(out.toByteArray());
+        EvaluationReport report = SimulationEngine.buildEvaluationReport(run, joints, poses, alarms, faults);
+
+        assertEquals(run.getId().toString(), json.get("scenarioRunId").asText());
+        assertEquals("overheat", json.get("scenarioName").asText());
+        assertEquals(asJson(report.getSampleStats()), json.get("sampleStats"));
+        assertEquals(asJson(report.getAlarmStats()), json.get("alarmStats"));
+        assertEquals(asJson(report.getDetectorPerformance()), json.get("detectorPerformance"));
+        assertEquals(asJson(report.getFaultInjections()), json.get("faultInjections"));
+
+        JsonNode jointSamples = json.get("jointSamples");
+        assertEquals(joints.size(), jointSamples.size());
+        for (int i = 0; i < joints.size(); i++) {
+            assertEquals(joints.get(i).getId(), jointSamples.get(i).get("id").asLong());
+        }
+        assertEquals(poses.size(), json.get("poseSamples").size());
+        assertEquals(alarms.size(), json.get("alarmEvents").size());
+        // 故障期间THRESHOLD检测到故障，延迟为告警首次时间减故障开始时间
+        assertEquals(1, report.getDetectorPerformance().getDetectors().get("THRESHOLD").getDetectedFaults());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.FaultInjection;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultTimelineTest {
+
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    private FaultInjection fault(FaultInjection.FaultType type, long startSeconds, long endSeconds) {
+        return FaultInjection.builder()
+                .id(UUID.randomUUID())
+                .faultType(type)
+                .startTs(t0.plusSeconds(startSeconds))
+                .endTs(t0.plusSeconds(endSeconds))
+                .build();
+    }
+
+    @Test
+    void testEmptyTimeline() {
+        FaultTimeline timeline = new FaultTimeline();
+
+        assertTrue(timeline.activeAt(t0).isEmpty());
+        assertEquals(0, timeline.size());
+    }
+
+    @Test
+    void testActiveWindowIsInclusive() {
+        FaultInjection overheat = fault(FaultInjection.FaultType.OVERHEAT, 10, 20);
+        FaultTimeline timeline = new FaultTimeline();
+        timeline.add(overheat);
+
+        assertTrue(timeline.activeAt(t0.plusSeconds(9)).isEmpty());
+        assertEquals(List.of(overheat), timeline.activeAt(t0.plusSeconds(10)));
+        assertEquals(List.of(overheat), timeline.activeAt(t0.plusMillis(15_500)));
+        assertEquals(List.of(overheat), timeline.activeAt(t0.plusSeconds(20)));
+        assertTrue(timeline.activeAt(t0.plusSeconds(20).plusNanos(1)).isEmpty());
+    }
+
+    @Test
+    void testOverlappingFaultsKeepInsertionOrder() {
+        FaultInjection overheat = fault(FaultInjection.FaultType.OVERHEAT, 0, 30);
+        FaultInjection vibration = fault(FaultInjection.FaultType.HIGH_VIBRATION, 10, 20);
+        FaultInjection drift = fault(FaultInjection.FaultType.SENSOR_DRIFT, 20, 40);
+        FaultTimeline timeline = new FaultTimeline();
+        timeline.addAll(List.of(overheat, vibration, drift));
+
+        assertEquals(List.of(overheat), timeline.activeAt(t0.plusSeconds(5)));
+        assertEquals(List.of(overheat, vibration), timeline.activeAt(t0.plusSeconds(15)));
+        assertEquals(List.of(overheat, vibration, drift), timeline.activeAt(t0.plusSeconds(20)));
+        assertEquals(List.of(overheat, drift), timeline.activeAt(t0.plusSeconds(25)));
+        assertEquals(List.of(drift), timeline.activeAt(t0.plusSeconds(35)));
+        assertTrue(timeline.activeAt(t0.plusSeconds(41)).isEmpty());
+    }
+
+    @Test
+    void testAddReplacesFaultWithSameId() {
+        FaultInjection original = fault(FaultInjection.FaultType.OVERHEAT, 0, 10);
+        FaultTimeline timeline = new FaultTimeline();
+        timeline.add(original);
+
+        FaultInjection updated = FaultInjection.builder()
+                .id(original.getId())
+                .faultType(FaultInjection.FaultType.OVERHEAT)
+                .startTs(t0.plusSeconds(50))
+                .endTs(t0.plusSeconds(60))
+                .build();
+        timeline.addAll(List.of(updated));
+
+        assertEquals(1, timeline.size());
+        assertTrue(timeline.activeAt(t0.plusSeconds(5)).isEmpty());
+        assertEquals(List.of(updated), timeline.activeAt(t0.plusSeconds(55)));
+    }
+
+    @Test
+    void testInvalidWindowIsNeverActive() {
+        FaultTimeline timeline = new FaultTimeline();
+        timeline.add(fault(FaultInjection.FaultType.CURRENT_SPIKE, 20, 10));
+
+        assertEquals(1, timeline.size());
+        assertTrue(timeline.activeAt(t0.plusSeconds(15)).isEmpty());
+    }
+}
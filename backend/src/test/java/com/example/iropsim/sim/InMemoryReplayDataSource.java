@@ -0,0 +1,61 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 内存回放数据源：按运行保存样本，按(ts, id)键集分块返回，分块大小可调小以覆盖跨分块路径
+ */
+class InMemoryReplayDataSource extends ReplayDataSource {
+
+    private final Map<UUID, List<JointSample>> jointSamples = new HashMap<>();
+    private final Map<UUID, List<PoseSample>> poseSamples = new HashMap<>();
+    private final int chunkSize;
+
+    InMemoryReplayDataSource(int chunkSize) {
+        super(null, null);
+        this.chunkSize = chunkSize;
+    }
+
+    InMemoryReplayDataSource addJointSamples(UUID runId, List<JointSample> samples) {
+        jointSamples.computeIfAbsent(runId, id -> new ArrayList<>()).addAll(samples);
+        return this;
+    }
+
+    InMemoryReplayDataSource addPoseSamples(UUID runId, List<PoseSample> samples) {
+        poseSamples.computeIfAbsent(runId, id -> new ArrayList<>()).addAll(samples);
+        return this;
+    }
+
+    @Override
+    public ReplayCursor<JointSample> jointSamples(UUID runId, Instant from) {
+        return cursor(jointSamples.getOrDefault(runId, List.of()), JointSample::getTs, JointSample::getId, from);
+    }
+
+    @Override
+    public ReplayCursor<PoseSample> poseSamples(UUID runId, Instant from) {
+        return cursor(poseSamples.getOrDefault(runId, List.of()), PoseSample::getTs, PoseSample::getId, from);
+    }
+
+    private <T> ReplayCursor<T> cursor(List<T> rows, Function<T, Instant> ts, ToLongFunction<T> id, Instant from) {
+        Comparator<T> order = Comparator.comparing(ts).thenComparingLong(id);
+        List<T> sorted = rows.stream()
+                .filter(row -> !ts.apply(row).isBefore(from))
+                .sorted(order)
+                .toList();
+        return new ReplayCursor<>((after, limit) -> sorted.stream()
+                .filter(row -> after == null || order.compare(row, after) > 0)
+                .limit(limit)
+                .toList(), chunkSize);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.Robot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplaySessionTest {
+
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+    private final Robot robot = Robot.builder().id(UUID.randomUUID()).name("r1").jointCount(1).build();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final List<Instant> replayed = new CopyOnWriteArrayList<>();
+
+    private List<JointSample> recording;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 录制数据：每100ms一帧，共count帧
+     */
+    private void record(int count) {
+        recording = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            recording.add(JointSample.builder().id((long) i + 1).robot(robot).jointIndex(0)
+                    .ts(t0.plusMillis(100L * i)).build());
+        }
+    }
+
+    private ReplayStream open(Instant from) {
+        List<JointSample> rows = recording.stream().filter(s -> !s.getTs().isBefore(from)).toList();
+        ReplayCursor<JointSample> joints = new ReplayCursor<>((after, limit) ->
+                after == null ? rows : List.of(), Integer.MAX_VALUE);
+        ReplayCursor<PoseSample> poses = new ReplayCursor<>((after, limit) -> List.of(), Integer.MAX_VALUE);
+        return new ReplayStream(joints, poses);
+    }
+
+    private ReplaySession session(double speed) {
+        return new ReplaySession(UUID.randomUUID(), open(t0), speed, this::open, frame -> replayed.add(frame.getTs()));
+    }
+
+    @Test
+    void testFramesFollowRecordedTimestampsDividedBySpeed() throws Exception {
+        record(11);
+        ReplaySession session = session(10.0);
+
+        long start = System.nanoTime();
+        assertTrue(executor.submit(session::run).get(5, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 1秒的录制按10倍速回放约100ms
+        assertEquals(11, replayed.size());
+        assertTrue(elapsedMillis >= 90 && elapsedMillis < 1000, "elapsed: " + elapsedMillis);
+        assertEquals(11, session.getStatus().getFramesReplayed());
+        assertEquals(t0.plusSeconds(1), session.getStatus().getPosition());
+    }
+
+    @Test
+    void testPauseHoldsPositionAndResumeContinues() throws Exception {
+        record(50);
+        ReplaySession session = session(1.0);
+        Future<Boolean> result = executor.submit(session::run);
+
+        TimeUnit.MILLISECONDS.sleep(250);
+        session.pause();
+        int pausedAt = replayed.size();
+        TimeUnit.MILLISECONDS.sleep(300);
+
+        assertTrue(session.getStatus().isPaused());
+        assertEquals(pausedAt, replayed.size());
+
+        session.resume();
+        session.setSpeed(100.0);
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+        assertEquals(50, replayed.size());
+    }
+
+    @Test
+    void testSeekJumpsToRecordedTimestamp() throws Exception {
+        record(100);
+        ReplaySession session = session(1.0);
+        Future<Boolean> result = executor.submit(session::run);
+
+        TimeUnit.MILLISECONDS.sleep(50);
+        session.seek(t0.plusMillis(9_500));
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+
+        // 跳转后从9.5秒处继续，只剩5帧
+        assertTrue(replayed.contains(t0.plusMillis(9_500)));
+        assertFalse(replayed.contains(t0.plusMillis(5_000)));
+        assertEquals(t0.plusMillis(9_900), replayed.get(replayed.size() - 1));
+    }
+
+    @Test
+    void testSeekPushesFirstFrameAfterTargetImmediately() throws Exception {
+        record(5);
+        // 目标时刻之后4.5秒才有下一帧
+        recording.add(JointSample.builder().id(6L).robot(robot).jointIndex(0).ts(t0.plusSeconds(5)).build());
+        ReplaySession session = session(1.0);
+        Future<Boolean> result = executor.submit(session::run);
+
+        TimeUnit.MILLISECONDS.sleep(50);
+        long start = System.nanoTime();
+        session.seek(t0.plusMillis(500));
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(t0.plusSeconds(5), replayed.get(replayed.size() - 1));
+        assertTrue(elapsedMillis < 1000, "elapsed: " + elapsedMillis);
+    }
+
+    @Test
+    void testCancelStopsReplay() throws Exception {
+        record(100);
+        ReplaySession session = session(1.0);
+        Future<Boolean> result = executor.submit(session::run);
+
+        TimeUnit.MILLISECONDS.sleep(50);
+        session.cancel();
+
+        assertFalse(result.get(5, TimeUnit.SECONDS));
+        assertTrue(session.isDone());
+        assertTrue(replayed.size() < 100);
+    }
+
+    @Test
+    void testRejectsInvalidSpeed() {
+        record(1);
+        assertThrows(IllegalArgumentException.class, () -> session(0));
+        assertThrows(IllegalArgumentException.class, () -> session(1.0).setSpeed(-1));
+    }
+}
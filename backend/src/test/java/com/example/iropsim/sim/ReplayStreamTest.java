@@ -0,0 +1,103 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.Robot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayStreamTest {
+
+    private final Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+    private final Robot robotA = Robot.builder().id(UUID.randomUUID()).name("a").jointCount(2).build();
+    private final Robot robotB = Robot.builder().id(UUID.randomUUID()).name("b").jointCount(2).build();
+    private long nextId = 1;
+
+    private JointSample joint(Robot robot, int jointIndex, long second) {
+        return JointSample.builder().id(nextId++).robot(robot).jointIndex(jointIndex).ts(t0.plusSeconds(second)).build();
+    }
+
+    private PoseSample pose(Robot robot, long second) {
+        return PoseSample.builder().id(nextId++).robot(robot).ts(t0.plusSeconds(second)).build();
+    }
+
+    /**
+     * 模拟数据库键集分页：按(ts, id)排序后返回after之后的limit条
+     */
+    private <T> ReplayCursor<T> cursor(List<T> rows, Function<T, Instant> ts, ToLongFunction<T> id, int chunkSize) {
+        List<T> sorted = new ArrayList<>(rows);
+        Comparator<T> order = Comparator.comparing(ts).thenComparingLong(id);
+        sorted.sort(order);
+        return new ReplayCursor<>((after, limit) -> sorted.stream()
+                .filter(row -> after == null || order.compare(row, after) > 0)
+                .limit(limit)
+                .toList(), chunkSize);
+    }
+
+    @Test
+    void testFramesGroupSamplesByTimestampAcrossChunks() {
+        List<JointSample> joints = new ArrayList<>();
+        List<PoseSample> poses = new ArrayList<>();
+        for (long second = 0; second < 5; second++) {
+            for (int joint = 0; joint < 2; joint++) {
+                joints.add(joint(robotA, joint, second));
+                joints.add(joint(robotB, joint, second));
+            }
+            poses.add(pose(robotA, second));
+            poses.add(pose(robotB, second));
+        }
+        ReplayCursor<JointSample> jointCursor = cursor(joints, JointSample::getTs, JointSample::getId, 3);
+        ReplayStream stream = new ReplayStream(jointCursor, cursor(poses, PoseSample::getTs, PoseSample::getId, 3));
+
+        int frames = 0;
+        while (stream.hasNext()) {
+            ReplayFrame frame = stream.next();
+            assertEquals(t0.plusSeconds(frames), frame.getTs());
+            assertEquals(4, frame.getJointSamples().size());
+            assertEquals(2, frame.getPoseSamples().size());
+            assertEquals(frame.getTs(), frame.getPoseSamples().get(robotA.getId()).getTs());
+            frames++;
+        }
+
+        assertEquals(5, frames);
+        // 20条关节样本按每块3条读取，最后一次加载返回不足一块的数据后结束
+        assertEquals(7, jointCursor.getLoadedChunks());
+    }
+
+    @Test
+    void testPosesWithoutJointFrameAreSkipped() {
+        List<JointSample> joints = List.of(joint(robotA, 0, 0), joint(robotA, 0, 2));
+        List<PoseSample> poses = List.of(pose(robotA, 0), pose(robotA, 1), pose(robotA, 2), pose(robotA, 3));
+        ReplayStream stream = new ReplayStream(
+                cursor(joints, JointSample::getTs, JointSample::getId, 10),
+                cursor(poses, PoseSample::getTs, PoseSample::getId, 10));
+
+        ReplayFrame first = stream.next();
+        ReplayFrame second = stream.next();
+
+        assertEquals(t0, first.getPoseSamples().get(robotA.getId()).getTs());
+        assertEquals(t0.plusSeconds(2), second.getPoseSamples().get(robotA.getId()).getTs());
+        assertFalse(stream.hasNext());
+    }
+
+    @Test
+    void testFrameWithoutPose() {
+        ReplayStream stream = new ReplayStream(
+                cursor(List.of(joint(robotA, 0, 0)), JointSample::getTs, JointSample::getId, 10),
+                cursor(List.<PoseSample>of(), PoseSample::getTs, PoseSample::getId, 10));
+
+        ReplayFrame frame = stream.next();
+
+        assertEquals(1, frame.getJointSamples().size());
+        assertTrue(frame.getPoseSamples().isEmpty());
+    }
+}
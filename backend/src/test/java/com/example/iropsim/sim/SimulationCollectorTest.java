@@ -0,0 +1,84 @@
+package com.example.iropsim.sim;
+
+import com.example.iropsim.entity.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationCollectorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+    private SimulationCollector collector;
+    private Robot robot;
+    private ScenarioRun scenarioRun;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        collector = new SimulationCollector(objectMapper);
+        robot = Robot.builder().id(UUID.randomUUID()).name("r1").model("UR5").jointCount(6).build();
+        Scenario scenario = Scenario.builder()
+                .id(UUID.randomUUID())
+                .name("test")
+                .baseParams(objectMapper.readTree("{\"temp_nominal\": 60.0}"))
+                .build();
+        scenarioRun = ScenarioRun.builder().id(UUID.randomUUID()).scenario(scenario).seed(7L).build();
+    }
+
+    @Test
+    void testFrameContainsAllJointsAndPose() {
+        RobotFrame frame = collector.collectRobotFrame(robot, scenarioRun, now, List.of());
+
+        assertEquals(6, frame.getJointSamples().size());
+        for (int i = 0; i < 6; i++) {
+            JointSample sample = frame.getJointSamples().get(i);
+            assertEquals(i, sample.getJointIndex());
+            assertEquals(JointSample.SampleLabel.NORMAL, sample.getLabel());
+            assertEquals(60.0, sample.getTemperatureC(), 15.0);
+        }
+        assertNotNull(frame.getPoseSample());
+    }
+
+    @Test
+    void testFrameAppliesActiveFaults() throws Exception {
+        FaultInjection overheat = FaultInjection.builder()
+                .id(UUID.randomUUID())
+                .faultType(FaultInjection.FaultType.OVERHEAT)
+                .startTs(now.minusSeconds(10))
+                .endTs(now.plusSeconds(10))
+                .params(objectMapper.readTree("{\"amplitude\": 20.0}"))
+                .build();
+        FaultInjection expiredDrift = FaultInjection.builder()
+                .id(UUID.randomUUID())
+                .faultType(FaultInjection.FaultType.SENSOR_DRIFT)
+                .startTs(now.minusSeconds(100))
+                .endTs(now.minusSeconds(50))
+                .params(objectMapper.readTree("{\"driftRate\": 0.1}"))
+                .build();
+
+        RobotFrame frame = collector.collectRobotFrame(robot, scenarioRun, now, List.of(overheat, expiredDrift));
+
+        frame.getJointSamples().forEach(sample ->
+                assertEquals(JointSample.SampleLabel.FAULT_OVERHEAT, sample.getLabel()));
+        assertEquals(PoseSample.SampleLabel.NORMAL, frame.getPoseSample().getLabel());
+    }
+
+    @Test
+    void testFrameIsReproducibleForSameRunAndRobot() {
+        RobotFrame first = collector.collectRobotFrame(robot, scenarioRun, now, List.of());
+        collector.releaseRun(scenarioRun.getId());
+        RobotFrame second = collector.collectRobotFrame(robot, scenarioRun, now, List.of());
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals(first.getJointSamples().get(i).getCurrentA(), second.getJointSamples().get(i).getCurrentA());
+        }
+        assertEquals(first.getPoseSample().getX(), second.getPoseSample().getX());
+    }
+}
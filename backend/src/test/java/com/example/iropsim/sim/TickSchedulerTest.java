@@ -0,0 +1,133 @@
+package com.example.iropsim.sim;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickSchedulerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final TickScheduler scheduler = new TickScheduler(executor, TickScheduler.OverrunPolicy.CATCH_UP, 200, 100);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSubMillisecondPeriodKeepsRequestedRate() throws Exception {
+        List<Instant> tickTimes = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(200);
+        TickScheduler.TickHandle handle = scheduler.schedule("test", 2000, t -> {
+            tickTimes.add(t);
+            done.countDown();
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS), "ticks executed: " + tickTimes.size());
+        handle.cancel();
+        TickStats stats = handle.getStats();
+
+        // 2000Hz在毫秒整数周期下会被截断为1000Hz，这里要求周期和tick理想时刻保持亚毫秒精度，
+        // 不依赖实际执行速度，负载较高的机器上也成立
+        assertEquals(500_000, stats.getPeriodNanos());
+        for (int i = 1; i < 200; i++) {
+            long gapNanos = Duration.between(tickTimes.get(i - 1), tickTimes.get(i)).toNanos();
+            assertTrue(gapNanos > 0 && gapNanos % 500_000 == 0, "tick gap " + gapNanos + " ns");
+        }
+        assertTrue(stats.getTicks() >= 200);
+        assertTrue(stats.getActualRateHz() > 0);
+    }
+
+    @Test
+    void testSkipPolicyCountsMissedTicks() throws Exception {
+        CountDownLatch done = new CountDownLatch(10);
+        TickScheduler.TickHandle handle = scheduler.schedule("test", 1000, TickScheduler.OverrunPolicy.SKIP, t -> {
+            sleepMillis(5);
+            done.countDown();
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        handle.cancel();
+        TickStats stats = handle.getStats();
+
+        // 每次tick至少耗时5个周期，之后的每个tick都有落后的tick被跳过而不是补执行
+        assertTrue(stats.getMissedTicks() >= stats.getTicks() - 1,
+                "ticks: " + stats.getTicks() + ", missed: " + stats.getMissedTicks());
+    }
+
+    @Test
+    void testCancelStopsLoop() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        TickScheduler.TickHandle handle = scheduler.schedule("test", 100, t -> count.incrementAndGet());
+
+        TimeUnit.MILLISECONDS.sleep(50);
+        handle.cancel();
+        assertTrue(handle.isDone());
+        TimeUnit.MILLISECONDS.sleep(50);
+        int afterCancel = count.get();
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        assertEquals(afterCancel, count.get());
+    }
+
+    @Test
+    void testCatchUpTicksKeepIdealTimestamps() throws Exception {
+        List<Instant> tickTimes = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(20);
+        TickScheduler.TickHandle handle = scheduler.schedule("test", 1000, t -> {
+            if (tickTimes.isEmpty()) {
+                // 首个tick停顿，之后的tick全部落后需要补执行
+                sleepMillis(10);
+            }
+            tickTimes.add(t);
+            done.countDown();
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        handle.cancel();
+
+        // 补执行的tick连续执行，但时间戳仍落在1ms周期的理想时刻上（负载过高丢弃tick时间隔为周期的整数倍）
+        for (int i = 1; i < 20; i++) {
+            long gapNanos = Duration.between(tickTimes.get(i - 1), tickTimes.get(i)).toNanos();
+            assertTrue(gapNanos > 0 && gapNanos % 1_000_000 == 0, "tick gap " + gapNanos + " ns");
+        }
+    }
+
+    @Test
+    void testInterruptStopsLoop() throws Exception {
+        ExecutorService tickExecutor = Executors.newSingleThreadExecutor();
+        TickScheduler interruptible = new TickScheduler(tickExecutor, TickScheduler.OverrunPolicy.CATCH_UP, 200, 100);
+        TickScheduler.TickHandle handle = interruptible.schedule("test", 100, t -> { });
+
+        TimeUnit.MILLISECONDS.sleep(50);
+        tickExecutor.shutdownNow();
+
+        assertTrue(tickExecutor.awaitTermination(5, TimeUnit.SECONDS), "tick thread kept running after interrupt");
+        assertTrue(handle.isDone());
+    }
+
+    private static void sleepMillis(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testRejectsInvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule("test", 0, t -> { }));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule("test", Double.NaN, t -> { }));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.iropsim.telemetry;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.Robot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatestSampleCacheTest {
+
+    private final Robot robot = Robot.builder().id(UUID.randomUUID()).name("r1").model("UR5").build();
+
+    @Test
+    void testLatestSamplePerJointInJointOrder() {
+        LatestSampleCache cache = new LatestSampleCache();
+        Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+
+        cache.updateJointSample(jointSample(2, t0, 1.0));
+        cache.updateJointSample(jointSample(0, t0, 2.0));
+        cache.updateJointSample(jointSample(0, t0.plusSeconds(1), 3.0));
+
+        List<JointSample> latest = cache.getLatestJointSamples(robot.getId());
+        assertEquals(2, latest.size());
+        assertEquals(0, latest.get(0).getJointIndex());
+        assertEquals(3.0, latest.get(0).getCurrentA());
+        assertEquals(2, latest.get(1).getJointIndex());
+    }
+
+    @Test
+    void testOlderSampleDoesNotOverwriteNewer() {
+        LatestSampleCache cache = new LatestSampleCache();
+        Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+
+        cache.updateJointSample(jointSample(0, t0.plusSeconds(5), 5.0));
+        cache.updateJointSample(jointSample(0, t0, 1.0));
+        cache.updatePoseSample(PoseSample.builder().robot(robot).ts(t0.plusSeconds(5)).x(5.0).build());
+        cache.updatePoseSample(PoseSample.builder().robot(robot).ts(t0).x(1.0).build());
+
+        assertEquals(5.0, cache.getLatestJointSamples(robot.getId()).get(0).getCurrentA());
+        assertEquals(5.0, cache.getLatestPoseSample(robot.getId()).getX());
+    }
+
+    @Test
+    void testUnknownRobotReturnsEmpty() {
+        LatestSampleCache cache = new LatestSampleCache();
+        cache.updateJointSample(jointSample(0, Instant.now(), 1.0));
+        cache.evict(robot.getId());
+
+        assertTrue(cache.getLatestJointSamples(robot.getId()).isEmpty());
+        assertNull(cache.getLatestPoseSample(robot.getId()));
+    }
+
+    private JointSample jointSample(int jointIndex, Instant ts, double currentA) {
+        return JointSample.builder().robot(robot).jointIndex(jointIndex).ts(ts).currentA(currentA).build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.iropsim.telemetry;
+
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.Robot;
+import com.example.iropsim.repository.JointSampleRepository;
+import com.example.iropsim.repository.RobotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JPA批量INSERT与COPY写入的行为检查：写入行数、主键分配和字段值
+ *
+ * <p>吞吐对比见JMH基准{@code SampleBatchWriterBenchmark}。需要本机Docker，没有Docker时自动跳过。</p>
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class SampleBatchWriterTest {
+
+    private static final int ROWS = 2_000;
+    private static final int BATCH_SIZE = 500;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JpaSampleBatchWriter jpaWriter;
+
+    @Autowired
+    private CopySampleBatchWriter copyWriter;
+
+    @Autowired
+    private RobotRepository robotRepository;
+
+    @Autowired
+    private JointSampleRepository jointSampleRepository;
+
+    private final Instant base = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void testJpaWriterPersistsAllRowsWithIds() {
+        Robot robot = robotRepository.save(Robot.builder().name("jpa-writer").model("UR5").build());
+
+        List<JointSample> written = writeAll(jpaWriter, robot);
+
+        // JPA写入后实体上已回填主键
+        assertTrue(written.stream().allMatch(s -> s.getId() != null));
+        assertPersisted(robot);
+    }
+
+    @Test
+    void testCopyWriterPersistsAllRowsWithIds() {
+        Robot robot = robotRepository.save(Robot.builder().name("copy-writer").model("UR5").build());
+
+        writeAll(copyWriter, robot);
+
+        assertPersisted(robot);
+    }
+
+    private List<JointSample> writeAll(SampleBatchWriter writer, Robot robot) {
+        List<JointSample> written = new ArrayList<>(ROWS);
+        for (int offset = 0; offset < ROWS; offset += BATCH_SIZE) {
+            List<JointSample> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = offset; i < offset + BATCH_SIZE; i++) {
+                batch.add(JointSample.builder()
+                        .ts(base.plusMillis(i))
+                        .robot(robot)
+                        .jointIndex(i % 6)
+                        .currentA(2.5)
+                        .vibrationRms(0.8)
+                        .temperatureC(45.0)
+                        .label(JointSample.SampleLabel.NORMAL)
+                        .build());
+            }
+            writer.writeJointSamples(batch);
+            written.addAll(batch);
+        }
+        return written;
+    }
+
+    private void assertPersisted(Robot robot) {
+        List<JointSample> rows = jointSampleRepository.findByRobotIdAndTsBetweenOrderByTsDesc(
+                robot.getId(), base, base.plusMillis(ROWS));
+
+        assertEquals(ROWS, rows.size());
+        Set<Long> ids = new HashSet<>();
+        for (JointSample row : rows) {
+            assertNotNull(row.getId());
+            assertTrue(ids.add(row.getId()), "duplicate id " + row.getId());
+            assertEquals(45.0, row.getTemperatureC());
+            assertEquals(JointSample.SampleLabel.NORMAL, row.getLabel());
+        }
+        // 最新一行的关节号与写入顺序一致
+        assertEquals((ROWS - 1) % 6, rows.get(0).getJointIndex());
+    }
+}
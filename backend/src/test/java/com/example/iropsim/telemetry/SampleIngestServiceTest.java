@@ -0,0 +1,164 @@
+package com.example.iropsim.telemetry;
+
+import com.example.iropsim.config.OverflowPolicy;
+import com.example.iropsim.entity.JointSample;
+import com.example.iropsim.entity.PoseSample;
+import com.example.iropsim.entity.ScenarioRun;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SampleIngestServiceTest {
+
+    @Test
+    void testAllSubmittedSamplesAreWritten() {
+        RecordingWriter writer = new RecordingWriter();
+        SampleIngestService service = new SampleIngestService(List.of(writer), new LatestSampleCache(), new SimpleMeterRegistry(),
+                100, 50, 20, OverflowPolicy.BLOCK, 3, 1);
+        service.start();
+
+        for (int i = 0; i < 40; i++) {
+            service.submit(jointSamples(6), new PoseSample(), ScenarioRun.IngestMode.JPA);
+        }
+        service.shutdown();
+
+        assertEquals(240, writer.jointSamples.size());
+        assertEquals(40, writer.poseSamples.size());
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    void testSamplesAreWrittenInBatches() {
+        RecordingWriter writer = new RecordingWriter();
+        SampleIngestService service = new SampleIngestService(List.of(writer), new LatestSampleCache(), new SimpleMeterRegistry(),
+                1000, 60, 500, OverflowPolicy.BLOCK, 3, 1);
+
+        // 写线程启动前先排队，保证一次能攒满一批
+        for (int i = 0; i < 20; i++) {
+            service.submit(jointSamples(6), null, ScenarioRun.IngestMode.JPA);
+        }
+        service.start();
+        service.shutdown();
+
+        assertEquals(120, writer.jointSamples.size());
+        assertTrue(writer.jointBatches < 20, "expected batched writes, got " + writer.jointBatches);
+    }
+
+    @Test
+    void testDropPolicyDoesNotBlockWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingWriter writer = new RecordingWriter() {
+            @Override
+            public void writeJointSamples(List<JointSample> samples) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.writeJointSamples(samples);
+            }
+        };
+        SampleIngestService service = new SampleIngestService(List.of(writer), new LatestSampleCache(), new SimpleMeterRegistry(),
+                2, 1, 10, OverflowPolicy.DROP, 3, 1);
+        service.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            service.submit(jointSamples(1), null, ScenarioRun.IngestMode.JPA);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+        service.shutdown();
+
+        assertTrue(elapsedMs < 1000, "submit blocked for " + elapsedMs + " ms");
+        assertTrue(writer.jointSamples.size() < 50);
+    }
+
+    @Test
+    void testFailedBatchIsRetriedWithoutRewritingSucceededPart() {
+        AtomicInteger poseFailures = new AtomicInteger(2);
+        RecordingWriter writer = new RecordingWriter() {
+            @Override
+            public void writePoseSamples(List<PoseSample> samples) {
+                if (poseFailures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("connection refused");
+                }
+                super.writePoseSamples(samples);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SampleIngestService service = new SampleIngestService(List.of(writer), new LatestSampleCache(), registry,
+                100, 1000, 20, OverflowPolicy.BLOCK, 3, 1);
+
+        service.submit(jointSamples(6), new PoseSample(), ScenarioRun.IngestMode.JPA);
+        service.start();
+        service.shutdown();
+
+        assertEquals(6, writer.jointSamples.size());
+        assertEquals(1, writer.poseSamples.size());
+        assertEquals(2, registry.counter("iropsim.ingest.flush.retries").count());
+        assertEquals(0, registry.counter("iropsim.ingest.samples.failed").count());
+    }
+
+    @Test
+    void testBatchIsDroppedAfterRetriesAreExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+        RecordingWriter writer = new RecordingWriter() {
+            @Override
+            public void writeJointSamples(List<JointSample> samples) {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("connection refused");
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SampleIngestService service = new SampleIngestService(List.of(writer), new LatestSampleCache(), registry,
+                100, 1000, 20, OverflowPolicy.BLOCK, 2, 1);
+
+        service.submit(jointSamples(6), null, ScenarioRun.IngestMode.JPA);
+        service.start();
+        service.shutdown();
+
+        assertEquals(3, attempts.get());
+        assertEquals(6, registry.counter("iropsim.ingest.samples.failed").count());
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    private static List<JointSample> jointSamples(int count) {
+        List<JointSample> samples = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            samples.add(JointSample.builder().jointIndex(i).ts(Instant.now()).build());
+        }
+        return samples;
+    }
+
+    private static class RecordingWriter implements SampleBatchWriter {
+        final List<JointSample> jointSamples = new CopyOnWriteArrayList<>();
+        final List<PoseSample> poseSamples = new CopyOnWriteArrayList<>();
+        volatile int jointBatches;
+
+        @Override
+        public ScenarioRun.IngestMode getMode() {
+            return ScenarioRun.IngestMode.JPA;
+        }
+
+        @Override
+        public void writeJointSamples(List<JointSample> samples) {
+            jointBatches++;
+            jointSamples.addAll(samples);
+        }
+
+        @Override
+        public void writePoseSamples(List<PoseSample> samples) {
+            poseSamples.addAll(samples);
+        }
+    }
+}
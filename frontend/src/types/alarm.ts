@@ -16,6 +16,7 @@ export interface AlarmEvent {
   count: number
   detector: string
   score: number
+  suppressed?: boolean
   evidence?: any
   scenarioRun?: {
     id: string